@@ -1,8 +1,20 @@
 package nightcoder;
 
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 import nightcoder.parser.Parser;
+import nightcoder.storage.InMemoryStorage;
+import nightcoder.storage.MappedStorage;
 import nightcoder.storage.Storage;
+import nightcoder.storage.StorageEngine;
+import nightcoder.storage.TaskArchive;
 import nightcoder.task.TaskList;
+import nightcoder.ui.Ui;
 
 /**
  * A playful and motivational chatbot assistant for late-night coding sessions.
@@ -13,21 +25,112 @@ import nightcoder.task.TaskList;
 public class NightCoder {
     private static final String DATA_FOLDER = "data";
     private static final String TASKS_FILE = "tasks.txt";
-    private static Parser parser;
-    private static final Storage storage = new Storage(NightCoder.DATA_FOLDER, NightCoder.TASKS_FILE);
-    private static final TaskList tasks = new TaskList(NightCoder.storage);
-
+    private static final String BINARY_TASKS_FILE = "tasks.bin";
+    private static final String ARCHIVE_FILE = "archive";
+    private static final String STORAGE_PROPERTY = "nightcoder.storage";
+    private static final String UNDO_LIMIT_PROPERTY = "nightcoder.undoLimit";
+    private static final String CONCURRENT_PROPERTY = "nightcoder.concurrent";
+    private static final String NEAR_DUPLICATES_PROPERTY = "nightcoder.nearDuplicates";
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    private static final int FLUSH_BATCH_SIZE = 64;
+    private static final long REMINDER_CHECK_INTERVAL_MILLIS = 1000;
+    private final StorageEngine storage;
+    private final TaskList tasks;
+    private final Parser parser;
+    private ScheduledExecutorService reminderChecker; // Null until reminders are started
 
+    /**
+     * Constructs a {@code NightCoder} instance using the storage engine named by the {@code nightcoder.storage}
+     * system property, which defaults to the journaled text file.
+     */
     public NightCoder() {
-        NightCoder.parser = new Parser(NightCoder.storage, NightCoder.tasks);
-        NightCoder.tasks.loadTasks();
+        this(NightCoder.createStorage(System.getProperty(NightCoder.STORAGE_PROPERTY, "text")));
+    }
+
+    /**
+     * Constructs a {@code NightCoder} instance that keeps its tasks in the given storage engine.
+     * The number of tasks that changes remembered for undo may touch is read from the {@code nightcoder.undoLimit}
+     * system property. Setting the {@code nightcoder.concurrent} system property lets several threads send commands
+     * at once, with plain listings served from snapshots of the task list, and setting the
+     * {@code nightcoder.nearDuplicates} system property warns about near-duplicates as tasks are added.
+     *
+     * @param storage The storage engine holding the tasks.
+     */
+    public NightCoder(StorageEngine storage) {
+        this.storage = storage;
+        this.tasks = new TaskList(this.storage, new TaskArchive(NightCoder.DATA_FOLDER, NightCoder.ARCHIVE_FILE),
+                Integer.getInteger(NightCoder.UNDO_LIMIT_PROPERTY, TaskList.DEFAULT_UNDO_LIMIT));
+        this.parser = new Parser(this.storage, this.tasks);
+        this.tasks.loadTasks();
+        if (Boolean.getBoolean(NightCoder.NEAR_DUPLICATES_PROPERTY)) {
+            this.tasks.enableNearDuplicateWarnings();
+        }
+        if (Boolean.getBoolean(NightCoder.CONCURRENT_PROPERTY)) {
+            this.tasks.enableConcurrentReads();
+        }
+    }
+
+    /**
+     * Creates the storage engine with the given name.
+     *
+     * @param engine One of "text", "binary", "memory" or "offheap". Unknown names fall back to "text".
+     * @return The {@code StorageEngine} to keep the tasks in.
+     */
+    public static StorageEngine createStorage(String engine) {
+        switch (engine.toLowerCase()) {
+        case "binary":
+            return new MappedStorage(NightCoder.DATA_FOLDER, NightCoder.BINARY_TASKS_FILE);
+        case "memory":
+            return new InMemoryStorage();
+        case "offheap":
+            return new InMemoryStorage(true);
+        case "text":
+        default:
+            Storage storage = new Storage(NightCoder.DATA_FOLDER, NightCoder.TASKS_FILE, true);
+            storage.enableWriteBehind(NightCoder.FLUSH_INTERVAL_MILLIS, NightCoder.FLUSH_BATCH_SIZE);
+            return storage;
+        }
+    }
+
+    /**
+     * Starts reminding about deadlines on the day they are due, and events on the day they start.
+     * Reminders are scheduled on a timing wheel, which a single background thread checks every second, however
+     * many reminders are pending. Reminders missed while NightCoder was closed are not given, apart from those for
+     * today.
+     *
+     * @param onReminder The hook that each reminder message is passed to, on the background thread.
+     */
+    public void startReminders(Consumer<String> onReminder) {
+        if (this.reminderChecker != null) {
+            return;
+        }
+        this.tasks.enableReminders(ZoneId.systemDefault(), System.currentTimeMillis());
+        this.reminderChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "nightcoder-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reminderChecker.scheduleAtFixedRate(() -> this.tasks.getDueReminders(System.currentTimeMillis())
+                .forEach(onReminder), 0, NightCoder.REMINDER_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Stops giving reminders, saves the current list of tasks, then writes any queued changes and releases the
+     * storage engine.
+     */
     public void saveTasksOnClose() {
-        NightCoder.tasks.saveTasks();
+        if (this.reminderChecker != null) {
+            this.reminderChecker.shutdownNow();
+        }
+        this.tasks.saveTasks();
+        try {
+            this.storage.close();
+        } catch (IOException e) {
+            Ui.getErrorUpdatingTasksFile(e);
+        }
     }
 
     public String getResponse(String input) {
-        return NightCoder.parser.parseCommand(input);
+        return this.parser.parseCommand(input);
     }
 }
@@ -3,6 +3,7 @@ package nightcoder.javafx;
 import java.util.ArrayList;
 import java.util.Objects;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -64,9 +65,11 @@ public class MainWindow extends AnchorPane {
         this.scene = s;
     }
 
-    /** Injects the NightCoder instance */
+    /** Injects the NightCoder instance, and shows its reminders as they fall due */
     public void setNightCoder(NightCoder n) {
         this.nightCoder = n;
+        this.nightCoder.startReminders(reminder -> Platform.runLater(() ->
+                this.dialogContainer.getChildren().add(DialogBox.getBotDialog(reminder, this.botImage))));
     }
 
     /**
@@ -1,10 +1,19 @@
 package nightcoder.parser;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 
-import nightcoder.storage.Storage;
+import nightcoder.storage.StorageEngine;
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Recurrence;
 import nightcoder.task.Task;
 import nightcoder.task.TaskList;
+import nightcoder.task.ToDo;
 import nightcoder.ui.Ui;
 
 /**
@@ -14,22 +23,31 @@ import nightcoder.ui.Ui;
  * @version 10
  */
 public class Parser {
-    private final Storage storage;
+    private static final String SELECT_BY_FIND = "find:";
+    private static final String RECURRENCE_FLAG = " /every ";
+    private static final String OCCURRENCE_FLAG = " /on ";
+    private static final String INVALID_TASK_NUMBER = """
+            [ Invalid Task Number! ]
+            Hmm, that number doesn't match any tasks on your list.
+            Double-check your task list with "list", and try again!""";
+    private final StorageEngine storage;
     private final TaskList tasks;
 
     /**
      * Constructs a {@code Parser} with the necessary dependencies.
      *
-     * @param storage The {@code Storage} instance to handle task persistence.
+     * @param storage The {@code StorageEngine} instance to handle task persistence.
      * @param tasks   The {@code TaskList} containing the list of tasks.
      */
-    public Parser(Storage storage, TaskList tasks) {
+    public Parser(StorageEngine storage, TaskList tasks) {
         this.storage = storage;
         this.tasks = tasks;
     }
 
     /**
      * Parses the user input and executes the corresponding command.
+     * A plain "list" only reads a snapshot of the task list, and runs straight away. Every other command runs
+     * while holding the task list's write lock, so that commands from several threads never overlap.
      *
      * @param input The full user input string to be parsed and processed.
      * @return The String response of the parsed input command.
@@ -37,6 +55,33 @@ public class Parser {
     public String parseCommand(String input) {
         String[] parts = input.split(" ", 2);
         String command = parts[0].toLowerCase();
+        if (Parser.isSnapshotRead(command, parts)) {
+            return this.execute(command, parts);
+        }
+        return this.tasks.write(() -> this.execute(command, parts));
+    }
+
+    /**
+     * Checks whether a command only reads what a snapshot of the task list holds, being a plain "list".
+     * Filtered and sorted lists, as well as searches, look tasks up in indices of the live list, which are quicker
+     * than scanning a snapshot, and hence are not served from one.
+     *
+     * @param command The lower-case name of the command.
+     * @param parts The command split into parts, where `parts[0]` is the name of the command.
+     * @return {@code true} if the command can be served from a snapshot.
+     */
+    private static boolean isSnapshotRead(String command, String[] parts) {
+        return command.equals("list") && (parts.length == 1 || parts[1].isBlank());
+    }
+
+    /**
+     * Executes a parsed command.
+     *
+     * @param command The lower-case name of the command.
+     * @param parts The command split into parts, where `parts[0]` is the name of the command.
+     * @return The String response of the command.
+     */
+    private String execute(String command, String[] parts) {
         // The switch structure is retained for clarity and readability. Each case acts as a self-contained command
         // handler, making the code easy to navigate without needing separate function calls for every command.
         switch (command) {
@@ -53,14 +98,37 @@ public class Parser {
         case "event":
             return parseEvent(parts);
         case "list":
+            if (parts.length == 2 && parts[1].trim().equalsIgnoreCase("all")) {
+                return this.tasks.listAllTasks();
+            } else if (parts.length == 2 && parts[1].trim().toLowerCase().startsWith("--sort")) {
+                return parseListSort(parts[1]);
+            } else if (parts.length == 2 && !parts[1].trim().isEmpty()) {
+                return parseListFilter(parts[1]);
+            }
             return this.tasks.listTasks();
+        case "stats":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("stats");
+            }
+            return this.tasks.getStats();
+        case "archive":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("archive");
+            }
+            return this.tasks.archiveCompleted();
         case "mark":
             if (parts.length != 2) {
                 return Ui.getInvalidUsage("mark");
             }
+            if (parts[1].contains(OCCURRENCE_FLAG)) {
+                return this.parseOccurrenceCommand(parts[1], true);
+            }
+            if (Parser.isSelection(parts[1])) {
+                return this.parseBulkCommand(parts[1], "mark");
+            }
             try {
                 // Attempt to parse the task ID
-                int markId = Integer.parseInt(parts[1]);
+                int markId = this.parseTaskNumber(parts[1]);
                 return setCompleted(markId, true);
             } catch (NumberFormatException e) {
                 // Handle invalid input for task ID
@@ -70,9 +138,15 @@ public class Parser {
             if (parts.length != 2) {
                 return Ui.getInvalidUsage("unmark");
             }
+            if (parts[1].contains(OCCURRENCE_FLAG)) {
+                return this.parseOccurrenceCommand(parts[1], false);
+            }
+            if (Parser.isSelection(parts[1])) {
+                return this.parseBulkCommand(parts[1], "unmark");
+            }
             try {
                 // Attempt to parse the task ID
-                int unmarkId = Integer.parseInt(parts[1]);
+                int unmarkId = this.parseTaskNumber(parts[1]);
                 return setCompleted(unmarkId, false);
             } catch (NumberFormatException e) {
                 // Handle invalid input for task ID
@@ -82,20 +156,48 @@ public class Parser {
             if (parts.length != 2) {
                 return Ui.getInvalidUsage("delete");
             }
+            if (Parser.isSelection(parts[1])) {
+                return this.parseBulkCommand(parts[1], "delete");
+            }
             try {
                 // Attempt to parse the task ID
-                int deleteId = Integer.parseInt(parts[1]);
+                int deleteId = this.parseTaskNumber(parts[1]);
                 return deleteTask(deleteId);
             } catch (NumberFormatException e) {
                 // Handle invalid input for task ID
                 return Ui.getInvalidNumberInput("delete");
             }
+        case "undo":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("undo");
+            }
+            return this.tasks.undo();
+        case "redo":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("redo");
+            }
+            return this.tasks.redo();
         case "find":
-            if (parts.length != 2) {
-                return Ui.getInvalidUsage("find");
+            return parseFind(parts);
+        case "due":
+            return parseDue(parts);
+        case "overdue":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("overdue");
             }
-            String findParams = parts[1];
-            return this.tasks.listTasks(findParams);
+            return this.tasks.listOverdueTasks(LocalDate.now());
+        case "conflicts":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("conflicts");
+            }
+            return this.tasks.listConflicts();
+        case "free":
+            return parseFree(parts);
+        case "dedupe":
+            if (parts.length != 1) {
+                return Ui.getInvalidUsage("dedupe");
+            }
+            return this.tasks.listNearDuplicates();
         default:
             return """
                     [ Oops! ]
@@ -104,6 +206,132 @@ public class Parser {
         }
     }
 
+    /**
+     * Parses and processes the command for finding tasks.
+     * The keyword may be preceded by a single option that changes how and where it is looked for,
+     * or by a "~" to look for similar words instead.
+     *
+     * @param parts The command split into parts, where `parts[0]` is "find".
+     * @return The String message of the list of matching tasks.
+     */
+    private String parseFind(String[] parts) {
+        if (parts.length != 2) {
+            return Ui.getInvalidUsage("find");
+        }
+        String findParams = parts[1];
+        String[] findParts = findParams.split(" ", 2);
+        String findKeyword = findParts.length == 2 ? findParts[1].trim() : "";
+        switch (findParts[0]) {
+        case "--archived":
+            return this.tasks.listArchivedTasks(findKeyword); // Without a keyword, every archived task is listed
+        case "--words":
+        case "--ranked":
+            if (findKeyword.isEmpty()) {
+                return Ui.getInvalidUsage("find");
+            }
+            return this.tasks.listTasksWithWords(findKeyword, findParts[0].equals("--ranked"));
+        default:
+            if (findParams.startsWith("~") && !findParams.substring(1).trim().isEmpty()) {
+                return this.tasks.listSimilarTasks(findParams.substring(1).trim());
+            }
+            return this.tasks.listTasks(findParams);
+        }
+    }
+
+    /**
+     * Parses and processes the command for listing tasks in a sorted order, given as "--sort due", "--sort type",
+     * "--sort status" or "--sort name".
+     *
+     * @param options The options following "list".
+     * @return The String message of the sorted list of tasks.
+     */
+    private String parseListSort(String options) {
+        String[] sortParts = options.trim().toLowerCase().split("\\s+");
+        if (sortParts.length != 2 || !sortParts[0].equals("--sort")) {
+            return Ui.getInvalidUsage("list");
+        }
+        try {
+            return this.tasks.listTasksSortedBy(sortParts[1]);
+        } catch (IllegalArgumentException e) {
+            return Ui.getInvalidUsage("list");
+        }
+    }
+
+    /**
+     * Parses and processes the filters of the command for listing tasks of a given type, completion status, or both.
+     * The type is one of "todo", "deadline" or "event", or just "T", "D" or "E", and the status is either "done"
+     * or "undone". Each may be given at most once, in either order.
+     *
+     * @param filters The filters following "list".
+     * @return The String message of the list of matching tasks.
+     */
+    private String parseListFilter(String filters) {
+        Class<? extends Task> type = null;
+        Boolean isCompleted = null;
+        for (String filter : filters.trim().toLowerCase().split("\\s+")) {
+            Class<? extends Task> filterType = switch (filter) {
+                case "t", "todo" -> ToDo.class;
+                case "d", "deadline" -> Deadline.class;
+                case "e", "event" -> Event.class;
+                default -> null;
+            };
+            if (filterType != null && type == null) {
+                type = filterType;
+            } else if ((filter.equals("done") || filter.equals("undone")) && isCompleted == null) {
+                isCompleted = filter.equals("done");
+            } else {
+                return Ui.getInvalidUsage("list");
+            }
+        }
+        return this.tasks.listTasks(type, isCompleted);
+    }
+
+    /**
+     * Parses and processes the command for listing deadlines due before a date, or between two dates.
+     * Dates must be given as "yyyy-MM-dd".
+     *
+     * @param parts The command split into parts, where `parts[0]` is "due".
+     * @return The String message of the list of matching deadlines.
+     */
+    private String parseDue(String[] parts) {
+        if (parts.length != 2) {
+            return Ui.getInvalidUsage("due");
+        }
+        String[] dueParts = parts[1].trim().split("\\s+");
+        try {
+            if (dueParts.length == 2 && dueParts[0].equalsIgnoreCase("before")) {
+                return this.tasks.listTasksDueBefore(LocalDate.parse(dueParts[1]));
+            } else if (dueParts.length == 3 && dueParts[0].equalsIgnoreCase("between")) {
+                return this.tasks.listTasksDueBetween(LocalDate.parse(dueParts[1]), LocalDate.parse(dueParts[2]));
+            }
+        } catch (DateTimeParseException e) {
+            // Fall through to the invalid usage message below
+        }
+        return Ui.getInvalidUsage("due");
+    }
+
+    /**
+     * Parses and processes the command for listing the free days between two dates.
+     * Dates must be given as "yyyy-MM-dd".
+     *
+     * @param parts The command split into parts, where `parts[0]` is "free".
+     * @return The String message of the list of free days.
+     */
+    private String parseFree(String[] parts) {
+        if (parts.length != 2) {
+            return Ui.getInvalidUsage("free");
+        }
+        String[] freeParts = parts[1].trim().split("\\s+");
+        if (freeParts.length != 2) {
+            return Ui.getInvalidUsage("free");
+        }
+        try {
+            return this.tasks.listFreeDays(LocalDate.parse(freeParts[0]), LocalDate.parse(freeParts[1]));
+        } catch (DateTimeParseException e) {
+            return Ui.getInvalidUsage("free");
+        }
+    }
+
     /**
      * Parses and processes the command for adding a deadline task.
      * If the format is incorrect, it returns an error message.
@@ -115,7 +343,13 @@ public class Parser {
         if (parts.length != 2) {
             return Ui.getInvalidUsage("deadline");
         }
-        String deadlineParams = parts[1];
+        Recurrence recurrence;
+        try {
+            recurrence = Parser.parseRecurrence(parts[1]);
+        } catch (IllegalArgumentException e) {
+            return Ui.getInvalidUsage("deadline");
+        }
+        String deadlineParams = Parser.withoutRecurrence(parts[1]);
         if (!deadlineParams.contains(" /by ")) {
             // Missing "/by"
             return Ui.getInvalidUsage("deadline");
@@ -128,7 +362,7 @@ public class Parser {
         // Correct Usage from here...
         String deadlineDescription = deadlineParts[0];
         String deadlineBy = deadlineParts[1];
-        return this.tasks.addDeadline(deadlineDescription.trim(), deadlineBy.trim());
+        return this.tasks.addDeadline(deadlineDescription.trim(), deadlineBy.trim(), recurrence);
     }
 
     /**
@@ -142,7 +376,13 @@ public class Parser {
         if (parts.length != 2) {
             return Ui.getInvalidUsage("event");
         }
-        String eventParams = parts[1];
+        Recurrence recurrence;
+        try {
+            recurrence = Parser.parseRecurrence(parts[1]);
+        } catch (IllegalArgumentException e) {
+            return Ui.getInvalidUsage("event");
+        }
+        String eventParams = Parser.withoutRecurrence(parts[1]);
         if (!eventParams.contains(" /from ") || !eventParams.contains(" /to ")) {
             // Missing "/from" or "/to"
             return Ui.getInvalidUsage("event");
@@ -163,7 +403,152 @@ public class Parser {
             return Ui.getInvalidUsage("event");
         }
         // Correct Usage from here...
-        return this.tasks.addEvent(eventDescription.trim(), fromParams.trim(), toParams.trim());
+        return this.tasks.addEvent(eventDescription.trim(), fromParams.trim(), toParams.trim(), recurrence);
+    }
+
+    /**
+     * Parses the rule given after "/every" at the end of a deadline or event command, such as
+     * "/every week until 2026-12-31".
+     *
+     * @param params The parameters of the command.
+     * @return The {@code Recurrence} described by the rule, or {@code null} if the command has no "/every".
+     * @throws IllegalArgumentException If the rule is not a valid rule.
+     */
+    private static Recurrence parseRecurrence(String params) throws IllegalArgumentException {
+        int everyIdx = params.lastIndexOf(RECURRENCE_FLAG);
+        if (everyIdx < 0) {
+            return null;
+        }
+        String rule = params.substring(everyIdx + RECURRENCE_FLAG.length());
+        if (rule.trim().isEmpty() || rule.contains(" done ")) {
+            // Completed occurrences are only ever recorded by marking them
+            throw new IllegalArgumentException("Invalid recurrence: " + rule);
+        }
+        return Recurrence.parse(rule);
+    }
+
+    private static String withoutRecurrence(String params) {
+        int everyIdx = params.lastIndexOf(RECURRENCE_FLAG);
+        return everyIdx < 0 ? params : params.substring(0, everyIdx);
+    }
+
+    /**
+     * Parses and processes a mark or unmark command for a single occurrence of a repeating task, such as
+     * "3 /on 2025-01-13".
+     *
+     * @param params The parameters of the command.
+     * @param isCompleted {@code true} to mark the occurrence as completed, {@code false} to mark it as incomplete.
+     * @return The String message indicating the result of the command.
+     */
+    private String parseOccurrenceCommand(String params, boolean isCompleted) {
+        String command = isCompleted ? "mark" : "unmark";
+        String[] occurrenceParts = params.split(OCCURRENCE_FLAG, 2);
+        try {
+            int idx = this.parseTaskNumber(occurrenceParts[0]);
+            LocalDate date = LocalDate.parse(occurrenceParts[1].trim());
+            // Edge-Case ['idx' out of bounds]
+            if (idx > this.tasks.size() || idx < 1) {
+                return INVALID_TASK_NUMBER;
+            }
+            return this.tasks.setOccurrenceCompleted(idx - 1, date, isCompleted);
+        } catch (NumberFormatException e) {
+            return Ui.getInvalidNumberInput(command);
+        } catch (DateTimeParseException e) {
+            return Ui.getInvalidUsage(command);
+        }
+    }
+
+    /**
+     * Checks whether the argument of a mark, unmark or delete command selects several tasks, as a range
+     * such as "1-300", a list such as "4,9,12", or a search such as "find:report".
+     *
+     * @param input The argument of the command.
+     * @return {@code true} if the argument should be read as a selection of tasks.
+     */
+    private static boolean isSelection(String input) {
+        String selection = input.trim();
+        return selection.startsWith(SELECT_BY_FIND) || selection.indexOf(',') >= 0 || selection.indexOf('-') > 0;
+    }
+
+    /**
+     * Parses and processes a mark, unmark or delete command that selects several tasks.
+     * Every selected task is changed in memory first, and the changes are then saved with a single write.
+     * Nothing is changed if any selected task number is invalid.
+     *
+     * @param selection The selection of tasks, e.g. "1-300", "4,9,#12" or "find:report".
+     * @param command The command to be applied to every selected task.
+     * @return The String message indicating the result of the command.
+     */
+    private String parseBulkCommand(String selection, String command) {
+        List<Integer> indices;
+        try {
+            indices = this.parseSelection(selection.trim());
+        } catch (NumberFormatException e) {
+            return Ui.getInvalidNumberInput(command);
+        }
+        if (indices == null) {
+            return INVALID_TASK_NUMBER;
+        } else if (indices.isEmpty()) {
+            return "[ No match found! ]\nLooks like the tasks you're trying to find doesn't exist. Anything else?";
+        }
+
+        // "Incorrect" indentation by Style Checker due to the use of "return".
+        // It should, in theory, be of the correct indentation.
+        return switch (command) {
+            case "mark" -> this.tasks.setCompleted(indices, true);
+            case "unmark" -> this.tasks.setCompleted(indices, false);
+            default -> this.tasks.deleteTasks(indices);
+        };
+    }
+
+    /**
+     * Parses a selection of tasks into their indices. A selection is either "find:" followed by a keyword,
+     * or a comma-separated list of task numbers, "#id"s and ranges of task numbers such as "3-7".
+     *
+     * @param selection The selection of tasks.
+     * @return The distinct 0-based indices of the selected tasks in ascending order,
+     *     or {@code null} if any task number does not match a task on the list.
+     * @throws NumberFormatException If a task number is not a number.
+     */
+    private List<Integer> parseSelection(String selection) throws NumberFormatException {
+        if (selection.startsWith(SELECT_BY_FIND)) {
+            String keyword = selection.substring(SELECT_BY_FIND.length()).trim();
+            if (keyword.isEmpty()) {
+                throw new NumberFormatException("Missing keyword");
+            }
+            return this.tasks.findIndices(keyword);
+        }
+
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (String item : selection.split(",")) {
+            String number = item.trim();
+            int dash = number.indexOf('-', 1);
+            int from = dash < 0 ? this.parseTaskNumber(number) : Integer.parseInt(number.substring(0, dash).trim());
+            int to = dash < 0 ? from : Integer.parseInt(number.substring(dash + 1).trim());
+            // Edge-Case [Any task number out of bounds]
+            if (from < 1 || to > this.tasks.size() || from > to) {
+                return null;
+            }
+            for (int idx = from; idx <= to; idx++) {
+                indices.add(idx - 1);
+            }
+        }
+        return new ArrayList<>(indices);
+    }
+
+    /**
+     * Parses a task number, given either as its 1-based position in the list or as "#id" for its stable ID.
+     *
+     * @param input The task number entered by the user.
+     * @return The 1-based position of the task, or 0 if no task has the given stable ID.
+     * @throws NumberFormatException If the input is not a number.
+     */
+    private int parseTaskNumber(String input) throws NumberFormatException {
+        String number = input.trim();
+        if (number.startsWith("#")) {
+            return this.tasks.positionOfId(Integer.parseInt(number.substring(1)));
+        }
+        return Integer.parseInt(number);
     }
 
     /**
@@ -179,10 +564,7 @@ public class Parser {
     private String setCompleted(int idx, boolean isCompleted) {
         // Edge-Case ['idx' out of bounds]
         if (idx > this.tasks.size() || idx < 1) {
-            return """
-                    [ Invalid Task Number! ]
-                    Hmm, that number doesn't match any tasks on your list.
-                    Double-check your task list with "list", and try again!""";
+            return INVALID_TASK_NUMBER;
         }
 
         StringBuilder output = new StringBuilder();
@@ -225,10 +607,10 @@ public class Parser {
      */
     private String updateTaskCompletion(Task task, int idx, boolean isCompleted) {
         StringBuilder output = new StringBuilder();
-        task.setCompleted(isCompleted);
+        this.tasks.setCompleted(task, isCompleted);
 
         try {
-            this.storage.setCompleted(idx - 1, isCompleted); // Convert to zero-based index
+            this.storage.setCompleted(idx - 1, task.getId(), isCompleted); // Convert to zero-based index
             output.append(isCompleted ? "[ Task Marked as Complete! ]\nGreat job! Task \""
                     : "[ Task Marked as Incomplete! ]\nGot it! Task \"");
             output.append(task.getDescription()).append(isCompleted ? "\" is now marked as done. On to the next one!"
@@ -253,16 +635,14 @@ public class Parser {
     private String deleteTask(int idx) {
         // Edge-Case ['idx' out of bounds]
         if (idx > this.tasks.size() || idx < 1) {
-            return """
-                    [ Invalid Task Number! ]
-                    Hmm, that number doesn't match any tasks on your list.
-                    Double-check your task list with "list", and try again!""";
+            return INVALID_TASK_NUMBER;
         }
 
         // idx is originally 1-indexed [Therefore minus 1 to access 0-indexed ListArray]
         Task task = this.tasks.remove(idx - 1);
+        this.tasks.recordDeletion(idx - 1, task);
         try {
-            this.storage.deleteTask(idx - 1);
+            this.storage.deleteTask(idx - 1, task.getId());
         } catch (IOException e) {
             return "[ Task Deleted! ]\n" + Ui.getErrorUpdatingTasksFile(e);
         }
@@ -0,0 +1,94 @@
+package nightcoder.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the UTF-8 bytes of many task descriptions back to back in one buffer, each referred to by its offset
+ * and length. The buffer may live off the heap, in which case the bytes are never traced or moved by the garbage
+ * collector.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class DescriptionArena {
+    private final boolean IS_OFF_HEAP;
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs an empty {@code DescriptionArena}.
+     *
+     * @param capacity The initial capacity in bytes.
+     * @param isOffHeap {@code true} to keep the bytes in a direct buffer, outside of the heap.
+     */
+    DescriptionArena(int capacity, boolean isOffHeap) {
+        this.IS_OFF_HEAP = isOffHeap;
+        this.buffer = this.allocate(capacity);
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     *
+     * @return The offset at which the next description will be written.
+     */
+    int used() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Appends the bytes of a description, growing the buffer if it is full.
+     *
+     * @param bytes The UTF-8 bytes of the description.
+     * @return The offset at which the bytes were written.
+     */
+    int append(byte[] bytes) {
+        if (this.buffer.remaining() < bytes.length) {
+            this.grow(Math.max(this.buffer.capacity() * 2, this.used() + bytes.length));
+        }
+        int offset = this.used();
+        this.buffer.put(bytes);
+        return offset;
+    }
+
+    /**
+     * Appends a range of bytes from another arena, such as when moving live descriptions during compaction.
+     *
+     * @param source The arena to copy from.
+     * @param offset The offset of the bytes in the other arena.
+     * @param length The number of bytes to copy.
+     * @return The offset at which the bytes were written.
+     */
+    int append(DescriptionArena source, int offset, int length) {
+        if (this.buffer.remaining() < length) {
+            this.grow(Math.max(this.buffer.capacity() * 2, this.used() + length));
+        }
+        int start = this.used();
+        this.buffer.put(start, source.buffer, offset, length);
+        this.buffer.position(start + length);
+        return start;
+    }
+
+    /**
+     * Decodes a description.
+     *
+     * @param offset The offset of its bytes.
+     * @param length The number of bytes.
+     * @return The description.
+     */
+    String read(int offset, int length) {
+        byte[] bytes = new byte[length];
+        this.buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void grow(int capacity) {
+        ByteBuffer grown = this.allocate(capacity);
+        grown.put(0, this.buffer, 0, this.used());
+        grown.position(this.used());
+        this.buffer = grown;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return this.IS_OFF_HEAP ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+}
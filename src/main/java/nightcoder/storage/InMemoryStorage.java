@@ -0,0 +1,118 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nightcoder.task.Task;
+
+/**
+ * Keeps task data in memory only, which suits tests and benchmarks that should not touch the disk.
+ * Tasks are held in columns rather than as the {@code Task} objects given to it, which keeps this second copy of the
+ * tasks compact next to the task list, and means loading always returns fresh copies, just like an engine that is
+ * backed by a file.
+ * The descriptions in this copy may also be kept off the heap, where the garbage collector never traces them.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public class InMemoryStorage implements StorageEngine {
+    private final TaskColumns COLUMNS;
+
+    /**
+     * Constructs an empty {@code InMemoryStorage} that keeps its descriptions on the heap.
+     */
+    public InMemoryStorage() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty {@code InMemoryStorage}.
+     *
+     * @param isOffHeap {@code true} to keep descriptions in a direct buffer, outside of the heap.
+     */
+    public InMemoryStorage(boolean isOffHeap) {
+        this.COLUMNS = new TaskColumns(isOffHeap);
+    }
+
+    @Override
+    public ArrayList<Task> loadTasks() {
+        ArrayList<Task> tasks = new ArrayList<>(this.COLUMNS.size());
+        for (int i = 0; i < this.COLUMNS.size(); i++) {
+            tasks.add(this.COLUMNS.get(i));
+        }
+        return tasks;
+    }
+
+    @Override
+    public void addTask(Task task) {
+        this.COLUMNS.add(this.COLUMNS.size(), task);
+    }
+
+    @Override
+    public void insertTask(int idx, Task task) throws IOException {
+        // Edge case: Ensure the index is within bounds, where the end of the list is a valid position
+        if (idx < 0 || idx > this.COLUMNS.size()) {
+            throw new IOException("Task index out of bounds for file update");
+        }
+        this.COLUMNS.add(idx, task);
+    }
+
+    @Override
+    public void setCompleted(int idx, boolean isCompleted) throws IOException {
+        this.checkIndex(idx);
+        this.COLUMNS.setCompleted(idx, isCompleted);
+    }
+
+    @Override
+    public void deleteTask(int idx) throws IOException {
+        this.checkIndex(idx);
+        this.COLUMNS.remove(idx);
+    }
+
+    @Override
+    public void setCompleted(int idx, int id, boolean isCompleted) throws IOException {
+        this.setCompleted(this.locate(idx, id), isCompleted);
+    }
+
+    @Override
+    public void deleteTask(int idx, int id) throws IOException {
+        this.deleteTask(this.locate(idx, id));
+    }
+
+    @Override
+    public void replaceTask(int idx, int id, Task task) throws IOException {
+        this.COLUMNS.set(this.locate(idx, id), task);
+    }
+
+    @Override
+    public void saveTasks(List<Task> tasks) {
+        this.COLUMNS.clear();
+        for (Task task : tasks) {
+            this.COLUMNS.add(this.COLUMNS.size(), task);
+        }
+    }
+
+    /**
+     * Returns the index of the task with the given stable ID, checking the expected index first.
+     */
+    private int locate(int idx, int id) throws IOException {
+        this.checkIndex(idx);
+        int foundId = this.COLUMNS.getId(idx);
+        if (id == 0 || foundId == 0 || foundId == id) {
+            return idx;
+        }
+        int found = this.COLUMNS.indexOfId(id);
+        if (found < 0) {
+            throw new IOException("Task #" + id + " not found in tasks file");
+        }
+        return found;
+    }
+
+    private void checkIndex(int idx) throws IOException {
+        // Edge case: Ensure the index is within bounds
+        if (idx < 0 || idx >= this.COLUMNS.size()) {
+            throw new IOException("Task index out of bounds for file update");
+        }
+    }
+}
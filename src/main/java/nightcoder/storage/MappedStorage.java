@@ -0,0 +1,596 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Recurrence;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+
+/**
+ * Stores task data in a binary file that is accessed through a memory-mapped buffer.
+ * The file starts with a header, followed by a table of fixed-width records and a heap of strings:
+ * <pre>
+ * header : magic | version | count | record capacity | heap capacity | heap used | heap garbage | state
+ * record : type | completion flag | (reserved) | heap offset | heap length | stable ID
+ * heap   : for each field of a task, its length in bytes followed by its UTF-8 bytes
+ * </pre>
+ * Since every record has the same width, the completion flag of a task lives at a computed offset,
+ * and marking a task only writes that single byte. Whenever the file is laid out from scratch, the new layout is
+ * written over the mapped file in place, as a file that is still mapped cannot be replaced on every platform.
+ * The bytes about to be overwritten are first saved to an undo file beside it, and the state in the header is only
+ * cleared once the new layout is complete. A rewrite that fails or is cut short is hence undone, either straight
+ * away or the next time the file is mapped, so the file always holds either the old or the new layout.
+ * The rule of a repeating task is stored as one more field after its dates, within the heap length of its record,
+ * so records of tasks that do not repeat are laid out as before.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public class MappedStorage implements StorageEngine {
+    private static final int MAGIC = 0x4E435442; // "NCTB"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 16;
+    private static final int MIN_RECORD_CAPACITY = 64;
+    private static final int MIN_HEAP_CAPACITY = 4096;
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_RECORD_CAPACITY = 12;
+    private static final int HEADER_HEAP_CAPACITY = 16;
+    private static final int HEADER_HEAP_USED = 20;
+    private static final int HEADER_HEAP_GARBAGE = 24;
+    private static final int HEADER_STATE = 28;
+    private static final byte STATE_CONSISTENT = 0;
+    private static final byte STATE_REWRITING = 1; // Being overwritten, with the old bytes saved in the undo file
+    private static final String UNDO_SUFFIX = ".undo";
+    private static final int RECORD_COMPLETED = 1;
+    private static final int RECORD_HEAP_OFFSET = 4;
+    private static final int RECORD_HEAP_LENGTH = 8;
+    private static final int RECORD_ID = 12;
+    private final Path FILE_PATH;
+    private MappedByteBuffer buffer;
+    private int count = 0;
+    private int recordCapacity = 0;
+    private int heapCapacity = 0;
+    private int heapUsed = 0;
+    private int heapGarbage = 0;
+    private HashMap<Integer, Integer> recordOfId; // Index of the record of each stable ID, null until needed again
+
+    /**
+     * Constructs a {@code MappedStorage} instance for managing tasks in the specified folder and binary file.
+     *
+     * @param folder   The directory where task data is stored.
+     * @param filename The name of the binary file containing task data.
+     */
+    public MappedStorage(String folder, String filename) {
+        this.FILE_PATH = Paths.get(folder, filename);
+    }
+
+    /**
+     * Maps the binary file into memory, if it exists and has not been mapped yet.
+     *
+     * @return {@code true} if the file is mapped, {@code false} if there is no file to map.
+     * @throws IOException If the file cannot be read, or is not a valid task file.
+     */
+    private boolean map() throws IOException {
+        if (this.buffer != null) {
+            return true;
+        }
+        if (!Files.exists(this.FILE_PATH)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(this.FILE_PATH, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Corrupted binary tasks file");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Unrecognised binary tasks file");
+            }
+            if (mapped.get(HEADER_STATE) != STATE_CONSISTENT) {
+                // The last rewrite did not finish, so the layout before it is put back
+                this.restoreFromUndo(mapped);
+            }
+            this.buffer = mapped;
+        }
+        this.readHeader();
+        return true;
+    }
+
+    /**
+     * Reads the counts and capacities from the header of the mapped file.
+     *
+     * @throws IOException If they do not fit within the mapped file.
+     */
+    private void readHeader() throws IOException {
+        this.count = this.buffer.getInt(HEADER_COUNT);
+        this.recordCapacity = this.buffer.getInt(HEADER_RECORD_CAPACITY);
+        this.heapCapacity = this.buffer.getInt(HEADER_HEAP_CAPACITY);
+        this.heapUsed = this.buffer.getInt(HEADER_HEAP_USED);
+        this.heapGarbage = this.buffer.getInt(HEADER_HEAP_GARBAGE);
+        if ((long) HEADER_SIZE + (long) this.recordCapacity * RECORD_SIZE + this.heapCapacity
+                > this.buffer.capacity() || this.count > this.recordCapacity || this.heapUsed > this.heapCapacity) {
+            this.buffer = null;
+            throw new IOException("Corrupted binary tasks file");
+        }
+    }
+
+    /**
+     * Loads tasks by decoding each record directly from the mapped file.
+     *
+     * @return An {@code ArrayList} of {@code Task} objects representing previously saved tasks.
+     */
+    @Override
+    public ArrayList<Task> loadTasks() {
+        ArrayList<Task> tasks = this.readTasks();
+        StorageFiles.printLoadSummary(tasks);
+        return tasks;
+    }
+
+    private ArrayList<Task> readTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try {
+            if (!this.map()) {
+                return tasks;
+            }
+        } catch (IOException e) {
+            System.err.println("[ ERROR ] Error reading tasks file: " + e.getMessage());
+            return tasks;
+        }
+        tasks.ensureCapacity(this.count);
+        for (int i = 0; i < this.count; i++) {
+            try {
+                tasks.add(this.readTask(i));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                System.err.println("[ ERROR ] Invalid task record detected at position " + (i + 1));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Decodes a single task from its record, without touching any other record.
+     * The file must already have been mapped, e.g. through {@link #loadTasks()}.
+     *
+     * @param idx The 0-based index of the task to be decoded.
+     * @return The {@code Task} stored at the given index.
+     * @throws IllegalArgumentException If the record is corrupted.
+     */
+    public Task readTask(int idx) throws IllegalArgumentException {
+        assert this.buffer != null && idx >= 0 && idx < this.count : "Task record should exist in the mapped file";
+        int record = this.recordOffset(idx);
+        byte type = this.buffer.get(record);
+        boolean isCompleted = this.buffer.get(record + RECORD_COMPLETED) == 1;
+        int position = this.heapStart() + this.buffer.getInt(record + RECORD_HEAP_OFFSET);
+        int end = position + this.buffer.getInt(record + RECORD_HEAP_LENGTH);
+        int fieldCount = switch (type) {
+            case 'T' -> 1;
+            case 'D' -> 2;
+            case 'E' -> 3;
+            default -> throw new IllegalArgumentException("Invalid task type: " + (char) type);
+        };
+        String[] fields = new String[fieldCount + 1]; // Room for the rule of a repeating task
+        for (int i = 0; i < fields.length && position < end; i++) {
+            int length = this.buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            this.buffer.get(position + 4, bytes);
+            fields[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + length;
+        }
+        // Every field but the rule must be there, and the fields must take up exactly the heap length of the record
+        if (fields[fieldCount - 1] == null || position != end || fields[0].isBlank()) {
+            throw new IllegalArgumentException("Invalid task record");
+        }
+
+        Task task = switch (type) {
+            case 'T' -> new ToDo(fields[0], isCompleted);
+            case 'D' -> new Deadline(fields[0], isCompleted, fields[1]);
+            default -> new Event(fields[0], isCompleted, fields[1], fields[2]);
+        };
+        if (fields[fieldCount] != null) {
+            task.setRecurrence(Recurrence.parse(fields[fieldCount]));
+        }
+        int id = this.readId(idx);
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private int readId(int idx) {
+        return this.buffer.getInt(this.recordOffset(idx) + RECORD_ID);
+    }
+
+    /**
+     * Deletes a task by shifting the later fixed-width records down by one slot.
+     * The heap space of the deleted task is reclaimed once enough of the heap has become garbage.
+     *
+     * @param idx The 0-based index of the task to be deleted.
+     * @throws IOException If an I/O error occurs while modifying the file or if the index is out of bounds.
+     */
+    @Override
+    public void deleteTask(int idx) throws IOException {
+        this.checkIndex(idx);
+        int record = this.recordOffset(idx);
+        this.heapGarbage += this.buffer.getInt(record + RECORD_HEAP_LENGTH);
+        this.recordOfId = null;
+        byte[] later = new byte[(this.count - idx - 1) * RECORD_SIZE];
+        this.buffer.get(record + RECORD_SIZE, later);
+        this.buffer.put(record, later);
+        this.count--;
+        this.writeHeader();
+
+        if (this.heapGarbage > MIN_HEAP_CAPACITY && this.heapGarbage > this.heapUsed / 2) {
+            this.rewrite(this.readTasks(), this.recordCapacity, this.heapCapacity);
+        }
+    }
+
+    /**
+     * Updates the completion status of a task by writing the single flag byte of its record.
+     *
+     * @param idx The 0-based index of the task to be updated.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @throws IOException If an I/O error occurs while updating the file or if the index is out of bounds.
+     */
+    @Override
+    public void setCompleted(int idx, boolean isCompleted) throws IOException {
+        this.checkIndex(idx);
+        this.buffer.put(this.recordOffset(idx) + RECORD_COMPLETED, (byte) (isCompleted ? 1 : 0));
+    }
+
+    /**
+     * Updates the completion status of the task with the given stable ID.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @throws IOException If an I/O error occurs while updating the file or if the task cannot be found.
+     */
+    @Override
+    public void setCompleted(int idx, int id, boolean isCompleted) throws IOException {
+        this.setCompleted(this.locate(idx, id), isCompleted);
+    }
+
+    /**
+     * Deletes the task with the given stable ID.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @throws IOException If an I/O error occurs while modifying the file or if the task cannot be found.
+     */
+    @Override
+    public void deleteTask(int idx, int id) throws IOException {
+        this.deleteTask(this.locate(idx, id));
+    }
+
+    /**
+     * Returns the index of the record holding the task with the given stable ID.
+     * The expected index is checked first, and a hash index from stable IDs to records is only built when
+     * the task is not found there. Records without an ID are trusted to be at the expected index.
+     */
+    private int locate(int idx, int id) throws IOException {
+        this.checkIndex(idx);
+        int foundId = this.readId(idx);
+        if (id == 0 || foundId == 0 || foundId == id) {
+            return idx;
+        }
+        if (this.recordOfId == null) {
+            this.recordOfId = new HashMap<>();
+            for (int i = 0; i < this.count; i++) {
+                this.recordOfId.put(this.readId(i), i);
+            }
+        }
+        Integer record = this.recordOfId.get(id);
+        if (record == null) {
+            throw new IOException("Task #" + id + " not found in tasks file");
+        }
+        return record;
+    }
+
+    /**
+     * Appends a task to the binary file.
+     * The file is grown, and its heap compacted, only once it runs out of space.
+     *
+     * @param task The task to be added.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    @Override
+    public void addTask(Task task) throws IOException {
+        if (!this.map()) {
+            this.rewrite(new ArrayList<>(), MIN_RECORD_CAPACITY, MIN_HEAP_CAPACITY);
+        }
+        this.insertTask(this.count, task);
+    }
+
+    /**
+     * Inserts a task by shifting the later fixed-width records up by one slot.
+     * Its fields are appended to the heap, so no other task is re-encoded.
+     *
+     * @param idx The 0-based index at which the task is inserted.
+     * @param task The task to be inserted.
+     * @throws IOException If an I/O error occurs while writing to the file or if the index is out of bounds.
+     */
+    @Override
+    public void insertTask(int idx, Task task) throws IOException {
+        byte[] block = MappedStorage.encodeFields(task);
+        // Edge case: Ensure the index is within bounds, where the end of the table is a valid position
+        if (!this.map() || idx < 0 || idx > this.count) {
+            throw new IOException("Task index out of bounds for file update");
+        }
+        if (this.count == this.recordCapacity || this.heapUsed + block.length > this.heapCapacity) {
+            ArrayList<Task> tasks = this.readTasks();
+            int liveHeap = this.heapUsed - this.heapGarbage + block.length;
+            this.rewrite(tasks, Math.max(this.recordCapacity, (this.count + 1) * 2),
+                    Math.max(this.heapCapacity, liveHeap * 2));
+        }
+        int record = this.recordOffset(idx);
+        byte[] later = new byte[(this.count - idx) * RECORD_SIZE];
+        this.buffer.get(record, later);
+        this.buffer.put(record + RECORD_SIZE, later);
+        this.writeRecord(idx, task, block);
+        this.count++;
+        this.writeHeader();
+        this.recordOfId = null;
+    }
+
+    /**
+     * Replaces the task with the given stable ID by a newer version of it, without moving any record.
+     * Its fields are appended to the heap first, and its record only points at them once the heap header has
+     * claimed them, so the record holds either the old or the new version throughout.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param task The newer version of the task.
+     * @throws IOException If an I/O error occurs while writing to the file or if the task cannot be found.
+     */
+    @Override
+    public void replaceTask(int idx, int id, Task task) throws IOException {
+        int found = this.locate(idx, id);
+        byte[] block = MappedStorage.encodeFields(task);
+        int record = this.recordOffset(found);
+        int oldLength = this.buffer.getInt(record + RECORD_HEAP_LENGTH);
+        if (this.heapUsed + block.length > this.heapCapacity) {
+            ArrayList<Task> tasks = this.readTasks();
+            tasks.set(found, task);
+            int liveHeap = this.heapUsed - this.heapGarbage - oldLength + block.length;
+            this.rewrite(tasks, this.recordCapacity, Math.max(this.heapCapacity, liveHeap * 2));
+            return;
+        }
+        int heapOffset = this.heapUsed;
+        this.buffer.put(this.heapStart() + heapOffset, block);
+        this.heapUsed += block.length;
+        this.heapGarbage += oldLength;
+        this.writeHeader();
+        this.buffer.put(record, MappedStorage.encodeType(task));
+        this.buffer.put(record + RECORD_COMPLETED, (byte) (task.isCompleted() ? 1 : 0));
+        this.buffer.putInt(record + RECORD_HEAP_OFFSET, heapOffset);
+        this.buffer.putInt(record + RECORD_HEAP_LENGTH, block.length);
+    }
+
+    /**
+     * Replaces the content of the binary file with the given tasks.
+     *
+     * @param tasks The complete list of tasks to be saved.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    @Override
+    public void saveTasks(List<Task> tasks) throws IOException {
+        int heapNeeded = 0;
+        for (Task task : tasks) {
+            heapNeeded += MappedStorage.encodeFields(task).length;
+        }
+        this.rewrite(tasks, Math.max(MIN_RECORD_CAPACITY, Math.max(this.recordCapacity,
+                tasks.size() * 2)), Math.max(MIN_HEAP_CAPACITY, Math.max(this.heapCapacity, heapNeeded * 2)));
+    }
+
+    /**
+     * Lays out the given tasks from scratch with the given capacities, and replaces the content of the binary file
+     * with them. The new layout is built in memory first, so nothing is written if a task cannot be encoded.
+     * A file that is not mapped yet is replaced by renaming a new file over it. A mapped file is overwritten in place
+     * instead, behind the state in its header, and is restored from the undo file if overwriting fails.
+     */
+    private void rewrite(List<Task> tasks, int newRecordCapacity, int newHeapCapacity) throws IOException {
+        ByteBuffer layout = MappedStorage.layOut(tasks, newRecordCapacity, newHeapCapacity);
+        long fileSize = HEADER_SIZE + (long) newRecordCapacity * RECORD_SIZE + newHeapCapacity;
+        Files.createDirectories(this.FILE_PATH.toAbsolutePath().getParent());
+        this.recordOfId = null;
+        if (this.buffer == null) {
+            Path tempPath = Paths.get(this.FILE_PATH + StorageFiles.TEMP_SUFFIX);
+            MappedStorage.writeFile(tempPath, layout, fileSize);
+            StorageFiles.moveOver(tempPath, this.FILE_PATH);
+            this.map();
+            return;
+        }
+
+        // Only the header, the records and the heap in use are overwritten, hence only they need to be saved
+        MappedStorage.writeFile(this.getUndoPath(), this.buffer.slice(0, this.heapStart() + this.heapUsed), 0);
+        try {
+            this.buffer.put(HEADER_STATE, STATE_REWRITING);
+            this.buffer.force();
+            MappedByteBuffer target = this.buffer;
+            if (fileSize > target.capacity()) {
+                try (FileChannel channel = FileChannel.open(this.FILE_PATH, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    target = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                }
+            }
+            target.put(HEADER_SIZE, layout, HEADER_SIZE, layout.limit() - HEADER_SIZE);
+            target.put(0, layout, 0, HEADER_STATE);
+            target.force();
+            target.put(HEADER_STATE, STATE_CONSISTENT);
+            target.force();
+            this.buffer = target;
+        } catch (IOException | RuntimeException e) {
+            try {
+                this.restoreFromUndo(this.buffer);
+            } catch (IOException | RuntimeException restoreError) {
+                e.addSuppressed(restoreError);
+                this.buffer = null; // Restored when the file is next mapped
+                throw e;
+            }
+            this.readHeader();
+            throw e;
+        }
+        this.readHeader();
+        try {
+            Files.deleteIfExists(this.getUndoPath());
+        } catch (IOException e) {
+            // The new layout is already complete, and an undo file is only read while the state is flagged
+            System.err.println("[ ERROR ] Error deleting binary tasks undo file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copies back the bytes that an unfinished rewrite saved to the undo file, which also restores the state in the
+     * header, and forces them to disk.
+     *
+     * @param mapped The mapping of the binary file.
+     * @throws IOException If the undo file cannot be read, or does not fit the binary file.
+     */
+    private void restoreFromUndo(MappedByteBuffer mapped) throws IOException {
+        byte[] saved = Files.readAllBytes(this.getUndoPath());
+        if (saved.length < HEADER_SIZE || saved.length > mapped.capacity()) {
+            throw new IOException("Corrupted binary tasks file");
+        }
+        mapped.put(0, saved);
+        mapped.force();
+        Files.deleteIfExists(this.getUndoPath());
+    }
+
+    /**
+     * Lays out the given tasks from scratch with the given capacities. Only the header, the records and the part of
+     * the heap in use are laid out, as the rest of the file is never read.
+     */
+    private static ByteBuffer layOut(List<Task> tasks, int recordCapacity, int heapCapacity) {
+        byte[][] blocks = new byte[tasks.size()][];
+        int heapUsed = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = MappedStorage.encodeFields(tasks.get(i));
+            heapUsed += blocks[i].length;
+        }
+        assert tasks.size() <= recordCapacity && heapUsed <= heapCapacity : "Tasks should fit the new capacities";
+        int heapStart = HEADER_SIZE + recordCapacity * RECORD_SIZE;
+        ByteBuffer layout = ByteBuffer.allocate(heapStart + heapUsed);
+        layout.putInt(0, MAGIC);
+        layout.putInt(4, VERSION);
+        MappedStorage.putHeader(layout, tasks.size(), recordCapacity, heapCapacity, heapUsed, 0);
+        int heapOffset = 0;
+        for (int i = 0; i < blocks.length; i++) {
+            MappedStorage.putRecord(layout, heapStart, i, tasks.get(i), blocks[i], heapOffset);
+            heapOffset += blocks[i].length;
+        }
+        return layout;
+    }
+
+    /**
+     * Writes the given bytes to a new file, extended with zeros to the given size, and forces it to disk.
+     */
+    private static void writeFile(Path path, ByteBuffer content, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer remaining = content.duplicate().position(0);
+            while (remaining.hasRemaining()) {
+                channel.write(remaining);
+            }
+            if (size > channel.size()) {
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            channel.force(true);
+        }
+    }
+
+    private void writeRecord(int idx, Task task, byte[] block) {
+        MappedStorage.putRecord(this.buffer, this.heapStart(), idx, task, block, this.heapUsed);
+        this.heapUsed += block.length;
+    }
+
+    private static void putRecord(ByteBuffer target, int heapStart, int idx, Task task, byte[] block,
+            int heapOffset) {
+        int record = HEADER_SIZE + idx * RECORD_SIZE;
+        target.put(heapStart + heapOffset, block);
+        target.put(record, MappedStorage.encodeType(task));
+        target.put(record + RECORD_COMPLETED, (byte) (task.isCompleted() ? 1 : 0));
+        target.putInt(record + RECORD_HEAP_OFFSET, heapOffset);
+        target.putInt(record + RECORD_HEAP_LENGTH, block.length);
+        target.putInt(record + RECORD_ID, task.getId());
+    }
+
+    private void writeHeader() {
+        MappedStorage.putHeader(this.buffer, this.count, this.recordCapacity, this.heapCapacity, this.heapUsed,
+                this.heapGarbage);
+    }
+
+    private static void putHeader(ByteBuffer target, int count, int recordCapacity, int heapCapacity, int heapUsed,
+            int heapGarbage) {
+        target.putInt(HEADER_COUNT, count);
+        target.putInt(HEADER_RECORD_CAPACITY, recordCapacity);
+        target.putInt(HEADER_HEAP_CAPACITY, heapCapacity);
+        target.putInt(HEADER_HEAP_USED, heapUsed);
+        target.putInt(HEADER_HEAP_GARBAGE, heapGarbage);
+    }
+
+    private static byte encodeType(Task task) {
+        if (task instanceof Deadline) {
+            return 'D';
+        } else if (task instanceof Event) {
+            return 'E';
+        }
+        return 'T';
+    }
+
+    private static byte[] encodeFields(Task task) {
+        ArrayList<byte[]> fields = new ArrayList<>();
+        fields.add(task.getDescription().getBytes(StandardCharsets.UTF_8));
+        if (task instanceof Deadline deadline) {
+            fields.add(deadline.getDueBy().getBytes(StandardCharsets.UTF_8));
+        } else if (task instanceof Event event) {
+            fields.add(event.getStartTime().getBytes(StandardCharsets.UTF_8));
+            fields.add(event.getEndTime().getBytes(StandardCharsets.UTF_8));
+        }
+        if (task.getRecurrence() != null) {
+            fields.add(task.getRecurrence().encode().getBytes(StandardCharsets.UTF_8));
+        }
+
+        int length = 0;
+        for (byte[] field : fields) {
+            length += 4 + field.length;
+        }
+        ByteBuffer block = ByteBuffer.allocate(length);
+        for (byte[] field : fields) {
+            block.putInt(field.length).put(field);
+        }
+        return block.array();
+    }
+
+    private void checkIndex(int idx) throws IOException {
+        // Edge case: Ensure the index is within bounds
+        if (!this.map() || idx < 0 || idx >= this.count) {
+            throw new IOException("Task index out of bounds for file update");
+        }
+    }
+
+    private int recordOffset(int idx) {
+        return HEADER_SIZE + idx * RECORD_SIZE;
+    }
+
+    private int heapStart() {
+        return HEADER_SIZE + this.recordCapacity * RECORD_SIZE;
+    }
+
+    private Path getUndoPath() {
+        return Paths.get(this.FILE_PATH + UNDO_SUFFIX);
+    }
+}
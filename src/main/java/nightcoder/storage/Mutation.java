@@ -0,0 +1,291 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Represents a single change made to the tasks file, such as appending, inserting, marking, replacing or deleting
+ * a task entry.
+ * A mutation can be applied to the in-memory lines of the tasks file, and can be written to (or read back from)
+ * a single line of the journal file.
+ * A mutation that targets an existing entry may also carry the stable ID of its task, in which case it refuses to
+ * apply to an entry that belongs to another task, rather than silently changing the wrong one.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class Mutation {
+    /**
+     * Represents the kinds of changes that can be recorded in the journal.
+     * Each type is associated with the prefix used for its journal record.
+     */
+    enum Type {
+        APPEND("A"),
+        INSERT("I"),
+        SET_COMPLETED("M"),
+        REPLACE("R"),
+        DELETE("X");
+
+        private final String PREFIX;
+
+        Type(String prefix) {
+            this.PREFIX = prefix;
+        }
+
+        public String getPrefix() {
+            return this.PREFIX;
+        }
+    }
+
+    private final Type TYPE;
+    private final int INDEX;
+    private final int ID; // Stable ID of the targeted task, 0 if the target is not checked
+    private final boolean IS_COMPLETED;
+    private final String DATA_LINE;
+
+    private Mutation(Type type, int index, int id, boolean isCompleted, String dataLine) {
+        this.TYPE = type;
+        this.INDEX = index;
+        this.ID = id;
+        this.IS_COMPLETED = isCompleted;
+        this.DATA_LINE = dataLine;
+    }
+
+    /**
+     * Creates a mutation that appends a task entry to the end of the tasks file.
+     *
+     * @param dataLine The task entry in string format to be added.
+     * @return The {@code Mutation} representing the append.
+     */
+    static Mutation append(String dataLine) {
+        assert dataLine != null && !dataLine.contains("\n") : "Task entry must be a single line";
+        return new Mutation(Type.APPEND, -1, 0, false, dataLine);
+    }
+
+    /**
+     * Creates a mutation that inserts a task entry at the given index, shifting every later entry up by one.
+     *
+     * @param idx The 0-based index at which the entry is inserted, which may be the number of entries.
+     * @param dataLine The task entry in string format to be inserted.
+     * @return The {@code Mutation} representing the insertion.
+     */
+    static Mutation insert(int idx, String dataLine) {
+        assert dataLine != null && !dataLine.contains("\n") : "Task entry must be a single line";
+        return new Mutation(Type.INSERT, idx, 0, false, dataLine);
+    }
+
+    /**
+     * Creates a mutation that updates the completion status of a task entry.
+     *
+     * @param idx The 0-based index of the task to be updated.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @return The {@code Mutation} representing the update.
+     */
+    static Mutation setCompleted(int idx, boolean isCompleted) {
+        return Mutation.setCompleted(idx, 0, isCompleted);
+    }
+
+    /**
+     * Creates a mutation that updates the completion status of the task entry with the given stable ID.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task, or 0 to update whichever task is at the index.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @return The {@code Mutation} representing the update.
+     */
+    static Mutation setCompleted(int idx, int id, boolean isCompleted) {
+        return new Mutation(Type.SET_COMPLETED, idx, id, isCompleted, null);
+    }
+
+    /**
+     * Creates a mutation that replaces the task entry with the given stable ID by a newer version of it.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task, or 0 to replace whichever task is at the index.
+     * @param dataLine The newer version of the task entry in string format.
+     * @return The {@code Mutation} representing the replacement.
+     */
+    static Mutation replace(int idx, int id, String dataLine) {
+        assert dataLine != null && !dataLine.contains("\n") : "Task entry must be a single line";
+        return new Mutation(Type.REPLACE, idx, id, false, dataLine);
+    }
+
+    /**
+     * Creates a mutation that deletes a task entry.
+     *
+     * @param idx The 0-based index of the task to be deleted.
+     * @return The {@code Mutation} representing the deletion.
+     */
+    static Mutation delete(int idx) {
+        return Mutation.delete(idx, 0);
+    }
+
+    /**
+     * Creates a mutation that deletes the task entry with the given stable ID.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task, or 0 to delete whichever task is at the index.
+     * @return The {@code Mutation} representing the deletion.
+     */
+    static Mutation delete(int idx, int id) {
+        return new Mutation(Type.DELETE, idx, id, false, null);
+    }
+
+    /**
+     * Returns a copy of this mutation that targets another index, such as where its task was actually found.
+     *
+     * @param idx The 0-based index to target instead.
+     * @return The retargeted {@code Mutation}.
+     */
+    Mutation withIndex(int idx) {
+        return new Mutation(this.TYPE, idx, this.ID, this.IS_COMPLETED, this.DATA_LINE);
+    }
+
+    public Type getType() {
+        return this.TYPE;
+    }
+
+    public String getDataLine() {
+        return this.DATA_LINE;
+    }
+
+    public int getIndex() {
+        return this.INDEX;
+    }
+
+    public int getId() {
+        return this.ID;
+    }
+
+    /**
+     * Applies this mutation to the given lines of the tasks file.
+     *
+     * @param lines The task entries to be modified in place.
+     * @throws IOException If the index is out of bounds, or the targeted entry is corrupted or belongs to another task.
+     */
+    void applyTo(ArrayList<String> lines) throws IOException {
+        this.checkTarget(lines);
+        switch (this.TYPE) {
+        case APPEND:
+            lines.add(this.DATA_LINE);
+            break;
+        case INSERT:
+            lines.add(this.INDEX, this.DATA_LINE);
+            break;
+        case SET_COMPLETED:
+            this.checkBounds(lines.size());
+            try {
+                lines.set(this.INDEX, TaskCodec.withCompleted(lines.get(this.INDEX), this.IS_COMPLETED));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupted task entry in file");
+            }
+            break;
+        case REPLACE:
+            this.checkBounds(lines.size());
+            lines.set(this.INDEX, this.DATA_LINE);
+            break;
+        case DELETE:
+            this.checkBounds(lines.size());
+            lines.remove(this.INDEX);
+            break;
+        default:
+            throw new IOException("Unknown mutation type: " + this.TYPE);
+        }
+    }
+
+    /**
+     * Checks that this mutation targets an existing task entry. Appends always pass this check,
+     * and inserts may also target the position just past the last entry.
+     *
+     * @param size The number of task entries the mutation will be applied to.
+     * @throws IOException If the index is out of bounds.
+     */
+    void checkBounds(int size) throws IOException {
+        int limit = this.TYPE == Type.INSERT ? size + 1 : size;
+        // Edge case: Ensure the index is within bounds
+        if (this.TYPE != Type.APPEND && (this.INDEX < 0 || this.INDEX >= limit)) {
+            throw new IOException("Task index out of bounds for file update");
+        }
+    }
+
+    /**
+     * Checks that the targeted entry belongs to the task with this mutation's stable ID, if it has one.
+     * Entries written before IDs were introduced carry no ID, and are accepted as they are.
+     *
+     * @param lines The task entries the mutation will be applied to.
+     * @throws IOException If the index is out of bounds or the entry belongs to another task.
+     */
+    void checkTarget(ArrayList<String> lines) throws IOException {
+        this.checkBounds(lines.size());
+        if (this.TYPE != Type.APPEND && this.TYPE != Type.INSERT && this.ID != 0) {
+            int foundId = TaskCodec.getId(lines.get(this.INDEX));
+            if (foundId != 0 && foundId != this.ID) {
+                throw new IOException("Task #" + this.ID + " not found in tasks file");
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first task entry that this mutation changes or moves.
+     * Every entry before it is left untouched.
+     *
+     * @param size The number of task entries the mutation will be applied to.
+     * @return The 0-based index of the first affected entry.
+     */
+    int getFirstAffectedLine(int size) {
+        return this.TYPE == Type.APPEND ? size : this.INDEX;
+    }
+
+    /**
+     * Returns the journal record of this mutation.
+     *
+     * @return A string formatted as "A|task_entry", "I|index|task_entry", "M|index|completion_status",
+     *     "R|index|task_entry" or "X|index".
+     */
+    String toJournalLine() {
+        return switch (this.TYPE) {
+            case APPEND -> Type.APPEND.getPrefix() + "|" + this.DATA_LINE;
+            case INSERT -> Type.INSERT.getPrefix() + "|" + this.INDEX + "|" + this.DATA_LINE;
+            case SET_COMPLETED -> Type.SET_COMPLETED.getPrefix() + "|" + this.INDEX + "|"
+                    + (this.IS_COMPLETED ? "1" : "0");
+            case REPLACE -> Type.REPLACE.getPrefix() + "|" + this.INDEX + "|" + this.DATA_LINE;
+            case DELETE -> Type.DELETE.getPrefix() + "|" + this.INDEX;
+        };
+    }
+
+    /**
+     * Parses a journal record back into a {@code Mutation}.
+     *
+     * @param line The journal record, as produced by {@link #toJournalLine()}.
+     * @return The {@code Mutation} described by the record.
+     * @throws IllegalArgumentException If the record is malformed.
+     */
+    static Mutation parseJournalLine(String line) throws IllegalArgumentException {
+        int separator = line.indexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid journal record detected: " + line);
+        }
+        String prefix = line.substring(0, separator);
+        String rest = line.substring(separator + 1);
+        try {
+            int indexEnd = rest.indexOf('|');
+            if (prefix.equals(Type.APPEND.getPrefix()) && !rest.isEmpty()) {
+                return Mutation.append(rest);
+            } else if (prefix.equals(Type.INSERT.getPrefix()) && indexEnd > 0 && indexEnd + 1 < rest.length()) {
+                return Mutation.insert(Integer.parseInt(rest.substring(0, indexEnd)), rest.substring(indexEnd + 1));
+            } else if (prefix.equals(Type.SET_COMPLETED.getPrefix()) && rest.length() > 2
+                    && rest.charAt(rest.length() - 2) == '|' && "01".indexOf(rest.charAt(rest.length() - 1)) >= 0) {
+                return Mutation.setCompleted(Integer.parseInt(rest.substring(0, rest.length() - 2)),
+                        rest.charAt(rest.length() - 1) == '1');
+            } else if (prefix.equals(Type.REPLACE.getPrefix()) && indexEnd > 0 && indexEnd + 1 < rest.length()) {
+                return Mutation.replace(Integer.parseInt(rest.substring(0, indexEnd)), 0,
+                        rest.substring(indexEnd + 1));
+            } else if (prefix.equals(Type.DELETE.getPrefix())) {
+                return Mutation.delete(Integer.parseInt(rest));
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the invalid record exception below
+        }
+        throw new IllegalArgumentException("Invalid journal record detected: " + line);
+    }
+}
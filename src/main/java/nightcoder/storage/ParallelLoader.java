@@ -0,0 +1,135 @@
+package nightcoder.storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import nightcoder.task.Task;
+
+/**
+ * Loads large task files by splitting them into chunks that are decoded and parsed in parallel on the common
+ * fork-join pool. Results are merged back in their original order, so the loaded tasks and any reported errors
+ * are the same as when the file is read one line at a time.
+ * The class is designed as a utility class, hence it cannot be instantiated.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class ParallelLoader {
+    /** Files smaller than this are read one line at a time, as splitting them is not worth the overhead. */
+    static final long MIN_PARALLEL_BYTES = 1024 * 1024;
+    /** Lists of task entries shorter than this are parsed one line at a time. */
+    static final int MIN_PARALLEL_LINES = 8192;
+    private static final int CHUNK_BYTES = 256 * 1024;
+    private static final int CHUNK_LINES = 4096;
+
+    /**
+     * Represents the outcome of parsing one chunk of task entries.
+     */
+    private record ParsedChunk(List<Task> tasks, List<String> errors) {
+    }
+
+    /**
+     * Prevents the instantiation of the {@code ParallelLoader} class.
+     *
+     * @throws UnsupportedOperationException If an attempt is made to instantiate this class.
+     */
+    private ParallelLoader() {
+        throw new UnsupportedOperationException("nightcoder.storage.ParallelLoader class should not be instantiated.");
+    }
+
+    /**
+     * Checks whether lines can be told apart by looking for the {@code '\n'} byte alone,
+     * which holds for ASCII-compatible charsets such as UTF-8.
+     *
+     * @param charset The charset the tasks file is written in.
+     * @return {@code true} if the file can be split into chunks at {@code '\n'} bytes.
+     */
+    static boolean canSplit(Charset charset) {
+        return Arrays.equals("\n".getBytes(charset), new byte[] {'\n'});
+    }
+
+    /**
+     * Reads all lines from the file, decoding newline-aligned chunks of it in parallel.
+     *
+     * @param file The file to be read.
+     * @param charset The charset the file is written in, which must satisfy {@link #canSplit(Charset)}.
+     * @return An {@code ArrayList} containing all lines of the file, in order.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    static ArrayList<String> readLines(File file, Charset charset) throws IOException {
+        assert canSplit(charset) : "Charset should allow files to be split at newline bytes";
+        byte[] data = Files.readAllBytes(file.toPath());
+
+        // Chunk boundaries are moved forward to just past the next '\n', so no line is ever cut in half
+        ArrayList<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int position = CHUNK_BYTES;
+        while (position < data.length) {
+            while (position < data.length && data[position - 1] != '\n') {
+                position++;
+            }
+            boundaries.add(position);
+            position += CHUNK_BYTES;
+        }
+        if (boundaries.get(boundaries.size() - 1) < data.length) {
+            boundaries.add(data.length);
+        }
+
+        // Functional Programming using Streams learnt from CS2030S
+        return IntStream.range(0, boundaries.size() - 1)
+                .parallel()
+                .mapToObj(idx -> new String(data, boundaries.get(idx),
+                        boundaries.get(idx + 1) - boundaries.get(idx), charset))
+                .flatMap(chunk -> new BufferedReader(new StringReader(chunk)).lines())
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Parses task entries in parallel, in chunks of consecutive lines.
+     * Entries that cannot be parsed are skipped, and reported in their original order.
+     *
+     * @param lines The task entries to be parsed.
+     * @param parser The function parsing a single task entry, throwing {@code IllegalArgumentException} if invalid.
+     * @return An {@code ArrayList} of the parsed {@code Task} objects, in order.
+     */
+    static ArrayList<Task> parseLines(List<String> lines, Function<String, Task> parser) {
+        int chunkCount = (lines.size() + CHUNK_LINES - 1) / CHUNK_LINES;
+        List<ParsedChunk> chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(idx -> ParallelLoader.parseChunk(
+                        lines.subList(idx * CHUNK_LINES, Math.min(lines.size(), (idx + 1) * CHUNK_LINES)), parser))
+                .toList();
+
+        ArrayList<Task> tasks = new ArrayList<>(lines.size());
+        for (ParsedChunk chunk : chunks) {
+            tasks.addAll(chunk.tasks());
+            for (String error : chunk.errors()) {
+                System.err.println("[ ERROR ] " + error);
+            }
+        }
+        return tasks;
+    }
+
+    private static ParsedChunk parseChunk(List<String> lines, Function<String, Task> parser) {
+        ArrayList<Task> tasks = new ArrayList<>(lines.size());
+        ArrayList<String> errors = new ArrayList<>();
+        for (String line : lines) {
+            try {
+                tasks.add(parser.apply(line));
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return new ParsedChunk(tasks, errors);
+    }
+}
@@ -3,29 +3,63 @@ package nightcoder.storage;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
 
-import nightcoder.task.Deadline;
-import nightcoder.task.Event;
 import nightcoder.task.Task;
-import nightcoder.task.ToDo;
 
 /**
  * Handles the reading and writing of task data to a file.
  * This class manages loading, saving, updating, and deleting tasks
  * from a persistent storage file.
+ * In journaled mode, changes are appended to a journal file next to the tasks file instead of rewriting it,
+ * and the journal is compacted back into the tasks file once it grows past a threshold.
+ * Every journal starts with a stamp of the length and checksum of the tasks file it applies to. If the process stops
+ * after compacting but before deleting the journal, the stamp no longer matches, and the journal is discarded
+ * instead of being replayed a second time.
+ * With write-behind enabled, changes are queued and persisted in batches by a background writer.
+ * The task entries are read from disk once, and kept in memory from then on. Changes are applied to this
+ * in-memory image, so the tasks file is never read again and an unchanged list is never rewritten. New entries at
+ * the end are appended to the tasks file, while any other change writes a new tasks file beside it and renames it
+ * over the old one, so that the only copy of the entries is never overwritten in place.
  *
  * @author ShamanBenny
  * @version 10
  */
-public class Storage {
+public class Storage implements StorageEngine {
+    static final int JOURNAL_MAX_RECORDS = 256;
+    static final long JOURNAL_MAX_BYTES = 64 * 1024;
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String JOURNAL_STAMP_PREFIX = "B|";
+    private static final long UNKNOWN_CHECKSUM = -1;
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final int LINE_SEPARATOR_BYTES = LINE_SEPARATOR.getBytes(CHARSET).length;
     private final String DATA_FOLDER;
     private final String TASKS_FILE;
+    private final boolean IS_JOURNALED;
+    private final TaskCodec CODEC = new TaskCodec(); // Reuses one buffer, so it is only used under this lock
+    private int journalRecords = 0;
+    private long journalBytes = 0;
+    private long baseBytes = 0; // Length of the tasks file that the journal applies to
+    private long baseChecksum = UNKNOWN_CHECKSUM; // CRC-32 of the tasks file that the journal applies to
+    private ArrayList<String> lines; // In-memory image of the task entries, null until first read
+    private boolean isDirty = false; // Whether the tasks file differs from the in-memory image
+    private int firstDirtyLine = 0; // Entries before this index are the same in the tasks file and in memory
+    private long cleanBytes = 0; // Length in bytes of the entries before firstDirtyLine in the tasks file
+    private HashMap<Integer, Integer> lineOfId; // Index of the entry of each stable ID, null until needed again
+    private WriteBehindQueue writeBehind;
 
     /**
      * Constructs a {@code Storage} instance for managing tasks in the specified folder and file.
@@ -34,22 +68,122 @@ public class Storage {
      * @param filename The name of the file containing task data.
      */
     public Storage(String folder, String filename) {
+        this(folder, filename, false);
+    }
+
+    /**
+     * Constructs a {@code Storage} instance for managing tasks in the specified folder and file,
+     * optionally recording changes in a journal file instead of rewriting the tasks file.
+     *
+     * @param folder      The directory where task data is stored.
+     * @param filename    The name of the file containing task data.
+     * @param isJournaled {@code true} to append changes to a journal, {@code false} to rewrite the tasks file.
+     */
+    public Storage(String folder, String filename, boolean isJournaled) {
         this.DATA_FOLDER = folder;
         this.TASKS_FILE = filename;
+        this.IS_JOURNALED = isJournaled;
+    }
+
+    /**
+     * Queues subsequent changes to be persisted in batches by a background writer, rather than on the calling thread.
+     * Errors from the background writer are reported by the next call to {@link #flush()} or {@link #close()}.
+     *
+     * @param flushIntervalMillis The longest time, in milliseconds, that a queued change waits to be written.
+     * @param batchSize           The number of queued changes that triggers a write straight away.
+     */
+    public void enableWriteBehind(long flushIntervalMillis, int batchSize) {
+        if (this.writeBehind == null) {
+            this.writeBehind = new WriteBehindQueue(this, flushIntervalMillis, batchSize);
+        }
+    }
+
+    /**
+     * Writes every change that is still queued for the background writer.
+     *
+     * @throws IOException If an I/O error occurs while writing, now or in an earlier background write.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.writeBehind != null) {
+            this.writeBehind.flush();
+        }
     }
 
     /**
-     * Reads all lines from the file and returns them as a list of Strings.
+     * Writes every queued change and stops the background writer. No changes may be made afterwards.
+     *
+     * @throws IOException If an I/O error occurs while writing, now or in an earlier background write.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.writeBehind != null) {
+            this.writeBehind.close();
+        }
+    }
+
+    /**
+     * Returns all task entries as a list of Strings.
+     * The tasks file is only read on the first call; later calls return a copy of the in-memory image.
+     * In journaled mode, the journal is replayed on top of the lines read from the tasks file,
+     * and compacted into the tasks file if it has grown past its threshold.
      *
      * @return An {@code ArrayList} containing all task entries from the file.
      *     Returns an empty list if the file does not exist or an error occurs.
      */
-    public ArrayList<String> readLines() {
-        File file = new File(this.DATA_FOLDER + "/" + this.TASKS_FILE);
+    public synchronized ArrayList<String> readLines() {
+        return new ArrayList<>(this.getLines());
+    }
+
+    /**
+     * Returns the in-memory image of the task entries, reading it from disk if this has not been done yet.
+     * If the tasks file is not laid out exactly as it would be written back, such as when it uses other line
+     * separators, the whole file is marked as dirty so that the next write replaces it.
+     *
+     * @return The in-memory image, which is modified in place by later changes.
+     */
+    private ArrayList<String> getLines() {
+        if (this.lines != null) {
+            return this.lines;
+        }
+        File file = this.getTasksFile();
+        this.lines = this.readFile(file);
+        this.firstDirtyLine = this.lines.size();
+        this.cleanBytes = this.countBytes(0, this.lines.size());
+        this.isDirty = false;
+        if (this.cleanBytes != file.length()) {
+            this.markDirty(0);
+        }
+
+        if (this.IS_JOURNALED) {
+            this.baseBytes = file.length();
+            this.baseChecksum = Storage.checksumOf(file);
+            this.replayJournal();
+            if (this.isJournalFull()) {
+                try {
+                    this.writeDirty();
+                } catch (IOException e) {
+                    System.err.println("[ ERROR ] Error compacting tasks journal: " + e.getMessage());
+                }
+            }
+        }
+        return this.lines;
+    }
+
+    private ArrayList<String> readFile(File file) {
         // Check if file exists, if not, simply return empty ArrayList<String>
         if (!file.exists()) {
             return new ArrayList<String>();
         }
+        // Large files are split into chunks that are decoded in parallel
+        if (file.length() >= ParallelLoader.MIN_PARALLEL_BYTES && ParallelLoader.canSplit(Charset.defaultCharset())) {
+            try {
+                return ParallelLoader.readLines(file, Charset.defaultCharset());
+            } catch (IOException e) {
+                System.err.println("[ ERROR ] Error reading tasks file: " + e.getMessage());
+                return new ArrayList<String>();
+            }
+        }
         // Read all lines into an ArrayList
         ArrayList<String> lines = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
@@ -64,13 +198,87 @@ public class Storage {
         }
     }
 
+    /**
+     * Applies every record of the journal file, in order, to the in-memory image of the task entries.
+     * Invalid records are reported and skipped. A journal stamped for another tasks file was already compacted into
+     * the tasks file, and is deleted without being replayed. Journals written before stamps were introduced have
+     * no stamp, and are always replayed.
+     */
+    private void replayJournal() {
+        File journal = this.getJournalFile();
+        ArrayList<String> records = this.readFile(journal);
+        int firstRecord = 0;
+        if (!records.isEmpty() && records.get(0).startsWith(JOURNAL_STAMP_PREFIX)) {
+            if (!records.get(0).equals(this.getJournalStamp()) && this.baseChecksum != UNKNOWN_CHECKSUM) {
+                System.err.println("[ ERROR ] Discarded a tasks journal that was already in the tasks file");
+                try {
+                    Files.deleteIfExists(journal.toPath());
+                } catch (IOException e) {
+                    System.err.println("[ ERROR ] Error deleting tasks journal: " + e.getMessage());
+                }
+                return;
+            }
+            firstRecord = 1;
+        }
+        for (String record : records.subList(firstRecord, records.size())) {
+            try {
+                this.apply(Mutation.parseJournalLine(record));
+            } catch (IllegalArgumentException | IOException e) {
+                System.err.println("[ ERROR ] " + e.getMessage());
+            }
+        }
+        this.journalRecords = records.size() - firstRecord;
+        this.journalBytes = journal.length();
+    }
+
+    /**
+     * Returns the first record of a new journal, which stamps it with the tasks file that it applies to.
+     *
+     * @return A string formatted as "B|length|checksum".
+     */
+    private String getJournalStamp() {
+        return JOURNAL_STAMP_PREFIX + this.baseBytes + "|" + this.baseChecksum;
+    }
+
+    /**
+     * Returns the CRC-32 of the content of a file, which is that of no content if the file does not exist.
+     *
+     * @param file The file to be read.
+     * @return The checksum, or {@code UNKNOWN_CHECKSUM} if the file could not be read.
+     */
+    private static long checksumOf(File file) {
+        CRC32 checksum = new CRC32();
+        if (!file.exists()) {
+            return checksum.getValue();
+        }
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            byte[] chunk = new byte[64 * 1024];
+            int length;
+            while ((length = input.read(chunk)) > 0) {
+                checksum.update(chunk, 0, length);
+            }
+            return checksum.getValue();
+        } catch (IOException e) {
+            System.err.println("[ ERROR ] Error reading tasks file: " + e.getMessage());
+            return UNKNOWN_CHECKSUM;
+        }
+    }
+
     /**
      * Loads tasks from the file and converts them into {@code Task} objects.
+     * Large task files are decoded and parsed in parallel chunks.
      *
      * @return An {@code ArrayList} of {@code Task} objects representing previously saved tasks.
      */
+    @Override
     public ArrayList<Task> loadTasks() {
         ArrayList<String> lines = this.readLines();
+        if (lines.size() >= ParallelLoader.MIN_PARALLEL_LINES) {
+            ArrayList<Task> tasks = ParallelLoader.parseLines(lines, this::parseStringToTask);
+            StorageFiles.printLoadSummary(tasks);
+            return tasks;
+        }
+
         ArrayList<Task> tasks = new ArrayList<>();
         for (String line : lines) {
             try {
@@ -79,11 +287,7 @@ public class Storage {
                 System.err.println("[ ERROR ] " + e.getMessage());
             }
         }
-        if (tasks.isEmpty()) {
-            System.out.println("[ INFO ] No previous task data found. Starting fresh!");
-        } else {
-            System.out.println("[ INFO ] Tasks loaded successfully from previous sessions!");
-        }
+        StorageFiles.printLoadSummary(tasks);
         return tasks;
     }
 
@@ -95,45 +299,7 @@ public class Storage {
      * @throws IllegalArgumentException If the format is invalid or missing required fields.
      */
     public Task parseStringToTask(String line) throws IllegalArgumentException {
-        String[] parts = line.split("\\|");
-        if (parts.length < 3) {
-            throw new IllegalArgumentException("Invalid task format detected: " + line);
-        }
-
-        String type = parts[0];
-        if (!parts[1].equals("0") && !parts[1].equals("1")) {
-            throw new IllegalArgumentException("Invalid task format detected: " + line);
-        }
-        boolean isCompleted = parts[1].equals("1");
-        if (parts[2].trim().isEmpty()) {
-            throw new IllegalArgumentException("Invalid task format detected: " + line);
-        }
-        String description = parts[2];
-
-        // "Incorrect" indentation by Style Checker due to the use of "return".
-        // It should, in theory, be of the correct indentation.
-        return switch (type) {
-            case "T" -> new ToDo(description, isCompleted);
-            case "D" -> {
-                if (parts.length < 4) {
-                    throw new IllegalArgumentException("Invalid task format detected: " + line);
-                }
-                if (parts[3].trim().isEmpty()) {
-                    throw new IllegalArgumentException("Invalid task format detected: " + line);
-                }
-                yield new Deadline(description, isCompleted, parts[3]);
-            }
-            case "E" -> {
-                if (parts.length < 5) {
-                    throw new IllegalArgumentException("Invalid task format detected: " + line);
-                }
-                if (parts[3].trim().isEmpty() || parts[4].trim().isEmpty()) {
-                    throw new IllegalArgumentException("Invalid task format detected: " + line);
-                }
-                yield new Event(description, isCompleted, parts[3], parts[4]);
-            }
-            default -> throw new IllegalArgumentException("Invalid task format detected: " + line);
-        };
+        return TaskCodec.decode(line);
     }
 
     /**
@@ -142,18 +308,21 @@ public class Storage {
      * @param idx The 0-based index of the task to be deleted.
      * @throws IOException If an I/O error occurs while modifying the file or if the index is out of bounds.
      */
+    @Override
     public void deleteTask(int idx) throws IOException {
-        ArrayList<String> lines = this.readLines();
-
-        // Edge case: Ensure the index is within bounds
-        if (idx < 0 || idx >= lines.size()) {
-            throw new IOException("Task index out of bounds for file update");
-        }
-
-        // Remove the line containing the indexed task
-        lines.remove(idx);
+        this.commit(Mutation.delete(idx));
+    }
 
-        this.writeLines(lines);
+    /**
+     * Deletes the task with the given stable ID from the tasks file.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @throws IOException If an I/O error occurs while modifying the file or if the task cannot be found.
+     */
+    @Override
+    public void deleteTask(int idx, int id) throws IOException {
+        this.commit(Mutation.delete(idx, id));
     }
 
     /**
@@ -163,24 +332,66 @@ public class Storage {
      * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
      * @throws IOException If an I/O error occurs while updating the file.
      */
+    @Override
     public void setCompleted(int idx, boolean isCompleted) throws IOException {
-        ArrayList<String> lines = this.readLines();
+        this.commit(Mutation.setCompleted(idx, isCompleted));
+    }
 
-        // Edge case: Ensure the index is within bounds
-        if (idx < 0 || idx >= lines.size()) {
-            throw new IOException("Task index out of bounds for file update");
-        }
+    /**
+     * Updates the completion status of the task with the given stable ID in the tasks file.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @throws IOException If an I/O error occurs while updating the file or if the task cannot be found.
+     */
+    @Override
+    public void setCompleted(int idx, int id, boolean isCompleted) throws IOException {
+        this.commit(Mutation.setCompleted(idx, id, isCompleted));
+    }
 
-        // Modify the target line
-        String[] parts = lines.get(idx).split("\\|"); // Split into max 3 parts to keep description as-is
-        if (parts.length < 3) {
-            throw new IOException("Corrupted task entry in file");
-        }
+    /**
+     * Replaces the task with the given stable ID by a newer version of it, as a single journal record.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param task The newer version of the task.
+     * @throws IOException If an I/O error occurs while updating the file, or if the task cannot be found.
+     */
+    @Override
+    public void replaceTask(int idx, int id, Task task) throws IOException {
+        this.commit(Mutation.replace(idx, id, this.encode(task)));
+    }
+
+    /**
+     * Appends a task to the tasks file.
+     *
+     * @param task The task to be added.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    @Override
+    public void addTask(Task task) throws IOException {
+        this.appendTask(this.encode(task));
+    }
 
-        parts[1] = isCompleted ? "1" : "0"; // Update completion status
-        lines.set(idx, String.join("|", parts)); // Reconstruct the line
+    /**
+     * Inserts a task into the tasks file at the given index.
+     *
+     * @param idx The 0-based index at which the task is inserted.
+     * @param task The task to be inserted.
+     * @throws IOException If an I/O error occurs while writing to the file or if the index is out of bounds.
+     */
+    @Override
+    public void insertTask(int idx, Task task) throws IOException {
+        this.commit(Mutation.insert(idx, this.encode(task)));
+    }
 
-        this.writeLines(lines);
+    /**
+     * Encodes a task into the record it is stored as in the tasks file. Changes may be queued for the background
+     * writer without taking this lock, so encoding takes it to keep the shared codec to one thread at a time.
+     */
+    private synchronized String encode(Task task) {
+        return this.CODEC.encode(task);
     }
 
     /**
@@ -190,44 +401,287 @@ public class Storage {
      * @throws IOException If an I/O error occurs while writing to the file.
      */
     public void appendTask(String dataLine) throws IOException {
+        this.commit(Mutation.append(dataLine));
+    }
+
+    /**
+     * Persists a single change to the tasks file, or queues it for the background writer if write-behind is enabled.
+     *
+     * @param mutation The change to be persisted.
+     * @throws IOException If an I/O error occurs, or if the change does not apply to the current task entries.
+     */
+    private void commit(Mutation mutation) throws IOException {
+        if (this.writeBehind != null) {
+            this.writeBehind.enqueue(mutation);
+            return;
+        }
+        ArrayList<Mutation> batch = new ArrayList<>();
+        batch.add(mutation);
+        this.commitBatch(batch);
+    }
+
+    /**
+     * Persists a batch of changes to the tasks file with a single write.
+     * The changes are first applied to the in-memory image. In journaled mode, they are then appended to the journal,
+     * so the cost does not depend on the number of tasks. Otherwise, the tasks file is written back from the first
+     * changed entry onwards, which for appends only adds to its end. Changes that do not apply are skipped,
+     * and reported once the rest are written.
+     *
+     * @param batch The changes to be persisted, in order.
+     * @throws IOException If an I/O error occurs, or if any change does not apply to the current task entries.
+     */
+    synchronized void commitBatch(ArrayList<Mutation> batch) throws IOException {
+        this.getLines();
+        IOException firstError = null;
+        ArrayList<String> records = new ArrayList<>();
+        for (Mutation mutation : batch) {
+            try {
+                // Bad indices should never reach the journal, and retargeted changes are journaled where they landed
+                records.add(this.apply(mutation).toJournalLine());
+            } catch (IOException e) {
+                firstError = firstError == null ? e : firstError;
+            }
+        }
+
+        if (!this.IS_JOURNALED) {
+            this.writeDirty();
+        } else if (!records.isEmpty()) {
+            File journal = this.getJournalFile();
+            this.journalRecords += records.size();
+            if (!journal.exists()) {
+                records.add(0, this.getJournalStamp());
+            }
+            this.appendToFile(journal, records);
+            this.journalBytes = journal.length();
+            if (this.isJournalFull()) {
+                this.writeDirty();
+            }
+        }
+
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    /**
+     * Applies a single change to the in-memory image, marking the entries it affects as dirty.
+     *
+     * @param mutation The change to be applied.
+     * @return The change as applied, targeting the entry where its task was found.
+     * @throws IOException If the change does not apply to the current task entries.
+     */
+    private Mutation apply(Mutation mutation) throws IOException {
+        mutation = this.locate(mutation);
+        mutation.checkTarget(this.lines);
+        this.markDirty(mutation.getFirstAffectedLine(this.lines.size()));
+        mutation.applyTo(this.lines);
+        if (mutation.getType() != Mutation.Type.SET_COMPLETED && mutation.getType() != Mutation.Type.REPLACE) {
+            this.lineOfId = null; // Later entries have moved, or a new ID has appeared
+        }
+        return mutation;
+    }
+
+    /**
+     * Returns the mutation retargeted at the entry that actually holds its task, if that entry is not where
+     * the mutation expects it. The entry is then found through a hash index from stable IDs to entries,
+     * which is only built when such a disagreement happens.
+     *
+     * @param mutation The change to be applied.
+     * @return The change, targeting the entry of its task if that entry could be found.
+     */
+    private Mutation locate(Mutation mutation) {
+        int idx = mutation.getIndex();
+        if (mutation.getId() == 0 || mutation.getType() == Mutation.Type.APPEND
+                || (idx >= 0 && idx < this.lines.size() && TaskCodec.getId(this.lines.get(idx)) == mutation.getId())) {
+            return mutation;
+        }
+        if (this.lineOfId == null) {
+            this.lineOfId = new HashMap<>();
+            for (int i = 0; i < this.lines.size(); i++) {
+                this.lineOfId.put(TaskCodec.getId(this.lines.get(i)), i);
+            }
+        }
+        Integer line = this.lineOfId.get(mutation.getId());
+        return line == null ? mutation : mutation.withIndex(line);
+    }
+
+    /**
+     * Records that the entries from the given index onwards may no longer match the tasks file.
+     * This must be called before the entries are changed, while the clean ones still match the tasks file.
+     *
+     * @param idx The 0-based index of the first entry about to be changed.
+     */
+    private void markDirty(int idx) {
+        if (idx < this.firstDirtyLine) {
+            this.cleanBytes -= this.countBytes(idx, this.firstDirtyLine);
+            this.firstDirtyLine = idx;
+        }
+        this.isDirty = true;
+    }
+
+    /**
+     * Returns the number of bytes that the entries in the given range take up in the tasks file.
+     */
+    private long countBytes(int from, int to) {
+        long bytes = 0;
+        for (int i = from; i < to; i++) {
+            bytes += this.lines.get(i).getBytes(CHARSET).length + LINE_SEPARATOR_BYTES;
+        }
+        return bytes;
+    }
+
+    private void appendToFile(File file, ArrayList<String> dataLines) throws IOException {
         // Ensure the directory exists
         Files.createDirectories(Paths.get(this.DATA_FOLDER));
 
         // Create the file if it does not exist
-        File file = new File(this.DATA_FOLDER + "/" + this.TASKS_FILE);
         if (!file.exists() && !file.createNewFile()) {
             throw new IOException("Failed to create tasks file");
         }
 
         // Append the data to the file
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
-            writer.write(dataLine);
-            writer.newLine(); // Ensure the new line is properly added
+            for (String dataLine : dataLines) {
+                writer.write(dataLine);
+                writer.newLine(); // Ensure the new line is properly added
+            }
+        }
+    }
+
+    private boolean isJournalFull() {
+        return this.journalRecords >= JOURNAL_MAX_RECORDS || this.journalBytes >= JOURNAL_MAX_BYTES;
+    }
+
+    private File getTasksFile() {
+        return new File(this.DATA_FOLDER + "/" + this.TASKS_FILE);
+    }
+
+    private File getJournalFile() {
+        return new File(this.DATA_FOLDER + "/" + this.TASKS_FILE + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Writes every task to the tasks file, overwriting its content.
+     *
+     * @param tasks The complete list of tasks to be saved.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    @Override
+    public void saveTasks(List<Task> tasks) throws IOException {
+        ArrayList<String> lines = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            lines.add(this.encode(task));
         }
+        this.writeLines(lines);
     }
 
     /**
-     * Writes a list of task entries to the tasks file, overwriting its content.
+     * Writes a list of task entries to the tasks file, replacing its content.
+     * Only the entries from the first one that differs from the in-memory image onwards are written, and nothing is
+     * written at all if the entries are unchanged. In journaled mode, writing also compacts the journal,
+     * since the tasks file now holds every change.
+     * Changes still queued for the background writer are written first, so that they cannot land on top of
+     * the new content. If the write fails, the in-memory image is left as it was before the call.
      *
      * @param lines An {@code ArrayList} containing the updated task entries.
      * @throws IOException If an I/O error occurs while writing to the file.
      */
-    public void writeLines(ArrayList<String> lines) throws IOException {
-        // Ensure the directory exists
-        Files.createDirectories(Paths.get(this.DATA_FOLDER));
+    public synchronized void writeLines(ArrayList<String> lines) throws IOException {
+        if (this.writeBehind != null) {
+            try {
+                this.writeBehind.flush();
+            } catch (IOException e) {
+                // Already reported by the background writer, and superseded by the content written below
+            }
+        }
 
-        // Create the file if it does not exist
-        File file = new File(this.DATA_FOLDER + "/" + this.TASKS_FILE);
-        if (!file.exists() && !file.createNewFile()) {
-            throw new IOException("Failed to create tasks file");
+        ArrayList<String> current = this.getLines();
+        int firstChanged = 0;
+        while (firstChanged < current.size() && firstChanged < lines.size()
+                && current.get(firstChanged).equals(lines.get(firstChanged))) {
+            firstChanged++;
         }
+        boolean isChanged = firstChanged < current.size() || firstChanged < lines.size();
+        if (isChanged) {
+            this.markDirty(firstChanged);
+            this.lines = new ArrayList<>(lines);
+            this.lineOfId = null;
+        }
+        // An unchanged, journaled list is already persisted by its journal, whereas a dirty tasks file
+        // that is not journaled can only be left behind by a failed write, which is retried here
+        if (isChanged || !this.IS_JOURNALED) {
+            try {
+                this.writeDirty();
+            } catch (IOException e) {
+                // Roll the image back, so that later changes apply to the entries the caller still has.
+                // The entries from the first changed one onwards stay dirty, and are written again next time.
+                this.lines = current;
+                throw e;
+            }
+        }
+    }
 
-        // Write the modified content back to the file
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) { // Overwrite mode
-            for (String updatedLine : lines) {
-                writer.write(updatedLine);
-                writer.newLine();
+    /**
+     * Writes the dirty entries of the in-memory image to the tasks file, and forces them to disk. If the tasks file
+     * holds exactly the clean entries, the dirty ones are appended to it. Otherwise, every entry is written to a
+     * temporary file, which then replaces the tasks file in one rename. In journaled mode, the journal is then
+     * deleted, as the tasks file holds every change.
+     *
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    private void writeDirty() throws IOException {
+        if (this.isDirty) {
+            // Ensure the directory exists
+            Files.createDirectories(Paths.get(this.DATA_FOLDER));
+
+            File tasksFile = this.getTasksFile();
+            boolean isAppend = this.cleanBytes == tasksFile.length();
+            StringBuilder dirtyLines = new StringBuilder();
+            for (int i = isAppend ? this.firstDirtyLine : 0; i < this.lines.size(); i++) {
+                dirtyLines.append(this.lines.get(i)).append(LINE_SEPARATOR);
+            }
+            byte[] data = dirtyLines.toString().getBytes(CHARSET);
+
+            if (isAppend) {
+                // The file is created if it does not exist, and the clean entries already in it are never touched
+                try (FileOutputStream output = new FileOutputStream(tasksFile, true)) {
+                    output.write(data);
+                    output.getFD().sync();
+                }
+                this.cleanBytes += data.length;
+            } else {
+                this.replaceTasksFile(data);
+                this.cleanBytes = data.length;
             }
+            this.firstDirtyLine = this.lines.size();
+            this.isDirty = false;
+        }
+
+        if (this.IS_JOURNALED) {
+            // The stamp of the next journal must match the tasks file as it is now, before this journal goes
+            File tasksFile = this.getTasksFile();
+            this.baseBytes = tasksFile.length();
+            this.baseChecksum = Storage.checksumOf(tasksFile);
+            Files.deleteIfExists(this.getJournalFile().toPath());
+            this.journalRecords = 0;
+            this.journalBytes = 0;
+        }
+    }
+
+    /**
+     * Replaces the content of the tasks file by writing it to a temporary file beside it, forcing that to disk,
+     * and renaming it over the tasks file. If this fails at any point, the tasks file still holds its old content.
+     *
+     * @param data The new content of the tasks file.
+     * @throws IOException If an I/O error occurs while writing or renaming the temporary file.
+     */
+    private void replaceTasksFile(byte[] data) throws IOException {
+        Path tasksPath = this.getTasksFile().toPath();
+        Path tempPath = Paths.get(tasksPath + StorageFiles.TEMP_SUFFIX);
+        try (FileOutputStream output = new FileOutputStream(tempPath.toFile())) {
+            output.write(data);
+            output.getFD().sync();
         }
+        StorageFiles.moveOver(tempPath, tasksPath);
     }
 }
@@ -0,0 +1,122 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import nightcoder.task.Task;
+
+/**
+ * Represents a persistent home for a list of tasks, addressed by their 0-based position in the list.
+ * Implementations decide how tasks are laid out, e.g. as lines of text, as binary records, or only in memory,
+ * so that the same task list can run on (and be benchmarked against) any of them.
+ * Changes to existing tasks may also name the stable ID of the task. Engines that store IDs use it to make sure
+ * that the change lands on that task, even if the position they were given disagrees with their own records.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public interface StorageEngine {
+    /**
+     * Loads every previously saved task, in order.
+     *
+     * @return An {@code ArrayList} of {@code Task} objects representing previously saved tasks.
+     */
+    ArrayList<Task> loadTasks();
+
+    /**
+     * Adds a task to the end of the list.
+     *
+     * @param task The task to be added.
+     * @throws IOException If an I/O error occurs while saving the task.
+     */
+    void addTask(Task task) throws IOException;
+
+    /**
+     * Inserts a task into the list, shifting every later task up by one position.
+     *
+     * @param idx The 0-based index at which the task is inserted, which may be the number of tasks.
+     * @param task The task to be inserted.
+     * @throws IOException If an I/O error occurs while saving the task, or if the index is out of bounds.
+     */
+    void insertTask(int idx, Task task) throws IOException;
+
+    /**
+     * Updates the completion status of a task.
+     *
+     * @param idx The 0-based index of the task to be updated.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @throws IOException If an I/O error occurs, or if the index is out of bounds.
+     */
+    void setCompleted(int idx, boolean isCompleted) throws IOException;
+
+    /**
+     * Deletes a task, shifting every later task down by one position.
+     *
+     * @param idx The 0-based index of the task to be deleted.
+     * @throws IOException If an I/O error occurs, or if the index is out of bounds.
+     */
+    void deleteTask(int idx) throws IOException;
+
+    /**
+     * Updates the completion status of the task with the given stable ID.
+     * By default, the ID is ignored and the task at the given index is updated.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @throws IOException If an I/O error occurs, or if the task cannot be found.
+     */
+    default void setCompleted(int idx, int id, boolean isCompleted) throws IOException {
+        this.setCompleted(idx, isCompleted);
+    }
+
+    /**
+     * Deletes the task with the given stable ID, shifting every later task down by one position.
+     * By default, the ID is ignored and the task at the given index is deleted.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @throws IOException If an I/O error occurs, or if the task cannot be found.
+     */
+    default void deleteTask(int idx, int id) throws IOException {
+        this.deleteTask(idx);
+    }
+
+    /**
+     * Replaces the task with the given stable ID by a newer version of it, in place, such as when an occurrence
+     * of a repeating task is completed. If this fails, the saved task is left as it was.
+     *
+     * @param idx The 0-based index where the task is expected to be.
+     * @param id The stable ID of the task.
+     * @param task The newer version of the task.
+     * @throws IOException If an I/O error occurs, or if the task cannot be found.
+     */
+    void replaceTask(int idx, int id, Task task) throws IOException;
+
+    /**
+     * Replaces every saved task with the given tasks, all at once. If this fails, the saved tasks are left as they
+     * were, so several changes can be persisted together by a single call.
+     *
+     * @param tasks The complete list of tasks to be saved.
+     * @throws IOException If an I/O error occurs while saving the tasks.
+     */
+    void saveTasks(List<Task> tasks) throws IOException;
+
+    /**
+     * Writes any change that has been accepted but not yet persisted.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Writes any pending change and releases the resources held by this engine.
+     *
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    default void close() throws IOException {
+        this.flush();
+    }
+}
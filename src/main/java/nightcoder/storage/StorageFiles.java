@@ -0,0 +1,59 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import nightcoder.task.Task;
+
+/**
+ * Holds the file handling shared by the storage engines that are backed by a file.
+ * The class is designed as a utility class, hence it cannot be instantiated.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class StorageFiles {
+    /** Suffix of the new file that is written beside a file, and then renamed over it. */
+    static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * Prevents the instantiation of the {@code StorageFiles} class.
+     *
+     * @throws UnsupportedOperationException If an attempt is made to instantiate this class.
+     */
+    private StorageFiles() {
+        throw new UnsupportedOperationException("nightcoder.storage.StorageFiles class should not be instantiated.");
+    }
+
+    /**
+     * Renames a file over another, atomically where the file system supports it.
+     *
+     * @param source The file to be renamed.
+     * @param target The file to be replaced.
+     * @throws IOException If an I/O error occurs while renaming the file.
+     */
+    static void moveOver(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Prints whether any tasks were restored from previous sessions.
+     *
+     * @param tasks The tasks that were loaded.
+     */
+    static void printLoadSummary(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            System.out.println("[ INFO ] No previous task data found. Starting fresh!");
+        } else {
+            System.out.println("[ INFO ] Tasks loaded successfully from previous sessions!");
+        }
+    }
+}
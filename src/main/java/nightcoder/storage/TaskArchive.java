@@ -0,0 +1,235 @@
+package nightcoder.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import nightcoder.task.Task;
+
+/**
+ * Keeps completed tasks in a compressed cold segment, away from the active tasks file.
+ * The segment is a series of GZIP members, one per archiving, so archiving more tasks never rewrites it.
+ * Next to it, a summary file holds a 64-bit hash of each archived description. The summary is all that is needed
+ * to rule out duplicates, so the segment itself is only opened when archived tasks are listed or searched,
+ * or when a description hashes to the same value as an archived one.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public class TaskArchive {
+    private static final String SEGMENT_SUFFIX = ".gz";
+    private static final String SUMMARY_SUFFIX = ".summary";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final String DATA_FOLDER;
+    private final String ARCHIVE_FILE;
+    private long[] summary; // Sorted hashes of archived descriptions, null until first needed
+    private long segmentLengthBeforeAppend = -1; // Lengths before the latest append, -1 if it cannot be reverted
+    private long summaryLengthBeforeAppend = -1;
+
+    /**
+     * Constructs a {@code TaskArchive} instance for archiving tasks in the specified folder and file.
+     *
+     * @param folder   The directory where task data is stored.
+     * @param filename The base name of the archive files.
+     */
+    public TaskArchive(String folder, String filename) {
+        this.DATA_FOLDER = folder;
+        this.ARCHIVE_FILE = filename;
+    }
+
+    /**
+     * Returns the number of archived tasks, without opening the segment.
+     *
+     * @return The number of tasks in the archive.
+     */
+    public int size() {
+        return this.getSummary().length;
+    }
+
+    /**
+     * Checks whether an archived task has the given description, ignoring case.
+     * The segment is only opened to confirm a match found in the hash summary.
+     *
+     * @param description The description to look for.
+     * @return {@code true} if an archived task has the same description.
+     */
+    public boolean containsDescription(String description) {
+        String key = description.toLowerCase();
+        if (Arrays.binarySearch(this.getSummary(), TaskArchive.hash(key)) < 0) {
+            return false;
+        }
+        return this.loadTasks().stream().anyMatch(task -> task.getDescription().toLowerCase().equals(key));
+    }
+
+    /**
+     * Appends tasks to the archive, as a new compressed member of the segment.
+     * If writing fails part of the way, the archive files are cut back to what they were before.
+     *
+     * @param tasks The tasks to be archived.
+     * @throws IOException If an I/O error occurs while writing to the archive files.
+     */
+    public void append(List<Task> tasks) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(Paths.get(this.DATA_FOLDER));
+        this.segmentLengthBeforeAppend = this.getSegmentFile().length();
+        this.summaryLengthBeforeAppend = this.getSummaryFile().length();
+        try {
+            this.write(tasks);
+        } catch (IOException e) {
+            try {
+                this.revertAppend();
+            } catch (IOException revertError) {
+                e.addSuppressed(revertError);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes back the latest append, such as when the tasks it archived could not be removed from the tasks file.
+     * Both archive files are cut back to the lengths they had before it, which drops its whole member of the segment.
+     *
+     * @throws IOException If an I/O error occurs while cutting back the archive files.
+     */
+    public void revertAppend() throws IOException {
+        if (this.segmentLengthBeforeAppend < 0) {
+            return;
+        }
+        this.summary = null; // Read again from the summary file when next needed
+        TaskArchive.truncate(this.getSegmentFile(), this.segmentLengthBeforeAppend);
+        TaskArchive.truncate(this.getSummaryFile(), this.summaryLengthBeforeAppend);
+        this.segmentLengthBeforeAppend = -1;
+        this.summaryLengthBeforeAppend = -1;
+    }
+
+    private void write(List<Task> tasks) throws IOException {
+        TaskCodec codec = new TaskCodec();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(this.getSegmentFile(), true)), StandardCharsets.UTF_8))) {
+            for (Task task : tasks) {
+                writer.write(codec.encode(task));
+                writer.newLine();
+            }
+        }
+
+        long[] hashes = new long[tasks.size()];
+        try (DataOutputStream output = new DataOutputStream(new FileOutputStream(this.getSummaryFile(), true))) {
+            for (int i = 0; i < tasks.size(); i++) {
+                hashes[i] = TaskArchive.hash(tasks.get(i).getDescription().toLowerCase());
+                output.writeLong(hashes[i]);
+            }
+        }
+        if (this.summary != null) {
+            long[] merged = Arrays.copyOf(this.summary, this.summary.length + hashes.length);
+            System.arraycopy(hashes, 0, merged, this.summary.length, hashes.length);
+            Arrays.sort(merged);
+            this.summary = merged;
+        }
+    }
+
+    /**
+     * Opens the segment and loads every archived task, in the order they were archived.
+     *
+     * @return An {@code ArrayList} of the archived {@code Task} objects.
+     *     Returns an empty list if nothing was archived or an error occurs.
+     */
+    public ArrayList<Task> loadTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        File segment = this.getSegmentFile();
+        if (!segment.exists()) {
+            return tasks;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(segment)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    tasks.add(TaskCodec.decode(line));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("[ ERROR ] " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[ ERROR ] Error reading archive file: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    private long[] getSummary() {
+        if (this.summary != null) {
+            return this.summary;
+        }
+        File file = this.getSummaryFile();
+        long[] hashes = new long[(int) (file.length() / Long.BYTES)];
+        if (hashes.length > 0) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(file)))) {
+                for (int i = 0; i < hashes.length; i++) {
+                    hashes[i] = input.readLong();
+                }
+            } catch (EOFException e) {
+                System.err.println("[ ERROR ] Archive summary is truncated");
+            } catch (IOException e) {
+                System.err.println("[ ERROR ] Error reading archive summary: " + e.getMessage());
+            }
+        }
+        Arrays.sort(hashes);
+        this.summary = hashes;
+        return this.summary;
+    }
+
+    /**
+     * Returns the 64-bit FNV-1a hash of a lower-cased description.
+     */
+    private static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Cuts a file back to the given length, removing it if it was empty to begin with.
+     */
+    private static void truncate(File file, long length) throws IOException {
+        if (length == 0) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+
+    private File getSegmentFile() {
+        return new File(this.DATA_FOLDER + "/" + this.ARCHIVE_FILE + SEGMENT_SUFFIX);
+    }
+
+    private File getSummaryFile() {
+        return new File(this.DATA_FOLDER + "/" + this.ARCHIVE_FILE + SUMMARY_SUFFIX);
+    }
+}
@@ -0,0 +1,226 @@
+package nightcoder.storage;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Recurrence;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+
+/**
+ * Encodes tasks into, and decodes tasks from, the pipe-separated records of the tasks file.
+ * Records are scanned one character at a time instead of being split with a regular expression.
+ * A literal {@code |} or {@code \} inside a field is escaped with a backslash, so descriptions may contain pipes.
+ * A backslash followed by any other character is read as-is, so records written before escaping was introduced
+ * still decode to the same fields.
+ * Tasks with a stable ID have their record prefixed with "#id|". Records written before IDs were introduced have no
+ * prefix, and decode to tasks without an ID.
+ * A repeating deadline or event has the rule by which it repeats as one more field at the end of its record.
+ * An instance reuses a single {@code StringBuilder} across calls to {@link #encode(Task)}, hence it should not
+ * be shared between threads.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public class TaskCodec {
+    private static final char SEPARATOR = '|';
+    private static final char ESCAPE = '\\';
+    private static final char ID_PREFIX = '#';
+    private static final int MAX_ID_DIGITS = 9;
+    private static final int MAX_FIELDS = 6;
+    private final StringBuilder BUILDER = new StringBuilder(64);
+
+    /**
+     * Encodes a task into a record, reusing this codec's buffer.
+     *
+     * @param task The task to be encoded.
+     * @return A string formatted as "[#id|]type|completion_status|description|[additional data]".
+     */
+    public String encode(Task task) {
+        this.BUILDER.setLength(0);
+        TaskCodec.appendTo(task, this.BUILDER);
+        return this.BUILDER.toString();
+    }
+
+    /**
+     * Appends the record of a task to the given buffer.
+     *
+     * @param task The task to be encoded.
+     * @param output The buffer the record is appended to.
+     */
+    public static void appendTo(Task task, StringBuilder output) {
+        if (task.getId() > 0) {
+            output.append(ID_PREFIX).append(task.getId()).append(SEPARATOR);
+        }
+        if (task instanceof Deadline deadline) {
+            output.append("D|").append(task.isCompleted() ? '1' : '0').append(SEPARATOR);
+            TaskCodec.appendEscaped(task.getDescription(), output);
+            output.append(SEPARATOR);
+            TaskCodec.appendEscaped(deadline.getDueBy(), output);
+        } else if (task instanceof Event event) {
+            output.append("E|").append(task.isCompleted() ? '1' : '0').append(SEPARATOR);
+            TaskCodec.appendEscaped(task.getDescription(), output);
+            output.append(SEPARATOR);
+            TaskCodec.appendEscaped(event.getStartTime(), output);
+            output.append(SEPARATOR);
+            TaskCodec.appendEscaped(event.getEndTime(), output);
+        } else {
+            output.append("T|").append(task.isCompleted() ? '1' : '0').append(SEPARATOR);
+            TaskCodec.appendEscaped(task.getDescription(), output);
+        }
+        if (task.getRecurrence() != null) {
+            output.append(SEPARATOR).append(task.getRecurrence().encode());
+        }
+    }
+
+    private static void appendEscaped(String field, StringBuilder output) {
+        assert field.indexOf('\n') < 0 && field.indexOf('\r') < 0 : "Task fields must fit on a single line";
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == SEPARATOR || c == ESCAPE) {
+                output.append(ESCAPE);
+            }
+            output.append(c);
+        }
+    }
+
+    /**
+     * Decodes a record into a {@code Task} in a single pass over its characters.
+     *
+     * @param record The string containing task details in the format:
+     *     [#id|]Type|isCompleted|Description|[Additional Data].
+     * @return A {@code Task} object parsed from the string.
+     * @throws IllegalArgumentException If the format is invalid or missing required fields.
+     */
+    public static Task decode(String record) throws IllegalArgumentException {
+        int id = TaskCodec.getId(record);
+        int bodyStart = TaskCodec.bodyStart(record);
+        if (bodyStart > 0 && id == 0) {
+            throw new IllegalArgumentException("Invalid task format detected: " + record);
+        }
+        String[] fields = new String[MAX_FIELDS];
+        int fieldCount = 0;
+        StringBuilder field = null; // Only allocated once an escape sequence is met
+        int fieldStart = bodyStart;
+        int length = record.length();
+        for (int i = bodyStart; i <= length && fieldCount < MAX_FIELDS; i++) {
+            char c = i < length ? record.charAt(i) : SEPARATOR;
+            if (c == ESCAPE && i + 1 < length
+                    && (record.charAt(i + 1) == SEPARATOR || record.charAt(i + 1) == ESCAPE)) {
+                if (field == null) {
+                    field = new StringBuilder();
+                }
+                field.append(record, fieldStart, i).append(record.charAt(i + 1));
+                i++;
+                fieldStart = i + 1;
+            } else if (c == SEPARATOR) {
+                if (field == null) {
+                    fields[fieldCount] = record.substring(fieldStart, i);
+                } else {
+                    fields[fieldCount] = field.append(record, fieldStart, i).toString();
+                    field = null;
+                }
+                fieldCount++;
+                fieldStart = i + 1;
+            }
+        }
+
+        if (fieldCount < 3 || fields[0].length() != 1 || !TaskCodec.isCompletionFlag(fields[1])
+                || TaskCodec.isBlank(fields[2])) {
+            throw new IllegalArgumentException("Invalid task format detected: " + record);
+        }
+        boolean isCompleted = fields[1].charAt(0) == '1';
+
+        // "Incorrect" indentation by Style Checker due to the use of "return".
+        // It should, in theory, be of the correct indentation.
+        Task task = switch (fields[0].charAt(0)) {
+            case 'T' -> new ToDo(fields[2], isCompleted);
+            case 'D' -> {
+                if (fieldCount < 4 || TaskCodec.isBlank(fields[3])) {
+                    throw new IllegalArgumentException("Invalid task format detected: " + record);
+                }
+                Task deadline = new Deadline(fields[2], isCompleted, fields[3]);
+                deadline.setRecurrence(TaskCodec.decodeRecurrence(fields, fieldCount, 4));
+                yield deadline;
+            }
+            case 'E' -> {
+                if (fieldCount < 5 || TaskCodec.isBlank(fields[3]) || TaskCodec.isBlank(fields[4])) {
+                    throw new IllegalArgumentException("Invalid task format detected: " + record);
+                }
+                Task event = new Event(fields[2], isCompleted, fields[3], fields[4]);
+                event.setRecurrence(TaskCodec.decodeRecurrence(fields, fieldCount, 5));
+                yield event;
+            }
+            default -> throw new IllegalArgumentException("Invalid task format detected: " + record);
+        };
+        if (id > 0) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    /**
+     * Decodes the rule of a repeating task from the field after its dates, if the record has one.
+     */
+    private static Recurrence decodeRecurrence(String[] fields, int fieldCount, int field)
+            throws IllegalArgumentException {
+        return fieldCount > field && !TaskCodec.isBlank(fields[field]) ? Recurrence.parse(fields[field]) : null;
+    }
+
+    /**
+     * Returns the stable ID in the prefix of a record.
+     *
+     * @param record The record to be read.
+     * @return The ID of the task, or 0 if the record has no valid ID prefix.
+     */
+    public static int getId(String record) {
+        int bodyStart = TaskCodec.bodyStart(record);
+        if (bodyStart == 0 || bodyStart - 2 > MAX_ID_DIGITS || bodyStart < 3) {
+            return 0;
+        }
+        int id = 0;
+        for (int i = 1; i < bodyStart - 1; i++) {
+            char c = record.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * Returns the index at which the type field of a record starts, just past its ID prefix if it has one.
+     */
+    private static int bodyStart(String record) {
+        if (record.isEmpty() || record.charAt(0) != ID_PREFIX) {
+            return 0;
+        }
+        return record.indexOf(SEPARATOR) + 1;
+    }
+
+    /**
+     * Returns the record with its completion status replaced, leaving every other character untouched.
+     *
+     * @param record The record to be updated.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     * @return The updated record.
+     * @throws IllegalArgumentException If the record does not have a type, a completion status and a description.
+     */
+    public static String withCompleted(String record, boolean isCompleted) throws IllegalArgumentException {
+        // The ID, type and completion status never contain escape sequences
+        int flagStart = record.indexOf(SEPARATOR, TaskCodec.bodyStart(record)) + 1;
+        int flagEnd = flagStart > 0 ? record.indexOf(SEPARATOR, flagStart) : -1;
+        if (flagEnd < 0 || flagEnd + 1 >= record.length()) {
+            throw new IllegalArgumentException("Invalid task format detected: " + record);
+        }
+        return record.substring(0, flagStart) + (isCompleted ? '1' : '0') + record.substring(flagEnd);
+    }
+
+    private static boolean isCompletionFlag(String field) {
+        return field.length() == 1 && (field.charAt(0) == '0' || field.charAt(0) == '1');
+    }
+
+    private static boolean isBlank(String field) {
+        return field.trim().isEmpty();
+    }
+}
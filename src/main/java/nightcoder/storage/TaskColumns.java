@@ -0,0 +1,294 @@
+package nightcoder.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Recurrence;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+
+/**
+ * Holds a list of tasks as a structure of arrays rather than as one object or encoded record per task. It backs the
+ * in-memory engine, whose copy of the tasks hence costs a handful of arrays instead of a string per task. The task
+ * list still holds a {@code Task} object for every task, as its indices and undo history refer to tasks by identity,
+ * so this does not shrink the list itself.
+ * Completion statuses live in a {@code BitSet}, types in a {@code byte[]}, and descriptions as UTF-8 slices of one
+ * shared arena. Dates and times repeat often, so each distinct one is stored once in a dictionary and referred
+ * to by its code, as is the rule of every repeating task. {@code Task} objects are only created, as fresh copies,
+ * when a task is read.
+ * The arena and dictionary are compacted once more than half of the arena is taken up by removed descriptions.
+ * The arena may be kept off the heap.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class TaskColumns {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MIN_ARENA_CAPACITY = 1024;
+    private static final int NO_CODE = -1;
+    private final BitSet COMPLETED = new BitSet();
+    private byte[] types = new byte[MIN_CAPACITY];
+    private int[] ids = new int[MIN_CAPACITY];
+    private int[] descriptionStarts = new int[MIN_CAPACITY];
+    private int[] descriptionLengths = new int[MIN_CAPACITY];
+    private int[] firstDates = new int[MIN_CAPACITY]; // Code of the due date, or of the start of an event
+    private int[] secondDates = new int[MIN_CAPACITY]; // Code of the end of an event
+    private int[] rules = new int[MIN_CAPACITY]; // Code of the encoded rule of a repeating task
+    private final boolean IS_OFF_HEAP;
+    private DescriptionArena arena;
+    private int arenaGarbage = 0;
+    private ArrayList<String> dictionary = new ArrayList<>();
+    private HashMap<String, Integer> codes = new HashMap<>();
+    private int size = 0;
+
+    /**
+     * Constructs an empty {@code TaskColumns} that keeps its descriptions on the heap.
+     */
+    TaskColumns() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty {@code TaskColumns}.
+     *
+     * @param isOffHeap {@code true} to keep the description arena in a direct buffer, outside of the heap.
+     */
+    TaskColumns(boolean isOffHeap) {
+        this.IS_OFF_HEAP = isOffHeap;
+        this.arena = new DescriptionArena(MIN_ARENA_CAPACITY, isOffHeap);
+    }
+
+    /**
+     * Returns the number of tasks held.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Creates a fresh {@code Task} holding the values of the task at the given index.
+     *
+     * @param idx The 0-based index of the task.
+     * @return A new {@code Task} object for the task.
+     */
+    Task get(int idx) {
+        assert idx >= 0 && idx < this.size : "Task index should be within bounds";
+        String description = this.arena.read(this.descriptionStarts[idx], this.descriptionLengths[idx]);
+        boolean isCompleted = this.COMPLETED.get(idx);
+        Task task = switch (this.types[idx]) {
+            case 'D' -> new Deadline(description, isCompleted, this.dictionary.get(this.firstDates[idx]));
+            case 'E' -> new Event(description, isCompleted, this.dictionary.get(this.firstDates[idx]),
+                    this.dictionary.get(this.secondDates[idx]));
+            default -> new ToDo(description, isCompleted);
+        };
+        if (this.ids[idx] > 0) {
+            task.setId(this.ids[idx]);
+        }
+        if (this.rules[idx] != NO_CODE) {
+            task.setRecurrence(Recurrence.parse(this.dictionary.get(this.rules[idx])));
+        }
+        return task;
+    }
+
+    /**
+     * Returns the stable ID of the task at the given index, without creating a {@code Task}.
+     *
+     * @param idx The 0-based index of the task.
+     * @return The ID of the task, or 0 if it has none.
+     */
+    int getId(int idx) {
+        return this.ids[idx];
+    }
+
+    /**
+     * Returns the index of the task with the given stable ID, scanning only the column of IDs.
+     *
+     * @param id The stable ID of the task.
+     * @return The 0-based index of the task, or -1 if no task has that ID.
+     */
+    int indexOfId(int id) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Updates the completion status of the task at the given index by flipping a single bit.
+     *
+     * @param idx The 0-based index of the task.
+     * @param isCompleted {@code true} if the task is completed, {@code false} otherwise.
+     */
+    void setCompleted(int idx, boolean isCompleted) {
+        assert idx >= 0 && idx < this.size : "Task index should be within bounds";
+        this.COMPLETED.set(idx, isCompleted);
+    }
+
+    /**
+     * Inserts a task at the given index, shifting every later task up by one position.
+     *
+     * @param idx The 0-based index at which the task is inserted, which may be the number of tasks.
+     * @param task The task to be inserted.
+     */
+    void add(int idx, Task task) {
+        assert idx >= 0 && idx <= this.size : "Task index should be within bounds";
+        this.ensureCapacity(this.size + 1);
+        int later = this.size - idx;
+        System.arraycopy(this.types, idx, this.types, idx + 1, later);
+        System.arraycopy(this.ids, idx, this.ids, idx + 1, later);
+        System.arraycopy(this.descriptionStarts, idx, this.descriptionStarts, idx + 1, later);
+        System.arraycopy(this.descriptionLengths, idx, this.descriptionLengths, idx + 1, later);
+        System.arraycopy(this.firstDates, idx, this.firstDates, idx + 1, later);
+        System.arraycopy(this.secondDates, idx, this.secondDates, idx + 1, later);
+        System.arraycopy(this.rules, idx, this.rules, idx + 1, later);
+        for (int i = this.size; i > idx; i--) {
+            this.COMPLETED.set(i, this.COMPLETED.get(i - 1));
+        }
+        this.size++;
+        this.write(idx, task);
+    }
+
+    /**
+     * Replaces the task at the given index by another, leaving every other task where it is.
+     *
+     * @param idx The 0-based index of the task to be replaced.
+     * @param task The task to take its place.
+     */
+    void set(int idx, Task task) {
+        assert idx >= 0 && idx < this.size : "Task index should be within bounds";
+        this.arenaGarbage += this.descriptionLengths[idx];
+        this.write(idx, task);
+        this.compactIfNeeded();
+    }
+
+    private void write(int idx, Task task) {
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        this.descriptionStarts[idx] = this.arena.append(description);
+        this.descriptionLengths[idx] = description.length;
+        this.COMPLETED.set(idx, task.isCompleted());
+        this.ids[idx] = task.getId();
+        this.firstDates[idx] = NO_CODE;
+        this.secondDates[idx] = NO_CODE;
+        this.rules[idx] = task.getRecurrence() == null ? NO_CODE : this.encode(task.getRecurrence().encode());
+        if (task instanceof Deadline deadline) {
+            this.types[idx] = 'D';
+            this.firstDates[idx] = this.encode(deadline.getDueBy());
+        } else if (task instanceof Event event) {
+            this.types[idx] = 'E';
+            this.firstDates[idx] = this.encode(event.getStartTime());
+            this.secondDates[idx] = this.encode(event.getEndTime());
+        } else {
+            this.types[idx] = 'T';
+        }
+    }
+
+    /**
+     * Removes the task at the given index, shifting every later task down by one position.
+     *
+     * @param idx The 0-based index of the task to be removed.
+     */
+    void remove(int idx) {
+        assert idx >= 0 && idx < this.size : "Task index should be within bounds";
+        this.arenaGarbage += this.descriptionLengths[idx];
+        int later = this.size - idx - 1;
+        System.arraycopy(this.types, idx + 1, this.types, idx, later);
+        System.arraycopy(this.ids, idx + 1, this.ids, idx, later);
+        System.arraycopy(this.descriptionStarts, idx + 1, this.descriptionStarts, idx, later);
+        System.arraycopy(this.descriptionLengths, idx + 1, this.descriptionLengths, idx, later);
+        System.arraycopy(this.firstDates, idx + 1, this.firstDates, idx, later);
+        System.arraycopy(this.secondDates, idx + 1, this.secondDates, idx, later);
+        System.arraycopy(this.rules, idx + 1, this.rules, idx, later);
+        for (int i = idx; i < this.size - 1; i++) {
+            this.COMPLETED.set(i, this.COMPLETED.get(i + 1));
+        }
+        this.size--;
+        this.COMPLETED.clear(this.size);
+        this.compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (this.arenaGarbage > MIN_ARENA_CAPACITY && this.arenaGarbage > this.arena.used() / 2) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Removes every task, and releases the arena and dictionary.
+     */
+    void clear() {
+        this.COMPLETED.clear();
+        this.size = 0;
+        this.arena = new DescriptionArena(MIN_ARENA_CAPACITY, this.IS_OFF_HEAP);
+        this.arenaGarbage = 0;
+        this.dictionary = new ArrayList<>();
+        this.codes = new HashMap<>();
+    }
+
+    /**
+     * Returns the number of distinct dates, times and rules held in the dictionary.
+     *
+     * @return The size of the dictionary.
+     */
+    int getDictionarySize() {
+        return this.dictionary.size();
+    }
+
+    private int encode(String date) {
+        Integer code = this.codes.get(date);
+        if (code == null) {
+            code = this.dictionary.size();
+            this.dictionary.add(date);
+            this.codes.put(date, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, this.types.length * 2);
+        this.types = Arrays.copyOf(this.types, newCapacity);
+        this.ids = Arrays.copyOf(this.ids, newCapacity);
+        this.descriptionStarts = Arrays.copyOf(this.descriptionStarts, newCapacity);
+        this.descriptionLengths = Arrays.copyOf(this.descriptionLengths, newCapacity);
+        this.firstDates = Arrays.copyOf(this.firstDates, newCapacity);
+        this.secondDates = Arrays.copyOf(this.secondDates, newCapacity);
+        this.rules = Arrays.copyOf(this.rules, newCapacity);
+    }
+
+    /**
+     * Copies the descriptions still in use into a new arena, and drops the dates that no task refers to anymore.
+     */
+    private void compact() {
+        DescriptionArena oldArena = this.arena;
+        ArrayList<String> oldDictionary = this.dictionary;
+        this.arena = new DescriptionArena(Math.max(MIN_ARENA_CAPACITY, (oldArena.used() - this.arenaGarbage) * 2),
+                this.IS_OFF_HEAP);
+        this.arenaGarbage = 0;
+        this.dictionary = new ArrayList<>();
+        this.codes = new HashMap<>();
+        for (int i = 0; i < this.size; i++) {
+            this.descriptionStarts[i] = this.arena.append(oldArena, this.descriptionStarts[i],
+                    this.descriptionLengths[i]);
+            if (this.firstDates[i] != NO_CODE) {
+                this.firstDates[i] = this.encode(oldDictionary.get(this.firstDates[i]));
+            }
+            if (this.secondDates[i] != NO_CODE) {
+                this.secondDates[i] = this.encode(oldDictionary.get(this.secondDates[i]));
+            }
+            if (this.rules[i] != NO_CODE) {
+                this.rules[i] = this.encode(oldDictionary.get(this.rules[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Queues changes to the tasks file and persists them on a single background writer thread.
+ * Changes that arrive close together are written as one batch, once the batch is full or the flush interval
+ * has passed since its first change, so that a burst of commands costs a single disk write.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class WriteBehindQueue {
+    private final Storage STORAGE;
+    private final long FLUSH_INTERVAL_MILLIS;
+    private final int BATCH_SIZE;
+    private final Thread WRITER;
+    private ArrayList<Mutation> pending = new ArrayList<>();
+    private IOException error; // First error hit by the writer thread, reported on the next flush
+    private boolean isClosed = false;
+
+    /**
+     * Constructs a {@code WriteBehindQueue} and starts its writer thread.
+     *
+     * @param storage             The storage that the batched changes are committed to.
+     * @param flushIntervalMillis The longest time, in milliseconds, that a queued change waits to be written.
+     * @param batchSize           The number of queued changes that triggers a write straight away.
+     */
+    WriteBehindQueue(Storage storage, long flushIntervalMillis, int batchSize) {
+        assert flushIntervalMillis > 0 && batchSize > 0 : "Flush interval and batch size should be positive";
+        this.STORAGE = storage;
+        this.FLUSH_INTERVAL_MILLIS = flushIntervalMillis;
+        this.BATCH_SIZE = batchSize;
+        this.WRITER = new Thread(this::runWriter, "nightcoder-write-behind");
+        this.WRITER.setDaemon(true);
+        this.WRITER.start();
+    }
+
+    /**
+     * Queues a change to be written by the writer thread.
+     *
+     * @param mutation The change to be persisted.
+     * @throws IOException If the queue has already been closed.
+     */
+    synchronized void enqueue(Mutation mutation) throws IOException {
+        if (this.isClosed) {
+            throw new IOException("Tasks file has already been closed");
+        }
+        this.pending.add(mutation);
+        if (this.pending.size() == 1 || this.pending.size() >= this.BATCH_SIZE) {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * Writes every queued change on the calling thread.
+     *
+     * @throws IOException If this or an earlier background write has failed.
+     */
+    void flush() throws IOException {
+        this.writePending();
+        IOException failure;
+        synchronized (this) {
+            failure = this.error;
+            this.error = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops the writer thread and writes every change still in the queue.
+     *
+     * @throws IOException If this or an earlier background write has failed.
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            this.isClosed = true;
+            this.notifyAll();
+        }
+        try {
+            this.WRITER.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.flush();
+    }
+
+    private void runWriter() {
+        while (this.awaitBatch()) {
+            this.writePending();
+        }
+    }
+
+    /**
+     * Blocks until a batch is ready to be written: either it is full, or the flush interval has passed
+     * since its first change was queued.
+     *
+     * @return {@code false} once the queue is closed, {@code true} otherwise.
+     */
+    private synchronized boolean awaitBatch() {
+        try {
+            while (this.pending.isEmpty() && !this.isClosed) {
+                this.wait();
+            }
+            long deadline = System.currentTimeMillis() + this.FLUSH_INTERVAL_MILLIS;
+            long remaining = this.FLUSH_INTERVAL_MILLIS;
+            while (this.pending.size() < this.BATCH_SIZE && !this.isClosed && remaining > 0) {
+                this.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return !this.isClosed;
+    }
+
+    /**
+     * Takes every queued change and commits them to storage as a single batch.
+     * Holding the storage lock while the queue is drained keeps batches in the order they were queued.
+     */
+    private void writePending() {
+        synchronized (this.STORAGE) {
+            ArrayList<Mutation> batch;
+            synchronized (this) {
+                batch = this.pending;
+                this.pending = new ArrayList<>();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                this.STORAGE.commitBatch(batch);
+            } catch (IOException e) {
+                System.err.println("[ ERROR ] Error writing to tasks file: " + e.getMessage());
+                synchronized (this) {
+                    if (this.error == null) {
+                        this.error = e;
+                    }
+                }
+            }
+        }
+    }
+}
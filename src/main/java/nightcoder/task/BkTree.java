@@ -0,0 +1,126 @@
+package nightcoder.task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Represents a Burkhard-Keller tree, a metric index over words under the Levenshtein (edit) distance.
+ * Each child hangs off its parent at its distance from the parent's word. By the triangle inequality,
+ * a word within distance {@code n} of the query can only be found below children at distance {@code d - n} to
+ * {@code d + n}, where {@code d} is the distance from the query to the parent, so most of the tree is never visited.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class BkTree {
+    /**
+     * Represents a word found within the distance asked for, together with its distance from the query.
+     */
+    record Match(String word, int distance) {
+    }
+
+    /**
+     * Represents a node of the tree, holding one word.
+     */
+    private static class Node {
+        private final String WORD;
+        private final HashMap<Integer, Node> CHILDREN = new HashMap<>();
+
+        private Node(String word) {
+            this.WORD = word;
+        }
+    }
+
+    private Node root;
+    private int size = 0;
+
+    /**
+     * Returns the number of words in the tree.
+     *
+     * @return The number of words in the tree.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Adds a word to the tree, unless it is already there.
+     *
+     * @param word The word to be added.
+     */
+    void add(String word) {
+        if (this.root == null) {
+            this.root = new Node(word);
+            this.size++;
+            return;
+        }
+        Node node = this.root;
+        while (true) {
+            int distance = BkTree.distance(word, node.WORD);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.CHILDREN.get(distance);
+            if (child == null) {
+                node.CHILDREN.put(distance, new Node(word));
+                this.size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Finds every word within the given edit distance of the query.
+     *
+     * @param query The word to look for.
+     * @param maxDistance The largest edit distance allowed.
+     * @return An {@code ArrayList} of the words found, in no particular order.
+     */
+    ArrayList<Match> search(String query, int maxDistance) {
+        ArrayList<Match> matches = new ArrayList<>();
+        if (this.root == null) {
+            return matches;
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(this.root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = BkTree.distance(query, node.WORD);
+            if (distance <= maxDistance) {
+                matches.add(new Match(node.WORD, distance));
+            }
+            for (int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++) {
+                Node child = node.CHILDREN.get(d);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the Levenshtein distance between two words: the fewest single-character insertions, deletions
+     * and substitutions that turn one into the other.
+     */
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = previous[j - 1] + (first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+}
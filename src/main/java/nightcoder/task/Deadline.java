@@ -9,6 +9,7 @@ package nightcoder.task;
  */
 public class Deadline extends Task {
     private final String DUE_BY;
+    private final long DUE_DAY; // Epoch day of DUE_BY, or TaskDates.NO_DATE if it does not hold a date
 
     /**
      * Constructs a new Deadline task with the specified description and deadline.
@@ -21,6 +22,7 @@ public class Deadline extends Task {
         super(description, isCompleted);
         assert dueBy != null && !dueBy.trim().isEmpty() : "Deadline dueBy cannot be null or empty";
         this.DUE_BY = dueBy;
+        this.DUE_DAY = TaskDates.toEpochDay(dueBy);
     }
 
     public String getDueBy() {
@@ -29,16 +31,37 @@ public class Deadline extends Task {
     }
 
     /**
-     * Returns a formatted string representation of the task.
+     * Checks whether the deadline holds a recognised date, rather than free text such as "Tonight".
      *
-     * @return A string formatted as "T|completion_status|description|due_by".
+     * @return {@code true} if the deadline has a due date.
      */
-    public String getStringFormat() {
-        return "D|" + (isCompleted() ? "1" : "0") + "|" + getDescription() + "|" + getDueBy();
+    public boolean hasDueDate() {
+        return this.DUE_DAY != TaskDates.NO_DATE;
+    }
+
+    /**
+     * Returns the due date as a number of days since 1970-01-01.
+     *
+     * @return The epoch day of the due date, which is only meaningful if {@link #hasDueDate()} holds.
+     */
+    public long getDueDay() {
+        return this.DUE_DAY;
+    }
+
+    /**
+     * Materialises a single occurrence of a repeating deadline, which is not part of any task list.
+     *
+     * @param day The epoch day that the occurrence is due.
+     * @return A {@code Deadline} due on that day, which is complete if the occurrence or the deadline is.
+     */
+    Deadline occurrenceOn(long day) {
+        assert this.getRecurrence() != null && this.hasDueDate() : "Only repeating deadlines have occurrences";
+        return new Deadline(this.getDescription(), this.isCompleted() || this.getRecurrence().isDone(day),
+                TaskDates.withDay(this.DUE_BY, day));
     }
 
     @Override
     public String toString() {
-        return "[D]" + super.toString() + " (By: " + this.DUE_BY + ")";
+        return "[D]" + super.toString() + " (By: " + this.DUE_BY + ")" + this.formatRecurrence();
     }
 }
@@ -0,0 +1,98 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+
+/**
+ * Keeps deadlines ordered by their due date, so that the deadlines due within a range of dates are found in
+ * logarithmic time plus the number of matches. Deadlines without a recognised date are left out, and repeating
+ * deadlines are kept by the {@code RecurrenceIndex} instead.
+ * An index may keep only the incomplete deadlines, so that the overdue ones are found without stepping over every
+ * deadline that was completed in the past. Completion statuses only reach it through
+ * {@link #setCompleted(Task, boolean)}.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class DueDateIndex implements TaskIndex {
+    private final TreeMap<Long, LinkedHashSet<Task>> DEADLINES = new TreeMap<>();
+    private final boolean IS_INCOMPLETE_ONLY;
+
+    /**
+     * Constructs an empty {@code DueDateIndex} that keeps every deadline.
+     */
+    DueDateIndex() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty {@code DueDateIndex}.
+     *
+     * @param isIncompleteOnly {@code true} to keep only the deadlines that have not been completed.
+     */
+    DueDateIndex(boolean isIncompleteOnly) {
+        this.IS_INCOMPLETE_ONLY = isIncompleteOnly;
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task instanceof Deadline deadline && deadline.hasDueDate() && deadline.getRecurrence() == null
+                && !(this.IS_INCOMPLETE_ONLY && deadline.isCompleted())) {
+            this.DEADLINES.computeIfAbsent(deadline.getDueDay(), key -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        if (task instanceof Deadline deadline && deadline.hasDueDate() && deadline.getRecurrence() == null) {
+            LinkedHashSet<Task> sameDay = this.DEADLINES.get(deadline.getDueDay());
+            if (sameDay != null) {
+                sameDay.remove(task);
+                if (sameDay.isEmpty()) {
+                    this.DEADLINES.remove(deadline.getDueDay());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.DEADLINES.clear();
+    }
+
+    /**
+     * Updates the completion status of an indexed deadline, which only matters to an index of incomplete ones.
+     *
+     * @param task The task whose completion status has changed.
+     * @param isCompleted {@code true} if the task is now completed, {@code false} otherwise.
+     */
+    void setCompleted(Task task, boolean isCompleted) {
+        if (!this.IS_INCOMPLETE_ONLY) {
+            return;
+        }
+        if (isCompleted) {
+            this.remove(task);
+        } else {
+            this.add(task);
+        }
+    }
+
+    /**
+     * Finds the deadlines due within a range of dates.
+     *
+     * @param fromDay The epoch day of the earliest due date, inclusive.
+     * @param toDay The epoch day of the latest due date, inclusive.
+     * @return An {@code ArrayList} of the matching deadlines, ordered by due date.
+     */
+    ArrayList<Task> findDue(long fromDay, long toDay) {
+        ArrayList<Task> matches = new ArrayList<>();
+        if (fromDay > toDay) {
+            return matches;
+        }
+        for (LinkedHashSet<Task> sameDay : this.DEADLINES.subMap(fromDay, true, toDay, true).values()) {
+            matches.addAll(sameDay);
+        }
+        return matches;
+    }
+}
@@ -10,6 +10,8 @@ package nightcoder.task;
 public class Event extends Task {
     private final String START_TIME;
     private final String END_TIME;
+    private final long START_DAY; // Epoch day of START_TIME, or TaskDates.NO_DATE if it does not hold a date
+    private final long END_DAY; // Epoch day of END_TIME, or TaskDates.NO_DATE if it does not hold a date
 
     /**
      * Constructs a new Event task with the specified description, completion status, start time, and end time.
@@ -25,6 +27,8 @@ public class Event extends Task {
         assert endTime != null && !endTime.trim().isEmpty() : "Event endTime cannot be null or empty";
         this.START_TIME = startTime;
         this.END_TIME = endTime;
+        this.START_DAY = TaskDates.toEpochDay(startTime);
+        this.END_DAY = TaskDates.toEpochDay(endTime);
     }
 
     public String getStartTime() {
@@ -39,16 +43,49 @@ public class Event extends Task {
     }
 
     /**
-     * Returns a formatted string representation of the task.
+     * Checks whether both the start and the end of the event hold recognised dates.
      *
-     * @return A string formatted as "T|completion_status|description|start_time|end_time".
+     * @return {@code true} if the event has a start and an end date.
      */
-    public String getStringFormat() {
-        return "E|" + (isCompleted() ? "1" : "0") + "|" + getDescription() + "|" + getStartTime() + "|" + getEndTime();
+    public boolean hasDates() {
+        return this.START_DAY != TaskDates.NO_DATE && this.END_DAY != TaskDates.NO_DATE;
+    }
+
+    /**
+     * Returns the start date as a number of days since 1970-01-01.
+     *
+     * @return The epoch day of the start date, which is only meaningful if {@link #hasDates()} holds.
+     */
+    public long getStartDay() {
+        return this.START_DAY;
+    }
+
+    /**
+     * Returns the end date as a number of days since 1970-01-01.
+     *
+     * @return The epoch day of the end date, which is only meaningful if {@link #hasDates()} holds.
+     */
+    public long getEndDay() {
+        return this.END_DAY;
+    }
+
+    /**
+     * Materialises a single occurrence of a repeating event, which is not part of any task list.
+     *
+     * @param day The epoch day that the occurrence starts.
+     * @return An {@code Event} of the same length starting on that day, which is complete if the occurrence or
+     *     the event is.
+     */
+    Event occurrenceOn(long day) {
+        assert this.getRecurrence() != null && this.hasDates() : "Only repeating events have occurrences";
+        return new Event(this.getDescription(), this.isCompleted() || this.getRecurrence().isDone(day),
+                TaskDates.withDay(this.START_TIME, day),
+                TaskDates.withDay(this.END_TIME, day + this.END_DAY - this.START_DAY));
     }
 
     @Override
     public String toString() {
-        return "[E]" + super.toString() + " (From: " + this.START_TIME + ", To: " + this.END_TIME + ")";
+        return "[E]" + super.toString() + " (From: " + this.START_TIME + ", To: " + this.END_TIME + ")"
+                + this.formatRecurrence();
     }
 }
@@ -0,0 +1,216 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+/**
+ * Keeps dated events in an interval tree, so that the events overlapping a range of dates are found in logarithmic
+ * time plus the number of matches. The tree is a treap ordered by start date, in which every node also records the
+ * latest end date below it, so whole subtrees that end before the range can be skipped.
+ * Events are compared at the granularity of days, and an event covers both its start and its end date.
+ * Repeating events are kept by the {@code RecurrenceIndex} instead.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class IntervalTree implements TaskIndex {
+    /**
+     * Represents two events whose dates overlap, the first one starting no later than the second.
+     */
+    record Conflict(Event first, Event second) {
+    }
+
+    /**
+     * Represents a node of the treap, holding one event.
+     */
+    private static class Node {
+        private final Event EVENT;
+        private final long START_DAY;
+        private final long END_DAY;
+        private final long SEQUENCE; // Orders events that start on the same day
+        private final int PRIORITY;
+        private long maxEndDay;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, long sequence, int priority) {
+            this.EVENT = event;
+            this.START_DAY = Math.min(event.getStartDay(), event.getEndDay());
+            this.END_DAY = Math.max(event.getStartDay(), event.getEndDay());
+            this.SEQUENCE = sequence;
+            this.PRIORITY = priority;
+            this.maxEndDay = this.END_DAY;
+        }
+    }
+
+    private final IdentityHashMap<Task, Node> NODES = new IdentityHashMap<>();
+    private final Random RANDOM = new Random();
+    private Node root;
+    private long nextSequence = 0;
+
+    @Override
+    public void add(Task task) {
+        if (task instanceof Event event && event.hasDates() && event.getRecurrence() == null
+                && !this.NODES.containsKey(task)) {
+            Node node = new Node(event, this.nextSequence++, this.RANDOM.nextInt());
+            this.NODES.put(task, node);
+            this.root = IntervalTree.insert(this.root, node);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        Node node = this.NODES.remove(task);
+        if (node != null) {
+            this.root = IntervalTree.delete(this.root, node);
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.NODES.clear();
+        this.root = null;
+    }
+
+    /**
+     * Finds the events sharing at least one day with a range of dates.
+     *
+     * @param fromDay The epoch day of the start of the range, inclusive.
+     * @param toDay The epoch day of the end of the range, inclusive.
+     * @return An {@code ArrayList} of the overlapping events, ordered by start date.
+     */
+    ArrayList<Event> findOverlapping(long fromDay, long toDay) {
+        ArrayList<Node> nodes = new ArrayList<>();
+        IntervalTree.collect(this.root, fromDay, toDay, nodes);
+        ArrayList<Event> events = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            events.add(node.EVENT);
+        }
+        return events;
+    }
+
+    /**
+     * Finds every pair of overlapping events. Each event only looks for overlaps among the events starting on
+     * or after its start date, which costs one logarithmic search per event rather than one comparison per pair.
+     *
+     * @return An {@code ArrayList} of the conflicts, ordered by the start date of their first event.
+     */
+    ArrayList<Conflict> findConflicts() {
+        ArrayList<Conflict> conflicts = new ArrayList<>();
+        ArrayList<Node> ordered = new ArrayList<>(this.NODES.size());
+        IntervalTree.collect(this.root, Long.MIN_VALUE, Long.MAX_VALUE, ordered);
+        for (Node node : ordered) {
+            ArrayList<Node> overlapping = new ArrayList<>();
+            IntervalTree.collect(this.root, node.START_DAY, node.END_DAY, overlapping);
+            for (Node other : overlapping) {
+                if (IntervalTree.compare(other, node) > 0) {
+                    conflicts.add(new Conflict(node.EVENT, other.EVENT));
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Appends, in order of start date, the events below the given node that overlap the range.
+     */
+    private static void collect(Node node, long fromDay, long toDay, ArrayList<Node> output) {
+        if (node == null || node.maxEndDay < fromDay) {
+            return; // Every event below ends before the range starts
+        }
+        IntervalTree.collect(node.left, fromDay, toDay, output);
+        if (node.START_DAY > toDay) {
+            return; // This event, and every event to its right, starts after the range ends
+        }
+        if (node.END_DAY >= fromDay) {
+            output.add(node);
+        }
+        IntervalTree.collect(node.right, fromDay, toDay, output);
+    }
+
+    private static int compare(Node first, Node second) {
+        int byStart = Long.compare(first.START_DAY, second.START_DAY);
+        return byStart != 0 ? byStart : Long.compare(first.SEQUENCE, second.SEQUENCE);
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (IntervalTree.compare(node, root) < 0) {
+            root.left = IntervalTree.insert(root.left, node);
+            if (root.left.PRIORITY > root.PRIORITY) {
+                root = IntervalTree.rotateRight(root);
+            }
+        } else {
+            root.right = IntervalTree.insert(root.right, node);
+            if (root.right.PRIORITY > root.PRIORITY) {
+                root = IntervalTree.rotateLeft(root);
+            }
+        }
+        IntervalTree.update(root);
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        if (root == node) {
+            return IntervalTree.merge(root.left, root.right);
+        }
+        if (IntervalTree.compare(node, root) < 0) {
+            root.left = IntervalTree.delete(root.left, node);
+        } else {
+            root.right = IntervalTree.delete(root.right, node);
+        }
+        IntervalTree.update(root);
+        return root;
+    }
+
+    /**
+     * Joins two treaps, where every node of the first is ordered before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        if (first.PRIORITY > second.PRIORITY) {
+            first.right = IntervalTree.merge(first.right, second);
+            IntervalTree.update(first);
+            return first;
+        }
+        second.left = IntervalTree.merge(first, second.left);
+        IntervalTree.update(second);
+        return second;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        IntervalTree.update(node);
+        IntervalTree.update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        IntervalTree.update(node);
+        IntervalTree.update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.maxEndDay = node.END_DAY;
+        if (node.left != null) {
+            node.maxEndDay = Math.max(node.maxEndDay, node.left.maxEndDay);
+        }
+        if (node.right != null) {
+            node.maxEndDay = Math.max(node.maxEndDay, node.right.maxEndDay);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+/**
+ * Finds tasks whose descriptions share most of their words, such as "Submit Q3 report" and "submit the Q3 report",
+ * using MinHash signatures and locality-sensitive hashing.
+ * The words of a description are reduced to a signature of {@code SIGNATURE_LENGTH} minimum hashes, which is split
+ * into bands. Tasks that agree on every hash of at least one band share a bucket, and only tasks sharing a bucket
+ * with the description being checked are compared with it, so a lookup does not visit the whole list.
+ * Candidates are then confirmed by the Jaccard similarity of their sets of words.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class NearDuplicateIndex implements TaskIndex {
+    /** Least share of distinct words that two descriptions must have in common to count as near-duplicates. */
+    static final double SIMILARITY_THRESHOLD = 0.6;
+    private static final int BANDS = 8;
+    private static final int ROWS = 2; // Hashes per band
+    private static final int SIGNATURE_LENGTH = BANDS * ROWS;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final HashMap<Long, LinkedHashSet<Task>> BUCKETS = new HashMap<>();
+
+    @Override
+    public void add(Task task) {
+        long[] signature = NearDuplicateIndex.signatureOf(NearDuplicateIndex.wordsOf(task.getDescription()));
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            this.BUCKETS.computeIfAbsent(NearDuplicateIndex.bucketOf(signature, band), key -> new LinkedHashSet<>())
+                    .add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        long[] signature = NearDuplicateIndex.signatureOf(NearDuplicateIndex.wordsOf(task.getDescription()));
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long bucket = NearDuplicateIndex.bucketOf(signature, band);
+            LinkedHashSet<Task> tasks = this.BUCKETS.get(bucket);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    this.BUCKETS.remove(bucket);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.BUCKETS.clear();
+    }
+
+    /**
+     * Finds the indexed tasks whose description is a near-duplicate of the given one.
+     *
+     * @param description The description to be checked.
+     * @return An {@code ArrayList} of the near-duplicate tasks, in the order they were first met.
+     */
+    ArrayList<Task> findSimilar(String description) {
+        HashSet<String> words = NearDuplicateIndex.wordsOf(description);
+        long[] signature = NearDuplicateIndex.signatureOf(words);
+        LinkedHashSet<Task> candidates = new LinkedHashSet<>();
+        if (signature != null) {
+            for (int band = 0; band < BANDS; band++) {
+                LinkedHashSet<Task> tasks = this.BUCKETS.get(NearDuplicateIndex.bucketOf(signature, band));
+                if (tasks != null) {
+                    candidates.addAll(tasks);
+                }
+            }
+        }
+        ArrayList<Task> matches = new ArrayList<>();
+        for (Task candidate : candidates) {
+            if (NearDuplicateIndex.similarity(words, NearDuplicateIndex.wordsOf(candidate.getDescription()))
+                    >= SIMILARITY_THRESHOLD) {
+                matches.add(candidate);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the Jaccard similarity of two sets of words, being the share of distinct words they have in common.
+     *
+     * @param first The first set of words.
+     * @param second The second set of words.
+     * @return A similarity between 0, for no words in common, and 1, for the same words.
+     */
+    static double similarity(HashSet<String> first, HashSet<String> second) {
+        if (first.isEmpty() || second.isEmpty()) {
+            return 0;
+        }
+        int common = 0;
+        for (String word : first) {
+            if (second.contains(word)) {
+                common++;
+            }
+        }
+        return (double) common / (first.size() + second.size() - common);
+    }
+
+    /**
+     * Returns the distinct lower-cased words of a description.
+     *
+     * @param description The description to be split.
+     * @return A {@code HashSet} of its words.
+     */
+    static HashSet<String> wordsOf(String description) {
+        return new HashSet<>(WordIndex.tokenize(description));
+    }
+
+    /**
+     * Returns the MinHash signature of a set of words: for each of several hash functions, the least hash of any
+     * of the words.
+     *
+     * @param words The distinct words of a description.
+     * @return The signature, or {@code null} if there are no words.
+     */
+    private static long[] signatureOf(HashSet<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        long[] signature = new long[SIGNATURE_LENGTH];
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            long seed = (i + 1) * GOLDEN_GAMMA;
+            long min = Long.MAX_VALUE;
+            for (String word : words) {
+                min = Math.min(min, NearDuplicateIndex.mix(word.hashCode() ^ seed));
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    private static long bucketOf(long[] signature, int band) {
+        long bucket = band;
+        for (int row = 0; row < ROWS; row++) {
+            bucket = NearDuplicateIndex.mix(bucket * GOLDEN_GAMMA + signature[band * ROWS + row]);
+        }
+        return bucket;
+    }
+
+    /**
+     * Scrambles the bits of a value, as in the finaliser of SplitMix64, so that similar inputs hash far apart.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,245 @@
+package nightcoder.task;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Represents an immutable list that is changed by making a new version of it, such as the entries of a published
+ * snapshot. Like the {@code TaskSequence}, it is a treap keyed implicitly by position, but its nodes are never
+ * changed once made. Replacing, inserting or removing an element only copies the nodes on the path to it, which
+ * takes logarithmic time, and every other node is shared with the previous version. Earlier versions hence stay
+ * valid, and can be read from other threads without any lock.
+ *
+ * @param <E> The type of the elements.
+ * @author ShamanBenny
+ * @version 10
+ */
+final class PersistentSequence<E> extends AbstractList<E> {
+    /**
+     * Represents a node of the treap, holding one element.
+     */
+    private static final class Node<E> {
+        private final E ELEMENT;
+        private final int PRIORITY;
+        private final int SIZE;
+        private final Node<E> LEFT;
+        private final Node<E> RIGHT;
+
+        private Node(E element, int priority, Node<E> left, Node<E> right) {
+            this.ELEMENT = element;
+            this.PRIORITY = priority;
+            this.SIZE = 1 + PersistentSequence.sizeOf(left) + PersistentSequence.sizeOf(right);
+            this.LEFT = left;
+            this.RIGHT = right;
+        }
+
+        private Node<E> withChildren(Node<E> left, Node<E> right) {
+            return new Node<>(this.ELEMENT, this.PRIORITY, left, right);
+        }
+    }
+
+    /**
+     * Represents the two treaps produced by splitting one.
+     */
+    private record Split<E>(Node<E> first, Node<E> second) {
+    }
+
+    private final Node<E> ROOT;
+
+    private PersistentSequence(Node<E> root) {
+        this.ROOT = root;
+    }
+
+    /**
+     * Returns an empty sequence.
+     *
+     * @param <E> The type of the elements.
+     * @return A sequence without any element.
+     */
+    static <E> PersistentSequence<E> empty() {
+        return new PersistentSequence<>(null);
+    }
+
+    /**
+     * Returns a sequence of the given elements, in the same order. The treap is built in one pass over the elements,
+     * rather than by inserting them one at a time.
+     *
+     * @param elements The elements of the sequence.
+     * @param <E> The type of the elements.
+     * @return A sequence of the elements.
+     */
+    static <E> PersistentSequence<E> of(List<E> elements) {
+        int size = elements.size();
+        int[] priorities = ThreadLocalRandom.current().ints(size).toArray();
+        int[] lefts = new int[size];
+        int[] rights = new int[size];
+        Arrays.fill(lefts, -1);
+        Arrays.fill(rights, -1);
+        // The right spine of the treap built so far, whose priorities fall from the root downwards
+        int[] spine = new int[size];
+        int spineSize = 0;
+        for (int i = 0; i < size; i++) {
+            int last = -1;
+            while (spineSize > 0 && priorities[spine[spineSize - 1]] < priorities[i]) {
+                last = spine[--spineSize];
+            }
+            lefts[i] = last;
+            if (spineSize > 0) {
+                rights[spine[spineSize - 1]] = i;
+            }
+            spine[spineSize++] = i;
+        }
+        return new PersistentSequence<>(spineSize == 0 ? null
+                : PersistentSequence.build(elements, priorities, lefts, rights, spine[0]));
+    }
+
+    private static <E> Node<E> build(List<E> elements, int[] priorities, int[] lefts, int[] rights, int idx) {
+        if (idx < 0) {
+            return null;
+        }
+        return new Node<>(elements.get(idx), priorities[idx],
+                PersistentSequence.build(elements, priorities, lefts, rights, lefts[idx]),
+                PersistentSequence.build(elements, priorities, lefts, rights, rights[idx]));
+    }
+
+    @Override
+    public int size() {
+        return PersistentSequence.sizeOf(this.ROOT);
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, this.size());
+        Node<E> node = this.ROOT;
+        while (true) {
+            int leftSize = PersistentSequence.sizeOf(node.LEFT);
+            if (index < leftSize) {
+                node = node.LEFT;
+            } else if (index == leftSize) {
+                return node.ELEMENT;
+            } else {
+                index -= leftSize + 1;
+                node = node.RIGHT;
+            }
+        }
+    }
+
+    /**
+     * Walks the elements in order, taking O(1) per element on average, rather than looking each one up by position.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private final ArrayDeque<Node<E>> PATH = new ArrayDeque<>();
+            private Node<E> next = PersistentSequence.this.ROOT;
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null || !this.PATH.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                while (this.next != null) {
+                    this.PATH.push(this.next);
+                    this.next = this.next.LEFT;
+                }
+                if (this.PATH.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = this.PATH.pop();
+                this.next = node.RIGHT;
+                return node.ELEMENT;
+            }
+        };
+    }
+
+    /**
+     * Returns a new version of this sequence, with the element at the given position replaced.
+     *
+     * @param index The 0-based position of the element to be replaced.
+     * @param element The element to take its place.
+     * @return The new version of the sequence.
+     */
+    PersistentSequence<E> with(int index, E element) {
+        Objects.checkIndex(index, this.size());
+        return new PersistentSequence<>(PersistentSequence.replace(this.ROOT, index, element));
+    }
+
+    /**
+     * Returns a new version of this sequence, with an element inserted at the given position.
+     *
+     * @param index The 0-based position at which the element is inserted, which may be the size of the sequence.
+     * @param element The element to be inserted.
+     * @return The new version of the sequence.
+     */
+    PersistentSequence<E> inserting(int index, E element) {
+        Objects.checkIndex(index, this.size() + 1);
+        Split<E> split = PersistentSequence.split(this.ROOT, index);
+        Node<E> node = new Node<>(element, ThreadLocalRandom.current().nextInt(), null, null);
+        return new PersistentSequence<>(PersistentSequence.merge(PersistentSequence.merge(split.first(), node),
+                split.second()));
+    }
+
+    /**
+     * Returns a new version of this sequence, with the element at the given position removed.
+     *
+     * @param index The 0-based position of the element to be removed.
+     * @return The new version of the sequence.
+     */
+    PersistentSequence<E> without(int index) {
+        Objects.checkIndex(index, this.size());
+        Split<E> split = PersistentSequence.split(this.ROOT, index);
+        Split<E> rest = PersistentSequence.split(split.second(), 1);
+        return new PersistentSequence<>(PersistentSequence.merge(split.first(), rest.second()));
+    }
+
+    private static <E> Node<E> replace(Node<E> node, int index, E element) {
+        int leftSize = PersistentSequence.sizeOf(node.LEFT);
+        if (index < leftSize) {
+            return node.withChildren(PersistentSequence.replace(node.LEFT, index, element), node.RIGHT);
+        } else if (index == leftSize) {
+            return new Node<>(element, node.PRIORITY, node.LEFT, node.RIGHT);
+        }
+        return node.withChildren(node.LEFT, PersistentSequence.replace(node.RIGHT, index - leftSize - 1, element));
+    }
+
+    /**
+     * Splits a treap into its first {@code count} nodes and the rest, copying only the nodes along the split.
+     */
+    private static <E> Split<E> split(Node<E> node, int count) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        if (PersistentSequence.sizeOf(node.LEFT) >= count) {
+            Split<E> split = PersistentSequence.split(node.LEFT, count);
+            return new Split<>(split.first(), node.withChildren(split.second(), node.RIGHT));
+        }
+        Split<E> split = PersistentSequence.split(node.RIGHT, count - PersistentSequence.sizeOf(node.LEFT) - 1);
+        return new Split<>(node.withChildren(node.LEFT, split.first()), split.second());
+    }
+
+    /**
+     * Joins two treaps, placing every node of the first before every node of the second, copying only the nodes
+     * along the join.
+     */
+    private static <E> Node<E> merge(Node<E> first, Node<E> second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        if (first.PRIORITY > second.PRIORITY) {
+            return first.withChildren(first.LEFT, PersistentSequence.merge(first.RIGHT, second));
+        }
+        return second.withChildren(PersistentSequence.merge(first, second.LEFT), second.RIGHT);
+    }
+
+    private static int sizeOf(Node<?> node) {
+        return node == null ? 0 : node.SIZE;
+    }
+}
@@ -0,0 +1,210 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Represents the rule by which a deadline or an event repeats, such as every week until 2026-12-31.
+ * A repeating task is stored once, together with its rule, instead of once per occurrence. Occurrences are counted
+ * from the date of the task, and are only worked out, one at a time, for the window of days that is asked for.
+ * Completing a single occurrence records its day as an exception of the rule, rather than copying the task.
+ * A rule is encoded as "unit[ until yyyy-MM-dd][ done yyyy-MM-dd,...]", e.g. "week until 2026-12-31".
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+public class Recurrence {
+    private final ChronoUnit UNIT;
+    private final String UNIT_NAME;
+    private final long UNTIL_DAY; // Epoch day of the last possible occurrence, or TaskDates.NO_DATE if there is none
+    private final TreeSet<Long> DONE_DAYS = new TreeSet<>(); // Epoch days of the occurrences that were completed
+
+    private Recurrence(ChronoUnit unit, String unitName, long untilDay) {
+        this.UNIT = unit;
+        this.UNIT_NAME = unitName;
+        this.UNTIL_DAY = untilDay;
+    }
+
+    /**
+     * Parses a rule, as entered after "/every" or as stored in the tasks file.
+     *
+     * @param rule The rule, formatted as "day|week|month|year[ until yyyy-MM-dd][ done yyyy-MM-dd,...]".
+     * @return The {@code Recurrence} described by the rule.
+     * @throws IllegalArgumentException If the rule is not in that format.
+     */
+    public static Recurrence parse(String rule) throws IllegalArgumentException {
+        String[] words = rule.trim().toLowerCase().split("\\s+");
+        ChronoUnit unit = switch (words[0]) {
+            case "day" -> ChronoUnit.DAYS;
+            case "week" -> ChronoUnit.WEEKS;
+            case "month" -> ChronoUnit.MONTHS;
+            case "year" -> ChronoUnit.YEARS;
+            default -> throw new IllegalArgumentException("Invalid recurrence: " + rule);
+        };
+        int next = 1;
+        long untilDay = TaskDates.NO_DATE;
+        if (next + 1 < words.length && words[next].equals("until")) {
+            untilDay = Recurrence.parseDay(words[next + 1], rule);
+            next += 2;
+        }
+        Recurrence recurrence = new Recurrence(unit, words[0], untilDay);
+        if (next + 1 < words.length && words[next].equals("done")) {
+            for (String day : words[next + 1].split(",")) {
+                recurrence.DONE_DAYS.add(Recurrence.parseDay(day, rule));
+            }
+            next += 2;
+        }
+        if (next != words.length) {
+            throw new IllegalArgumentException("Invalid recurrence: " + rule);
+        }
+        return recurrence;
+    }
+
+    private static long parseDay(String day, String rule) throws IllegalArgumentException {
+        try {
+            return LocalDate.parse(day, TaskDates.INPUT_DATE_FORMAT).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid recurrence: " + rule);
+        }
+    }
+
+    /**
+     * Returns the rule as stored in the tasks file, including the occurrences that were completed.
+     *
+     * @return A string formatted as "unit[ until yyyy-MM-dd][ done yyyy-MM-dd,...]".
+     */
+    public String encode() {
+        StringBuilder output = new StringBuilder(this.UNIT_NAME);
+        if (this.UNTIL_DAY != TaskDates.NO_DATE) {
+            output.append(" until ").append(LocalDate.ofEpochDay(this.UNTIL_DAY).format(TaskDates.INPUT_DATE_FORMAT));
+        }
+        if (!this.DONE_DAYS.isEmpty()) {
+            // Functional Programming using Streams learnt from CS2030S
+            output.append(" done ").append(this.DONE_DAYS.stream()
+                    .map(day -> LocalDate.ofEpochDay(day).format(TaskDates.INPUT_DATE_FORMAT))
+                    .collect(Collectors.joining(",")));
+        }
+        return output.toString();
+    }
+
+    /**
+     * Returns the epoch day of the last possible occurrence.
+     *
+     * @return The epoch day, or {@link TaskDates#NO_DATE} if the task repeats forever.
+     */
+    long getUntilDay() {
+        return this.UNTIL_DAY;
+    }
+
+    /**
+     * Returns the days on which the task occurs within a window, one at a time and in order. Occurrences before
+     * the window are skipped in one step, rather than being stepped through.
+     *
+     * @param firstDay The epoch day of the first occurrence, being the date of the task.
+     * @param fromDay The epoch day that the window starts on, inclusive.
+     * @param toDay The epoch day that the window ends on, inclusive.
+     * @return An iterator over the epoch days of the occurrences within the window.
+     */
+    PrimitiveIterator.OfLong occurrences(long firstDay, long fromDay, long toDay) {
+        long lastDay = this.UNTIL_DAY == TaskDates.NO_DATE ? toDay : Math.min(toDay, this.UNTIL_DAY);
+        return new OccurrenceIterator(this.UNIT, firstDay, Math.max(firstDay, fromDay), lastDay);
+    }
+
+    /**
+     * Checks whether the task occurs on the given day.
+     *
+     * @param firstDay The epoch day of the first occurrence, being the date of the task.
+     * @param day The epoch day to check.
+     * @return {@code true} if one of the occurrences falls on that day.
+     */
+    boolean isOccurrence(long firstDay, long day) {
+        return this.occurrences(firstDay, day, day).hasNext();
+    }
+
+    /**
+     * Checks whether the occurrence on the given day was completed.
+     *
+     * @param day The epoch day of the occurrence.
+     * @return {@code true} if the occurrence was completed.
+     */
+    boolean isDone(long day) {
+        return this.DONE_DAYS.contains(day);
+    }
+
+    /**
+     * Records that the occurrence on the given day was completed, or takes that record back.
+     *
+     * @param day The epoch day of the occurrence.
+     * @param isDone {@code true} if the occurrence was completed, {@code false} otherwise.
+     */
+    void setDone(long day, boolean isDone) {
+        if (isDone) {
+            this.DONE_DAYS.add(day);
+        } else {
+            this.DONE_DAYS.remove(day);
+        }
+    }
+
+    /**
+     * Returns the rule as shown on a task.
+     *
+     * @return A string such as "Every week until Dec 31 2026".
+     */
+    @Override
+    public String toString() {
+        return "Every " + this.UNIT_NAME + (this.UNTIL_DAY == TaskDates.NO_DATE ? ""
+                : " until " + LocalDate.ofEpochDay(this.UNTIL_DAY).format(TaskDates.OUTPUT_DATE_FORMAT));
+    }
+
+    /**
+     * Works out the occurrences of a rule one at a time. Each occurrence is counted from the first one, rather than
+     * from the one before it, so that a task due on the 31st falls on the last day of shorter months and then
+     * returns to the 31st.
+     */
+    private static final class OccurrenceIterator implements PrimitiveIterator.OfLong {
+        private final ChronoUnit UNIT;
+        private final LocalDate FIRST;
+        private final long LAST_DAY;
+        private long count;
+        private long nextDay;
+
+        private OccurrenceIterator(ChronoUnit unit, long firstDay, long fromDay, long lastDay) {
+            this.UNIT = unit;
+            this.FIRST = LocalDate.ofEpochDay(firstDay);
+            this.LAST_DAY = lastDay;
+            if (fromDay > lastDay) {
+                this.nextDay = Long.MAX_VALUE; // The window is empty
+                return;
+            }
+            this.count = unit.between(this.FIRST, LocalDate.ofEpochDay(fromDay));
+            this.nextDay = this.dayOf(this.count);
+            while (this.nextDay < fromDay) {
+                this.nextDay = this.dayOf(++this.count);
+            }
+        }
+
+        private long dayOf(long count) {
+            return this.FIRST.plus(count, this.UNIT).toEpochDay();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextDay <= this.LAST_DAY;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long day = this.nextDay;
+            this.nextDay = this.dayOf(++this.count);
+            return day;
+        }
+    }
+}
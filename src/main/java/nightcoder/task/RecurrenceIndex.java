@@ -0,0 +1,141 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.PrimitiveIterator;
+
+/**
+ * Keeps the repeating deadlines and events, so that their occurrences within a window of days can be worked out
+ * when the window is asked for. Only the occurrences within the window are ever materialised, so a task that
+ * repeats every day for years costs no more than one that happens once. Repeating tasks are left out of the
+ * {@code DueDateIndex} and the {@code IntervalTree}, which only hold tasks that happen once.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class RecurrenceIndex implements TaskIndex {
+    /**
+     * Represents a task on one of the days that it takes place, being its due date for a deadline, or its start
+     * date for an event.
+     */
+    record Occurrence(Task task, long day) {
+        /**
+         * Checks whether the task, or this occurrence of it, has been completed.
+         */
+        boolean isCompleted() {
+            Recurrence recurrence = this.task.getRecurrence();
+            return this.task.isCompleted() || recurrence != null && recurrence.isDone(this.day);
+        }
+
+        /**
+         * Returns the task as it takes place on the day of this occurrence, which is the task itself if it only
+         * happens once.
+         */
+        Task materialise() {
+            if (this.task.getRecurrence() == null) {
+                return this.task;
+            } else if (this.task instanceof Deadline deadline) {
+                return deadline.occurrenceOn(this.day);
+            }
+            return ((Event) this.task).occurrenceOn(this.day);
+        }
+    }
+
+    private final LinkedHashSet<Task> RECURRING = new LinkedHashSet<>();
+
+    @Override
+    public void add(Task task) {
+        if (task.getRecurrence() != null) {
+            this.RECURRING.add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        this.RECURRING.remove(task);
+    }
+
+    @Override
+    public void clear() {
+        this.RECURRING.clear();
+    }
+
+    /**
+     * Finds the occurrences of the repeating tasks of the given type that take place within a window of days.
+     * An occurrence of an event takes place on every day from its start to its end.
+     *
+     * @param type The type of the tasks, being {@code Deadline.class} or {@code Event.class}.
+     * @param fromDay The epoch day that the window starts on, inclusive.
+     * @param toDay The epoch day that the window ends on, inclusive.
+     * @return An {@code ArrayList} of the occurrences, ordered by task and then by day.
+     */
+    ArrayList<Occurrence> findOccurrences(Class<? extends Task> type, long fromDay, long toDay) {
+        ArrayList<Occurrence> occurrences = new ArrayList<>();
+        for (Task task : this.RECURRING) {
+            if (!type.isInstance(task)) {
+                continue;
+            }
+            // Occurrences of an event that start before the window may still run into it
+            long startDay = fromDay == Long.MIN_VALUE ? fromDay : fromDay - RecurrenceIndex.spanOf(task);
+            PrimitiveIterator.OfLong days = task.getRecurrence().occurrences(RecurrenceIndex.firstDayOf(task),
+                    startDay, toDay);
+            while (days.hasNext()) {
+                occurrences.add(new Occurrence(task, days.nextLong()));
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Returns the repeating tasks of the given type, in the order they were added.
+     *
+     * @param type The type of the tasks, being {@code Deadline.class} or {@code Event.class}.
+     * @return An {@code ArrayList} of the repeating tasks.
+     */
+    ArrayList<Task> findRepeating(Class<? extends Task> type) {
+        ArrayList<Task> repeating = new ArrayList<>();
+        for (Task task : this.RECURRING) {
+            if (type.isInstance(task)) {
+                repeating.add(task);
+            }
+        }
+        return repeating;
+    }
+
+    /**
+     * Checks whether a task can repeat by the given rule, being a deadline with a due date or an event with dates
+     * that does not end before it starts, whose first occurrence is not after the last day of the rule.
+     *
+     * @param task The task that would repeat.
+     * @param recurrence The rule by which it would repeat.
+     * @return {@code true} if the task can repeat by the rule.
+     */
+    static boolean canRepeat(Task task, Recurrence recurrence) {
+        long firstDay = RecurrenceIndex.firstDayOf(task);
+        return firstDay != TaskDates.NO_DATE && RecurrenceIndex.spanOf(task) >= 0
+                && (recurrence.getUntilDay() == TaskDates.NO_DATE || recurrence.getUntilDay() >= firstDay);
+    }
+
+    /**
+     * Returns the epoch day of the first occurrence of a task, being the due date of a deadline or the start date
+     * of an event.
+     *
+     * @param task The task to be read.
+     * @return The epoch day, or {@link TaskDates#NO_DATE} if the task does not have a recognised date.
+     */
+    static long firstDayOf(Task task) {
+        if (task instanceof Deadline deadline && deadline.hasDueDate()) {
+            return deadline.getDueDay();
+        } else if (task instanceof Event event && event.hasDates()) {
+            return event.getStartDay();
+        }
+        return TaskDates.NO_DATE;
+    }
+
+    /**
+     * Returns the number of days from the start of an occurrence of a task to its end, which is 0 for a deadline.
+     */
+    private static long spanOf(Task task) {
+        return task instanceof Event event ? event.getEndDay() - event.getStartDay() : 0;
+    }
+}
@@ -0,0 +1,147 @@
+package nightcoder.task;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.PrimitiveIterator;
+
+/**
+ * Schedules a reminder for every incomplete deadline on the day it is due, and for every incomplete event on the
+ * day it starts, on a {@link TimingWheel}. Reminders are kept current as tasks are added, marked and removed,
+ * with each change taking O(1) however many reminders are pending.
+ * Tasks whose date is free text, such as "Tonight", or whose day has already passed, are not reminded of.
+ * The reminder of a task due today is given straight away if its time of day has already passed.
+ * A repeating task has one reminder at a time, for its next occurrence that has not been completed. Once that
+ * reminder is given, the one for the next occurrence after the current day is scheduled.
+ * Reminders fall due on whichever thread advances the index, hence every method is synchronised. Advancing also
+ * reads the tasks themselves, such as their rules, so the {@code TaskList} only advances it under its write lock.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class ReminderIndex implements TaskIndex {
+    /** Time of day at which reminders are given. */
+    static final LocalTime REMINDER_TIME = LocalTime.of(9, 0);
+    private static final long TICK_MILLIS = 1000;
+    private final ZoneId ZONE;
+    private final TimingWheel<Task> WHEEL;
+    private final IdentityHashMap<Task, TimingWheel.Timer<Task>> TIMERS = new IdentityHashMap<>();
+
+    /**
+     * Constructs a {@code ReminderIndex} with no reminders.
+     *
+     * @param zone The time zone in which due dates and the reminder time are read.
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     */
+    ReminderIndex(ZoneId zone, long nowMillis) {
+        this.ZONE = zone;
+        this.WHEEL = new TimingWheel<>(TICK_MILLIS, nowMillis);
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        this.schedule(task, this.today());
+    }
+
+    /**
+     * Schedules the reminder of a task, as long as it falls on or after the given day.
+     */
+    private void schedule(Task task, long fromDay) {
+        long day = ReminderIndex.reminderDayOf(task, fromDay);
+        if (task.isCompleted() || day == TaskDates.NO_DATE || day < fromDay || this.TIMERS.containsKey(task)) {
+            return;
+        }
+        long dueMillis = LocalDate.ofEpochDay(day).atTime(REMINDER_TIME).atZone(this.ZONE).toInstant().toEpochMilli();
+        this.TIMERS.put(task, this.WHEEL.schedule(task, dueMillis));
+    }
+
+    @Override
+    public synchronized void remove(Task task) {
+        TimingWheel.Timer<Task> timer = this.TIMERS.remove(task);
+        if (timer != null) {
+            this.WHEEL.cancel(timer);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (TimingWheel.Timer<Task> timer : this.TIMERS.values()) {
+            this.WHEEL.cancel(timer);
+        }
+        this.TIMERS.clear();
+    }
+
+    /**
+     * Cancels the reminder of a task that has been completed, or schedules it again once it is not.
+     *
+     * @param task The task whose completion status has changed.
+     * @param isCompleted {@code true} if the task is now completed, {@code false} otherwise.
+     */
+    synchronized void setCompleted(Task task, boolean isCompleted) {
+        if (isCompleted) {
+            this.remove(task);
+        } else {
+            this.add(task);
+        }
+    }
+
+    /**
+     * Returns the number of reminders still to be given.
+     *
+     * @return The number of pending reminders.
+     */
+    synchronized int size() {
+        return this.WHEEL.size();
+    }
+
+    /**
+     * Advances to the given time, and returns the tasks whose reminders have fallen due since.
+     *
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return An {@code ArrayList} of the tasks to remind about, in the order their reminders fell due.
+     */
+    synchronized ArrayList<Task> advanceTo(long nowMillis) {
+        ArrayList<Task> due = this.WHEEL.advanceTo(nowMillis);
+        long tomorrow = this.today() + 1;
+        for (Task task : due) {
+            this.TIMERS.remove(task);
+            if (task.getRecurrence() != null) {
+                this.schedule(task, tomorrow);
+            }
+        }
+        return due;
+    }
+
+    private long today() {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(this.WHEEL.getCurrentMillis()), this.ZONE).toEpochDay();
+    }
+
+    /**
+     * Returns the epoch day on which a task should be reminded of, being the due date of a deadline or the start
+     * date of an event. For a repeating task, it is the first occurrence from the given day on that has not been
+     * completed.
+     */
+    private static long reminderDayOf(Task task, long fromDay) {
+        long firstDay = TaskDates.NO_DATE;
+        if (task instanceof Deadline deadline && deadline.hasDueDate()) {
+            firstDay = deadline.getDueDay();
+        } else if (task instanceof Event event) {
+            firstDay = event.getStartDay();
+        }
+        Recurrence recurrence = task.getRecurrence();
+        if (recurrence == null || firstDay == TaskDates.NO_DATE) {
+            return firstDay;
+        }
+        PrimitiveIterator.OfLong days = recurrence.occurrences(firstDay, fromDay, Long.MAX_VALUE);
+        while (days.hasNext()) {
+            long day = days.nextLong();
+            if (!recurrence.isDone(day)) {
+                return day;
+            }
+        }
+        return TaskDates.NO_DATE;
+    }
+}
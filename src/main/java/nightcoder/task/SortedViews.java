@@ -0,0 +1,113 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+/**
+ * Keeps the tasks sorted in several orders at once, so that a sorted view is read off in order, rather than sorted
+ * again every time it is listed. Adding, marking or removing a task updates every view in logarithmic time.
+ * Every order falls back on the stable ID of a task, being the order in which tasks were first added, so no two
+ * tasks ever compare as equal.
+ * Orders only depend on values of a task that never change, apart from the order by status, which is kept as one
+ * set of incomplete tasks and one of completed tasks, so that a task is moved rather than re-sorted when marked.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class SortedViews implements TaskIndex {
+    private static final Comparator<Task> BY_ID = Comparator.comparingInt(Task::getId);
+    private final TreeSet<Task> BY_DUE = new TreeSet<>(
+            Comparator.comparingLong(SortedViews::dueDayOf).thenComparing(BY_ID));
+    private final TreeSet<Task> BY_TYPE = new TreeSet<>(
+            Comparator.comparingInt(SortedViews::typeRankOf).thenComparing(BY_ID));
+    private final TreeSet<Task> BY_NAME = new TreeSet<>(
+            Comparator.comparing(Task::getDescription, String.CASE_INSENSITIVE_ORDER).thenComparing(BY_ID));
+    private final TreeSet<Task> INCOMPLETE = new TreeSet<>(BY_ID);
+    private final TreeSet<Task> COMPLETED = new TreeSet<>(BY_ID);
+
+    @Override
+    public void add(Task task) {
+        this.BY_DUE.add(task);
+        this.BY_TYPE.add(task);
+        this.BY_NAME.add(task);
+        (task.isCompleted() ? this.COMPLETED : this.INCOMPLETE).add(task);
+    }
+
+    @Override
+    public void remove(Task task) {
+        this.BY_DUE.remove(task);
+        this.BY_TYPE.remove(task);
+        this.BY_NAME.remove(task);
+        this.INCOMPLETE.remove(task);
+        this.COMPLETED.remove(task);
+    }
+
+    @Override
+    public void clear() {
+        this.BY_DUE.clear();
+        this.BY_TYPE.clear();
+        this.BY_NAME.clear();
+        this.INCOMPLETE.clear();
+        this.COMPLETED.clear();
+    }
+
+    /**
+     * Moves a task to the part of the order by status that matches its new completion status.
+     *
+     * @param task The task whose completion status has changed.
+     * @param isCompleted {@code true} if the task is now completed, {@code false} otherwise.
+     */
+    void setCompleted(Task task, boolean isCompleted) {
+        if (this.INCOMPLETE.remove(task) | this.COMPLETED.remove(task)) {
+            (isCompleted ? this.COMPLETED : this.INCOMPLETE).add(task);
+        }
+    }
+
+    /**
+     * Returns the tasks in the given order.
+     *
+     * @param order One of "due", for the soonest due date or start first, "type", for to-dos, then deadlines, then
+     *     events, "status", for incomplete tasks first, or "name", for descriptions in alphabetical order.
+     * @return An {@code ArrayList} of the tasks in that order.
+     * @throws IllegalArgumentException If the order is not one of those above.
+     */
+    ArrayList<Task> view(String order) throws IllegalArgumentException {
+        switch (order) {
+        case "due":
+            return new ArrayList<>(this.BY_DUE);
+        case "type":
+            return new ArrayList<>(this.BY_TYPE);
+        case "name":
+            return new ArrayList<>(this.BY_NAME);
+        case "status":
+            ArrayList<Task> byStatus = new ArrayList<>(this.INCOMPLETE);
+            byStatus.addAll(this.COMPLETED);
+            return byStatus;
+        default:
+            throw new IllegalArgumentException("Unknown sort order: " + order);
+        }
+    }
+
+    /**
+     * Returns the epoch day that a task is due, or that it starts for an event.
+     * Tasks without a recognised date are sorted last.
+     */
+    private static long dueDayOf(Task task) {
+        if (task instanceof Deadline deadline && deadline.hasDueDate()) {
+            return deadline.getDueDay();
+        } else if (task instanceof Event event && event.hasDates()) {
+            return event.getStartDay();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static int typeRankOf(Task task) {
+        if (task instanceof Deadline) {
+            return 1;
+        } else if (task instanceof Event) {
+            return 2;
+        }
+        return 0;
+    }
+}
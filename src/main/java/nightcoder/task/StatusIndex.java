@@ -0,0 +1,132 @@
+package nightcoder.task;
+
+import java.util.BitSet;
+
+/**
+ * Keeps one bitmap of stable task IDs per task type and one for completed tasks, so that the tasks of a given
+ * type and completion status are found with a bitwise AND, without looking at any other task.
+ * Bitmaps are keyed by ID rather than by position, hence adding or removing a task never shifts any bits.
+ * The number of tasks of each type, and of those that are completed, is kept alongside, so counts take O(1).
+ * Completion statuses only reach the index through {@link #setCompleted(Task, boolean)}.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class StatusIndex implements TaskIndex {
+    private static final int TYPES = 3;
+    private final BitSet[] OF_TYPE = {new BitSet(), new BitSet(), new BitSet()}; // To-dos, deadlines and events
+    private final BitSet COMPLETED = new BitSet();
+    private final int[] TOTALS = new int[TYPES];
+    private final int[] COMPLETED_TOTALS = new int[TYPES];
+
+    @Override
+    public void add(Task task) {
+        int type = StatusIndex.typeOf(task.getClass());
+        this.OF_TYPE[type].set(task.getId());
+        this.TOTALS[type]++;
+        if (task.isCompleted()) {
+            this.COMPLETED.set(task.getId());
+            this.COMPLETED_TOTALS[type]++;
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        int type = StatusIndex.typeOf(task.getClass());
+        if (!this.OF_TYPE[type].get(task.getId())) {
+            return;
+        }
+        this.OF_TYPE[type].clear(task.getId());
+        this.TOTALS[type]--;
+        if (this.COMPLETED.get(task.getId())) {
+            this.COMPLETED.clear(task.getId());
+            this.COMPLETED_TOTALS[type]--;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int type = 0; type < TYPES; type++) {
+            this.OF_TYPE[type].clear();
+            this.TOTALS[type] = 0;
+            this.COMPLETED_TOTALS[type] = 0;
+        }
+        this.COMPLETED.clear();
+    }
+
+    /**
+     * Updates the completion status of an indexed task.
+     *
+     * @param task The task whose completion status has changed.
+     * @param isCompleted {@code true} if the task is now completed, {@code false} otherwise.
+     */
+    void setCompleted(Task task, boolean isCompleted) {
+        int type = StatusIndex.typeOf(task.getClass());
+        if (!this.OF_TYPE[type].get(task.getId()) || this.COMPLETED.get(task.getId()) == isCompleted) {
+            return;
+        }
+        this.COMPLETED.set(task.getId(), isCompleted);
+        this.COMPLETED_TOTALS[type] += isCompleted ? 1 : -1;
+    }
+
+    /**
+     * Finds the IDs of the tasks of a given type and completion status.
+     *
+     * @param type The class of the tasks to find, or {@code null} for tasks of any type.
+     * @param isCompleted {@code true} for completed tasks, {@code false} for incomplete ones,
+     *     or {@code null} for both.
+     * @return A new {@code BitSet} in which the IDs of the matching tasks are set.
+     */
+    BitSet find(Class<? extends Task> type, Boolean isCompleted) {
+        BitSet matches;
+        if (type != null) {
+            matches = (BitSet) this.OF_TYPE[StatusIndex.typeOf(type)].clone();
+        } else {
+            matches = new BitSet();
+            for (BitSet ofType : this.OF_TYPE) {
+                matches.or(ofType);
+            }
+        }
+        if (Boolean.TRUE.equals(isCompleted)) {
+            matches.and(this.COMPLETED);
+        } else if (Boolean.FALSE.equals(isCompleted)) {
+            matches.andNot(this.COMPLETED);
+        }
+        return matches;
+    }
+
+    /**
+     * Counts the tasks of a given type and completion status, without looking at any task.
+     *
+     * @param type The class of the tasks to count, or {@code null} for tasks of any type.
+     * @param isCompleted {@code true} for completed tasks, {@code false} for incomplete ones,
+     *     or {@code null} for both.
+     * @return The number of matching tasks.
+     */
+    int count(Class<? extends Task> type, Boolean isCompleted) {
+        if (type == null) {
+            int count = 0;
+            for (int i = 0; i < TYPES; i++) {
+                count += this.count(i, isCompleted);
+            }
+            return count;
+        }
+        return this.count(StatusIndex.typeOf(type), isCompleted);
+    }
+
+    private int count(int type, Boolean isCompleted) {
+        if (isCompleted == null) {
+            return this.TOTALS[type];
+        }
+        return isCompleted ? this.COMPLETED_TOTALS[type] : this.TOTALS[type] - this.COMPLETED_TOTALS[type];
+    }
+
+    private static int typeOf(Class<? extends Task> type) {
+        if (Deadline.class.isAssignableFrom(type)) {
+            return 1;
+        } else if (Event.class.isAssignableFrom(type)) {
+            return 2;
+        }
+        return 0;
+    }
+}
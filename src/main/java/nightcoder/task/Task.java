@@ -11,6 +11,8 @@ package nightcoder.task;
 public abstract class Task {
     private final String DESCRIPTION;
     private boolean isCompleted;
+    private int id = 0; // Stable ID that survives changes in position, 0 until one is assigned
+    private Recurrence recurrence = null; // Rule by which the task repeats, null if it only happens once
 
     /**
      * Constructs a new Task with the specified description and completion status.
@@ -25,7 +27,53 @@ public abstract class Task {
         assert this.DESCRIPTION.equals(description) : "Final DESCRIPTION should match the provided description";
     }
 
-    public abstract String getStringFormat();
+    /**
+     * Returns the stable ID of the task, which does not change when other tasks are added or removed.
+     *
+     * @return The ID of the task, or 0 if none has been assigned yet.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Assigns the stable ID of the task. IDs are assigned by the task list when a task is first added,
+     * and restored from storage when it is loaded.
+     *
+     * @param id The positive ID of the task.
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task ID should be positive";
+        this.id = id;
+    }
+
+    /**
+     * Returns the rule by which the task repeats.
+     *
+     * @return The {@code Recurrence} of the task, or {@code null} if it only happens once.
+     */
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    /**
+     * Sets the rule by which the task repeats. Only deadlines with a due date and events with dates repeat,
+     * and the rule should be set before the task is added to a task list.
+     *
+     * @param recurrence The {@code Recurrence} of the task.
+     */
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Returns the rule by which the task repeats, as shown at the end of the task.
+     *
+     * @return A string such as " (Every week)", or an empty string if the task only happens once.
+     */
+    protected String formatRecurrence() {
+        return this.recurrence == null ? "" : " (" + this.recurrence + ")";
+    }
 
     public String getDescription() {
         assert this.DESCRIPTION != null && !this.DESCRIPTION.trim().isEmpty()
@@ -0,0 +1,71 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts the dates shown on deadlines and events into epoch days, which can be compared and indexed cheaply.
+ * A date is recognised when the text is a date shown as "MMM dd yyyy", or starts with a date entered as
+ * "yyyy-MM-dd". Any other text, such as "Tonight", has no date.
+ * The class is designed as a utility class, hence it cannot be instantiated.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class TaskDates {
+    /** Epoch day of text that does not hold a recognised date. */
+    static final long NO_DATE = Long.MIN_VALUE;
+    static final DateTimeFormatter INPUT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    static final DateTimeFormatter OUTPUT_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private static final int INPUT_DATE_LENGTH = 10;
+
+    /**
+     * Prevents the instantiation of the {@code TaskDates} class.
+     *
+     * @throws UnsupportedOperationException If an attempt is made to instantiate this class.
+     */
+    private TaskDates() {
+        throw new UnsupportedOperationException("nightcoder.task.TaskDates class should not be instantiated.");
+    }
+
+    /**
+     * Returns the epoch day of the date held by the text.
+     *
+     * @param text The date as shown on a task, possibly followed by a time.
+     * @return The number of days since 1970-01-01, or {@link #NO_DATE} if the text does not hold a date.
+     */
+    static long toEpochDay(String text) {
+        // Cheap checks on the shape of the text come first, so that most text without a date never throws
+        if (text.length() >= INPUT_DATE_LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && (text.length() == INPUT_DATE_LENGTH || text.charAt(INPUT_DATE_LENGTH) == ' ')) {
+            return TaskDates.parse(text.substring(0, INPUT_DATE_LENGTH), INPUT_DATE_FORMAT);
+        } else if (text.indexOf(' ') == 3 && text.lastIndexOf(' ') == 6) {
+            return TaskDates.parse(text, OUTPUT_DATE_FORMAT);
+        }
+        return NO_DATE;
+    }
+
+    /**
+     * Returns the text with its date replaced by another, in the same format and keeping any time after it.
+     *
+     * @param text The date as shown on a task, which should hold a recognised date.
+     * @param day The epoch day of the new date.
+     * @return The text with the new date.
+     */
+    static String withDay(String text, long day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        if (text.charAt(4) == '-') {
+            return date.format(INPUT_DATE_FORMAT) + text.substring(INPUT_DATE_LENGTH);
+        }
+        return date.format(OUTPUT_DATE_FORMAT);
+    }
+
+    private static long parse(String text, DateTimeFormatter format) {
+        try {
+            return LocalDate.parse(text, format).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package nightcoder.task;
+
+/**
+ * Represents a secondary index over the tasks of a {@code TaskList}, such as one used to speed up searches.
+ * The task list keeps every registered index current by reporting each task that is added or removed.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+interface TaskIndex {
+    /**
+     * Adds a task to the index.
+     *
+     * @param task The task that was added to the list.
+     */
+    void add(Task task);
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task that was removed from the list.
+     */
+    void remove(Task task);
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear();
+}
@@ -2,40 +2,242 @@ package nightcoder.task;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import nightcoder.storage.Storage;
+import nightcoder.storage.StorageEngine;
+import nightcoder.storage.TaskArchive;
 import nightcoder.ui.Ui;
 
 /**
  * Represents the TaskList class that manages a collection of tasks, including To-Do tasks, Deadlines, and Events.
  * It supports adding, listing, and formatting tasks with associated dates.
  * The class interacts with storage object and UI class to persist and display tasks respectively.
+ * Once concurrent reads are enabled, every change must be made through {@link #write(Supplier)}, which serialises
+ * writers behind one lock and then publishes an immutable snapshot of the list. A plain listing reads the latest
+ * snapshot instead of the list itself, so it never waits for a writer or for its persistence. Filtered listings and
+ * keyword searches take the same lock instead, as the indices they look matches up in are not part of a snapshot.
  *
  * @author ShamanBenny
  * @version 10
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    /** Most tasks that the changes remembered for undo may touch in total, unless configured otherwise. */
+    public static final int DEFAULT_UNDO_LIMIT = 1000;
+    private static final String INVALID_RECURRENCE = """
+            [ Invalid Recurrence ]
+            Only deadlines and events dated as yyyy-MM-dd can repeat.
+            They must not start after the day they stop repeating, so double-check the "until" date!""";
+    private TaskSequence tasks; // Order-statistic tree, so positional lookups, inserts and removals take O(log n)
     private HashMap<String, Task> taskLookup; // HashMap for quick lookup for duplicate tasks
-    private final Storage storage;
-    private final DateTimeFormatter INPUT_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private final DateTimeFormatter OUTPUT_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd yyyy");
+    private final HashMap<Integer, Task> idLookup = new HashMap<>(); // HashMap for quick lookup by stable ID
+    private int nextId = 1;
+    private final StorageEngine storage;
+    private final TaskArchive archive; // Cold segment for completed tasks, null if archiving is disabled
+    private final WordIndex wordIndex = new WordIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final DueDateIndex dueDateIndex = new DueDateIndex();
+    private final DueDateIndex overdueIndex = new DueDateIndex(true); // Only the incomplete deadlines
+    private final IntervalTree eventIndex = new IntervalTree();
+    private final StatusIndex statusIndex = new StatusIndex();
+    private final SortedViews sortedViews = new SortedViews();
+    private final RecurrenceIndex recurrenceIndex = new RecurrenceIndex();
+    private NearDuplicateIndex nearDuplicateIndex; // Null unless near-duplicate warnings are enabled
+    private volatile ReminderIndex reminderIndex; // Null unless reminders are enabled, read by the reminder thread
+    private final ArrayList<TaskIndex> indices = new ArrayList<>(); // Secondary indices kept current on add and remove
+    private final UndoLog history; // Changes that can be undone and redone
+    private final ReentrantLock WRITE_LOCK = new ReentrantLock();
+    private final AtomicReference<TaskSnapshot> published = new AtomicReference<>(); // Null until enabled
+    private PersistentSequence<TaskSnapshot.Entry> entries; // Entries of the next snapshot, only kept once enabled
+    private long version = 0;
 
     /**
      * Constructs a TaskList with a given storage.
      *
      * @param storage The storage handler for tasks.
      */
-    public TaskList(Storage storage) {
-        this.tasks = new ArrayList<>();
+    public TaskList(StorageEngine storage) {
+        this(storage, null);
+    }
+
+    /**
+     * Constructs a TaskList with a given storage, and an archive that completed tasks can be moved into.
+     *
+     * @param storage The storage handler for tasks.
+     * @param archive The archive for completed tasks, or {@code null} to disable archiving.
+     */
+    public TaskList(StorageEngine storage, TaskArchive archive) {
+        this(storage, archive, TaskList.DEFAULT_UNDO_LIMIT);
+    }
+
+    /**
+     * Constructs a TaskList with a given storage and archive, remembering a bounded number of changes for undo.
+     *
+     * @param storage The storage handler for tasks.
+     * @param archive The archive for completed tasks, or {@code null} to disable archiving.
+     * @param undoLimit The most tasks that the changes remembered for undo may touch in total.
+     */
+    public TaskList(StorageEngine storage, TaskArchive archive, int undoLimit) {
+        this.tasks = new TaskSequence();
         this.taskLookup = new HashMap<>();
         this.storage = storage;
+        this.archive = archive;
+        this.history = new UndoLog(undoLimit);
+        this.indices.add(this.wordIndex);
+        this.indices.add(this.trigramIndex);
+        this.indices.add(this.dueDateIndex);
+        this.indices.add(this.overdueIndex);
+        this.indices.add(this.eventIndex);
+        this.indices.add(this.statusIndex);
+        this.indices.add(this.sortedViews);
+        this.indices.add(this.recurrenceIndex);
+    }
+
+    /**
+     * Lets the list be read from other threads while it is being changed. From then on, every change must be made
+     * through {@link #write(Supplier)}, and a plain listing reads the latest published snapshot.
+     */
+    public void enableConcurrentReads() {
+        this.WRITE_LOCK.lock();
+        try {
+            this.rebuildEntries();
+            this.publish();
+        } finally {
+            this.WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Makes a change to the list while holding the write lock, so that writers never overlap.
+     * Once concurrent reads are enabled, the list is then published as a new snapshot, hence readers only ever see
+     * changes that have finished, including any that were rolled back.
+     *
+     * @param change The change to be made, such as running a command.
+     * @param <T> The type of the result of the change.
+     * @return The result of the change.
+     */
+    public <T> T write(Supplier<T> change) {
+        this.WRITE_LOCK.lock();
+        try {
+            return change.get();
+        } finally {
+            if (this.entries != null) {
+                this.publish();
+            }
+            this.WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Warns about near-duplicates whenever a task is added, such as "submit the Q3 report" next to
+     * "Submit Q3 report". The signatures this needs are kept for every task from then on.
+     */
+    public void enableNearDuplicateWarnings() {
+        if (this.nearDuplicateIndex != null) {
+            return;
+        }
+        this.nearDuplicateIndex = new NearDuplicateIndex();
+        for (Task task : this.tasks) {
+            this.nearDuplicateIndex.add(task);
+        }
+        this.indices.add(this.nearDuplicateIndex);
+    }
+
+    /**
+     * Schedules a reminder for every incomplete deadline on the day it is due, and for every incomplete event on
+     * the day it starts. Reminders are kept current as tasks change, and are collected with
+     * {@link #getDueReminders(long)}. From then on, every change must be made through {@link #write(Supplier)},
+     * as reminders are collected from another thread under the same lock.
+     *
+     * @param zone The time zone in which dates are read.
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     */
+    public void enableReminders(ZoneId zone, long nowMillis) {
+        this.WRITE_LOCK.lock();
+        try {
+            if (this.reminderIndex != null) {
+                return;
+            }
+            ReminderIndex reminders = new ReminderIndex(zone, nowMillis);
+            for (Task task : this.tasks) {
+                reminders.add(task);
+            }
+            this.indices.add(reminders);
+            this.reminderIndex = reminders;
+        } finally {
+            this.WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the reminders that have fallen due since this was last called. This may be called from any thread,
+     * such as one that checks for reminders every second. The write lock is held throughout, as the tasks due are
+     * read, and their rules stepped through, while commands may be changing them.
+     *
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return The String messages of the reminders, in the order they fell due.
+     */
+    public List<String> getDueReminders(long nowMillis) {
+        ReminderIndex reminders = this.reminderIndex;
+        if (reminders == null) {
+            return List.of();
+        }
+        this.WRITE_LOCK.lock();
+        try {
+            // Functional Programming using Streams learnt from CS2030S
+            return reminders.advanceTo(nowMillis).stream()
+                    .map(task -> "[ Reminder! ]\n" + (task instanceof Event ? "Starting today: " : "Due today: ")
+                            + task + "\nYou've got this!")
+                    .toList();
+        } finally {
+            this.WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Reads the list while holding the write lock, for reads that look tasks up in the indices, which are only
+     * consistent between changes. Unlike {@link #write(Supplier)}, no snapshot is published afterwards.
+     */
+    private <T> T read(Supplier<T> query) {
+        this.WRITE_LOCK.lock();
+        try {
+            return query.get();
+        } finally {
+            this.WRITE_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the latest published snapshot of the list.
+     *
+     * @return The snapshot, or {@code null} if concurrent reads are not enabled.
+     */
+    TaskSnapshot getSnapshot() {
+        return this.published.get();
+    }
+
+    private void publish() {
+        this.version++;
+        this.published.set(new TaskSnapshot(this.version, this.entries));
+    }
+
+    private void rebuildEntries() {
+        // Functional Programming using Streams learnt from CS2030S
+        this.entries = PersistentSequence.of(this.tasks.stream()
+                .map(TaskSnapshot.Entry::of)
+                .toList());
     }
 
     /**
@@ -66,17 +268,115 @@ public class TaskList {
      */
     public Task remove(int index) {
         Task removedTask = this.tasks.remove(index);
-        this.taskLookup.remove(removedTask.getDescription().toLowerCase());
+        this.untrack(removedTask);
+        if (this.entries != null) {
+            this.entries = this.entries.without(index);
+        }
         return removedTask;
     }
 
+    /**
+     * Appends a task to the list, and adds it to the duplicate lookup and every index.
+     *
+     * @param task The task to be appended.
+     */
+    private void append(Task task) {
+        this.insert(this.tasks.size(), task);
+    }
+
+    /**
+     * Inserts a task into the list at the given index, and adds it to the duplicate lookup and every index.
+     * A task without a stable ID is assigned the next one.
+     *
+     * @param position The 0-based index at which the task is inserted.
+     * @param task The task to be inserted.
+     */
+    private void insert(int position, Task task) {
+        if (task.getId() == 0) {
+            task.setId(this.nextId);
+        }
+        this.nextId = Math.max(this.nextId, task.getId() + 1);
+        this.tasks.add(position, task);
+        if (this.entries != null) {
+            this.entries = this.entries.inserting(position, TaskSnapshot.Entry.of(task));
+        }
+        this.taskLookup.put(task.getDescription().toLowerCase(), task);
+        this.idLookup.put(task.getId(), task);
+        for (TaskIndex index : this.indices) {
+            index.add(task);
+        }
+    }
+
+    /**
+     * Removes a task that has already been taken out of the list from the duplicate lookup and every index.
+     *
+     * @param task The task that was removed.
+     */
+    private void untrack(Task task) {
+        this.taskLookup.remove(task.getDescription().toLowerCase());
+        this.idLookup.remove(task.getId());
+        for (TaskIndex index : this.indices) {
+            index.remove(task);
+        }
+    }
+
+    /**
+     * Returns the current 0-based index of a task in the list, in O(log n).
+     *
+     * @param task A task in the list.
+     * @return The index of the task.
+     */
+    private int positionOf(Task task) {
+        return this.tasks.indexOf(task);
+    }
+
+    /**
+     * Returns the current 1-based position of the task with the given stable ID.
+     *
+     * @param id The stable ID of the task.
+     * @return The position of the task, or 0 if no task in the list has that ID.
+     */
+    public int positionOfId(int id) {
+        Task task = this.idLookup.get(id);
+        return task == null ? 0 : this.positionOf(task) + 1;
+    }
+
     /**
      * Loads tasks from the storage file and converts them into {@code ArrayList<Task>}.
+     * Tasks saved before stable IDs were introduced, or sharing an ID with an earlier task, are given new IDs,
+     * and the tasks are then saved once so that the new IDs persist.
      */
     public void loadTasks() {
-        this.tasks = this.storage.loadTasks();
-        for (Task task : this.tasks) {
-            this.taskLookup.put(task.getDescription().toLowerCase(), task); // Populate HashMap
+        ArrayList<Task> loadedTasks = this.storage.loadTasks();
+        this.tasks.clear();
+        if (this.entries != null) {
+            this.entries = PersistentSequence.empty();
+        }
+        this.taskLookup.clear();
+        this.idLookup.clear();
+        for (TaskIndex index : this.indices) {
+            index.clear();
+        }
+        this.history.clear();
+        this.nextId = 1;
+        for (Task task : loadedTasks) {
+            this.nextId = Math.max(this.nextId, task.getId() + 1);
+        }
+
+        boolean isMigrated = false;
+        for (Task task : loadedTasks) {
+            if (task.getId() == 0 || this.idLookup.containsKey(task.getId())) {
+                task.setId(this.nextId);
+                isMigrated = true;
+            }
+            this.append(task); // Populate HashMap and indices
+        }
+        if (isMigrated) {
+            try {
+                this.storage.saveTasks(this.tasks);
+            } catch (IOException e) {
+                System.err.println("[ ERROR ] Error saving task IDs: " + e.getMessage());
+            }
         }
     }
 
@@ -91,13 +391,25 @@ public class TaskList {
         LocalDate output;
 
         try {
-            output = LocalDate.parse(input, INPUT_DATE_FORMAT);
-            return output.format(OUTPUT_DATE_FORMAT);
+            output = LocalDate.parse(input, TaskDates.INPUT_DATE_FORMAT);
+            return output.format(TaskDates.OUTPUT_DATE_FORMAT);
         } catch (DateTimeParseException e) {
             return input;
         }
     }
 
+    /**
+     * Checks whether a task with the same description, ignoring case, is either active or archived.
+     * The archive is only consulted when no active task matches.
+     *
+     * @param description The description of the task to be added.
+     * @return {@code true} if the task would be a duplicate.
+     */
+    private boolean isDuplicate(String description) {
+        return this.taskLookup.containsKey(description.toLowerCase())
+                || (this.archive != null && this.archive.containsDescription(description));
+    }
+
     /**
      * Adds a To Do to the list of tasks. By default, a newly added To Do is not completed.
      *
@@ -105,18 +417,20 @@ public class TaskList {
      * @return The String message indicating the attempt of adding the To Do task.
      */
     public String addToDo(String description) {
-        if (this.taskLookup.containsKey(description.toLowerCase())) {
+        if (this.isDuplicate(description)) {
             return "[ Duplicate Task ]\nTask already exists: " + description;
         }
 
+        String warning = this.getNearDuplicateWarning(description);
         Task task = new ToDo(description, false);
-        this.tasks.add(task);
-        this.taskLookup.put(description.toLowerCase(), task);
+        this.append(task);
+        this.recordAddition(task);
         try {
-            this.storage.appendTask("T|0|" + description);
-            return Ui.getTaskAdded(description, this.size());
+            this.storage.addTask(task);
+            return Ui.getTaskAdded(description, this.size(), task.getId()) + warning;
         } catch (IOException e) {
-            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e);
+            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e)
+                    + warning;
         }
     }
 
@@ -129,25 +443,45 @@ public class TaskList {
      * @return The String message indicating the attempt of adding the Deadline task.
      */
     public String addDeadline(String description, String dueBy) {
-        if (this.taskLookup.containsKey(description.toLowerCase())) {
+        return this.addDeadline(description, dueBy, null);
+    }
+
+    /**
+     * Adds a Deadline that may repeat to the list of tasks. A repeating deadline is stored once, together with
+     * its rule, and must be due on a date entered as "yyyy-MM-dd".
+     *
+     * @param description The description of the task to be added to the list.
+     * @param dueBy A string detailing when the task is due by.
+     * @param recurrence The rule by which the deadline repeats, or {@code null} if it is only due once.
+     * @return The String message indicating the attempt of adding the Deadline task.
+     */
+    public String addDeadline(String description, String dueBy, Recurrence recurrence) {
+        if (this.isDuplicate(description)) {
             return "[ Duplicate Task ]\nTask already exists: " + description;
         }
 
         String parsedDueBy = parseDate(dueBy);
         Task task = new Deadline(description, false, parsedDueBy);
-        this.tasks.add(task);
-        this.taskLookup.put(description.toLowerCase(), task);
+        if (recurrence != null && !RecurrenceIndex.canRepeat(task, recurrence)) {
+            return INVALID_RECURRENCE;
+        }
+        task.setRecurrence(recurrence);
+        String warning = this.getNearDuplicateWarning(description);
+        this.append(task);
+        this.recordAddition(task);
         try {
-            this.storage.appendTask("D|0|" + description + "|" + parsedDueBy);
-            return Ui.getTaskAdded(description, this.size());
+            this.storage.addTask(task);
+            return Ui.getTaskAdded(description, this.size(), task.getId()) + warning;
         } catch (IOException e) {
-            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e);
+            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e)
+                    + warning;
         }
     }
 
     /**
      * Adds an Event to the list of tasks. By default, a newly added event is not completed.
-     * Requires information on start and end time.
+     * Requires information on start and end time. If the event shares a day with any other event,
+     * the message also warns about the overlap, although the event is still added.
      *
      * @param description The description of the task to be added to the list.
      * @param startTime A string detailing when the event starts.
@@ -155,23 +489,125 @@ public class TaskList {
      * @return The String message indicating the attempt of adding the Event task.
      */
     public String addEvent(String description, String startTime, String endTime) {
-        if (this.taskLookup.containsKey(description.toLowerCase())) {
+        return this.addEvent(description, startTime, endTime, null);
+    }
+
+    /**
+     * Adds an Event that may repeat to the list of tasks. A repeating event is stored once, together with its
+     * rule, and must start and end on dates entered as "yyyy-MM-dd". Repeating events are not checked for overlaps.
+     *
+     * @param description The description of the task to be added to the list.
+     * @param startTime A string detailing when the event starts.
+     * @param endTime A string detailing when the event ends.
+     * @param recurrence The rule by which the event repeats, or {@code null} if it only happens once.
+     * @return The String message indicating the attempt of adding the Event task.
+     */
+    public String addEvent(String description, String startTime, String endTime, Recurrence recurrence) {
+        if (this.isDuplicate(description)) {
             return "[ Duplicate Task ]\nTask already exists: " + description;
         }
 
         String parsedStartTime = parseDate(startTime);
         String parsedEndTime = parseDate(endTime);
-        Task task = new Event(description, false, parsedStartTime, parsedEndTime);
-        this.tasks.add(task);
-        this.taskLookup.put(description.toLowerCase(), task);
+        Event task = new Event(description, false, parsedStartTime, parsedEndTime);
+        if (recurrence != null && !RecurrenceIndex.canRepeat(task, recurrence)) {
+            return INVALID_RECURRENCE;
+        }
+        task.setRecurrence(recurrence);
+        String nearDuplicateWarning = this.getNearDuplicateWarning(description);
+        this.append(task);
+        this.recordAddition(task);
+        String warning = nearDuplicateWarning + this.getOverlapWarning(task);
         try {
-            this.storage.appendTask("E|0|" + description + "|" + parsedStartTime + "|" + parsedEndTime);
-            return Ui.getTaskAdded(description, this.size());
+            this.storage.addTask(task);
+            return Ui.getTaskAdded(description, this.size(), task.getId()) + warning;
         } catch (IOException e) {
-            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e);
+            return "[ Task #" + this.size() + " Added: " + description + " ]\n" + Ui.getErrorUpdatingTasksFile(e)
+                    + warning;
         }
     }
 
+    /**
+     * Returns a warning listing the tasks that are near-duplicates of a task about to be added.
+     *
+     * @param description The description of the task about to be added.
+     * @return The String warning, starting on a new paragraph, or an empty string if warnings are disabled
+     *     or nothing is similar.
+     */
+    private String getNearDuplicateWarning(String description) {
+        if (this.nearDuplicateIndex == null) {
+            return "";
+        }
+        ArrayList<Task> similar = this.nearDuplicateIndex.findSimilar(description);
+        if (similar.isEmpty()) {
+            return "";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return "\n\n[ Possible Duplicate! ]\nThis looks a lot like:\n" + similar.stream()
+                .map(this::positionOf)
+                .sorted()
+                .map(idx -> (idx + 1) + "." + this.tasks.get(idx))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Returns a warning listing the other events, and occurrences of repeating events, that share a day with the
+     * given event.
+     *
+     * @param event The event that was just added.
+     * @return The String warning, starting on a new paragraph, or an empty string if nothing overlaps.
+     */
+    private String getOverlapWarning(Event event) {
+        if (!event.hasDates()) {
+            return "";
+        }
+        ArrayList<RecurrenceIndex.Occurrence> overlapping = this.findOverlapping(event);
+        if (overlapping.isEmpty()) {
+            return "";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return "\n\n[ Heads Up! ]\nThis event overlaps with:\n" + overlapping.stream()
+                .map(other -> (this.positionOf(other.task()) + 1) + "." + other.materialise())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Finds the events that share at least one day with an event, as events that happen once or as occurrences of
+     * repeating events. A repeating event is checked against events that happen once through all of its
+     * occurrences, but against other repeating events only through its first occurrence, so that rules which
+     * repeat forever are never stepped through to their end.
+     *
+     * @param event The event to check, which must have dates.
+     * @return An {@code ArrayList} of the overlapping events and occurrences, events that happen once first.
+     */
+    private ArrayList<RecurrenceIndex.Occurrence> findOverlapping(Event event) {
+        long fromDay = Math.min(event.getStartDay(), event.getEndDay());
+        long toDay = Math.max(event.getStartDay(), event.getEndDay());
+        long span = toDay - fromDay;
+        Recurrence recurrence = event.getRecurrence();
+        long lastDay = toDay;
+        if (recurrence != null) {
+            lastDay = recurrence.getUntilDay() == TaskDates.NO_DATE ? Long.MAX_VALUE : recurrence.getUntilDay() + span;
+        }
+
+        ArrayList<RecurrenceIndex.Occurrence> overlapping = new ArrayList<>();
+        for (Event other : this.eventIndex.findOverlapping(fromDay, lastDay)) {
+            long otherFromDay = Math.min(other.getStartDay(), other.getEndDay());
+            long otherToDay = Math.max(other.getStartDay(), other.getEndDay());
+            if (other != event && (recurrence == null
+                    || recurrence.occurrences(fromDay, otherFromDay - span, otherToDay).hasNext())) {
+                overlapping.add(new RecurrenceIndex.Occurrence(other, other.getStartDay()));
+            }
+        }
+        for (RecurrenceIndex.Occurrence occurrence : this.recurrenceIndex.findOccurrences(Event.class, fromDay,
+                toDay)) {
+            if (occurrence.task() != event) {
+                overlapping.add(occurrence);
+            }
+        }
+        return overlapping;
+    }
+
     /**
      * Displays the list of tasks currently stored along with their indices.
      * If the list is empty, a message indicating no tasks are available is shown.
@@ -179,6 +615,10 @@ public class TaskList {
      * @return The String message of the list of tasks along with their indices.
      */
     public String listTasks() {
+        TaskSnapshot snapshot = this.published.get();
+        if (snapshot != null) {
+            return TaskList.formatSnapshot(snapshot);
+        }
         if (this.tasks.isEmpty()) {
             return "[ Your To-Do List is Empty! ]\n"
                     + "Looks like we're starting with a clean slate. What shall we tackle first?";
@@ -189,40 +629,830 @@ public class TaskList {
                 .collect(Collectors.joining("\n"));
     }
 
+    /**
+     * Displays the tasks of a given type and completion status along with their indices.
+     * Matches are found by combining the bitmaps of the status index, so no other task is looked at.
+     * Once concurrent reads are enabled, this waits for any change in progress, rather than scanning a snapshot.
+     *
+     * @param type The class of the tasks to list, or {@code null} for tasks of any type.
+     * @param isCompleted {@code true} for completed tasks, {@code false} for incomplete ones,
+     *     or {@code null} for both.
+     * @return The String message of the list of matching tasks along with their indices.
+     */
+    public String listTasks(Class<? extends Task> type, Boolean isCompleted) {
+        return this.read(() -> this.listMatching(type, isCompleted));
+    }
+
+    private String listMatching(Class<? extends Task> type, Boolean isCompleted) {
+        if (this.tasks.isEmpty()) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        BitSet ids = this.statusIndex.find(type, isCompleted);
+        if (ids.isEmpty()) {
+            return "[ No match found! ]\nNone of your tasks fit that filter. Anything else?";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return ids.stream()
+                .map(id -> this.positionOf(this.idLookup.get(id)))
+                .sorted()
+                .mapToObj(idx -> (idx + 1) + "." + this.tasks.get(idx))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Displays every task in the given order, read off a view that is kept sorted as tasks change.
+     * Each task is shown with its position in the list, so the numbers can be used with "mark" and "delete".
+     *
+     * @param order One of "due", "type", "status" or "name".
+     * @return The String message of the sorted list of tasks along with their indices.
+     * @throws IllegalArgumentException If the order is not one of those above.
+     */
+    public String listTasksSortedBy(String order) throws IllegalArgumentException {
+        ArrayList<Task> sorted = this.sortedViews.view(order);
+        if (sorted.isEmpty()) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return sorted.stream()
+                .map(task -> (this.positionOf(task) + 1) + "." + task)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Summarises how many tasks of each type there are, and how many of them are done.
+     * Every count is kept current by the status index, so no task is looked at.
+     *
+     * @return The String message of the task counts.
+     */
+    public String getStats() {
+        int total = this.statusIndex.count(null, null);
+        int done = this.statusIndex.count(null, true);
+        if (total == 0) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        return "[ Task Stats ]\n"
+                + "Total: " + total + " (" + done + " done, " + (total - done) + " to go)\n"
+                + "To-Dos: " + this.formatCount(ToDo.class) + "\n"
+                + "Deadlines: " + this.formatCount(Deadline.class) + "\n"
+                + "Events: " + this.formatCount(Event.class) + "\n"
+                + "You're " + (done * 100 / total) + "% of the way there. Keep it up!";
+    }
+
+    private String formatCount(Class<? extends Task> type) {
+        return this.statusIndex.count(type, null) + " (" + this.statusIndex.count(type, true) + " done)";
+    }
+
     /**
      * Displays the list of tasks currently stored along with their indices containing the specific keyword.
      * If the list is empty, a message indicating no tasks are available is shown.
+     * Matches are found through {@link #findIndices(String)}.
+     * Once concurrent reads are enabled, this waits for any change in progress, rather than scanning a snapshot.
      *
      * @return The String message of the list of tasks along with their indices.
      */
     public String listTasks(String keyword) {
+        return this.read(() -> this.listMatching(keyword));
+    }
+
+    private String listMatching(String keyword) {
         if (this.tasks.isEmpty()) {
             return "[ Your To-Do List is Empty! ]\n"
                     + "Looks like we're starting with a clean slate. What shall we tackle first?";
         }
         // Functional Programming using Streams learnt from CS2030S
-        String result = IntStream.range(0, tasks.size())
-                .filter(idx -> tasks.get(idx).getDescription().toLowerCase().contains(keyword.toLowerCase()))
-                .mapToObj(idx -> (idx + 1) + "." + tasks.get(idx))
+        String result = this.findIndices(keyword).stream()
+                .map(idx -> (idx + 1) + "." + tasks.get(idx))
                 .collect(Collectors.joining("\n"));
         return result.isEmpty()
                 ? "[ No match found! ]\nLooks like the tasks you're trying to find doesn't exist. Anything else?"
                 : result;
     }
 
+    /**
+     * Formats every task of a snapshot along with its number.
+     *
+     * @param snapshot The snapshot to read the tasks from.
+     * @return The String message of the list of tasks along with their indices.
+     */
+    private static String formatSnapshot(TaskSnapshot snapshot) {
+        if (snapshot.size() == 0) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return IntStream.range(0, snapshot.size())
+                .mapToObj(idx -> (idx + 1) + "." + snapshot.getLine(idx))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Returns the indices of the tasks whose description contains the specific keyword, ignoring case.
+     * Keywords of at least three characters are looked up in the trigram index, while shorter ones are matched
+     * against every task.
+     *
+     * @param keyword The keyword to look for.
+     * @return The 0-based indices of the matching tasks, in ascending order.
+     */
+    public List<Integer> findIndices(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (lowerKeyword.length() >= TrigramIndex.GRAM_LENGTH) {
+            // Functional Programming using Streams learnt from CS2030S
+            return this.trigramIndex.search(lowerKeyword).stream()
+                    .map(this::positionOf)
+                    .sorted()
+                    .toList();
+        }
+        return IntStream.range(0, tasks.size())
+                .filter(idx -> tasks.get(idx).getDescription().toLowerCase().contains(lowerKeyword))
+                .boxed()
+                .toList();
+    }
+
+    /**
+     * Displays the tasks whose description contains every word of the query as a whole word, ignoring case.
+     * Matches are found through the word index, without scanning the whole list.
+     *
+     * @param query The words to look for, in any order.
+     * @param isRanked {@code true} to list tasks in which the words appear more often first,
+     *     {@code false} to keep the order of the list.
+     * @return The String message of the list of matching tasks along with their indices.
+     */
+    public String listTasksWithWords(String query, boolean isRanked) {
+        if (this.tasks.isEmpty()) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        HashMap<Task, Integer> matches = this.wordIndex.search(query);
+        if (matches.isEmpty()) {
+            return "[ No match found! ]\nLooks like the tasks you're trying to find doesn't exist. Anything else?";
+        }
+
+        Comparator<Task> byPosition = Comparator.comparingInt(this::positionOf);
+        Comparator<Task> byFrequency = Comparator.comparing(matches::get, Comparator.reverseOrder());
+        // Functional Programming using Streams learnt from CS2030S
+        return matches.keySet().stream()
+                .sorted(isRanked ? byFrequency.thenComparing(byPosition) : byPosition)
+                .map(task -> (this.positionOf(task) + 1) + "." + task)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Displays the tasks whose description contains words similar to every word of the query, so that typos
+     * still find what was meant. Closer matches are listed first.
+     *
+     * @param query The possibly misspelt words to look for, in any order.
+     * @return The String message of the list of matching tasks along with their indices.
+     */
+    public String listSimilarTasks(String query) {
+        if (this.tasks.isEmpty()) {
+            return "[ Your To-Do List is Empty! ]\n"
+                    + "Looks like we're starting with a clean slate. What shall we tackle first?";
+        }
+        HashMap<Task, Integer> matches = this.wordIndex.searchSimilar(query);
+        if (matches.isEmpty()) {
+            return "[ No match found! ]\nLooks like the tasks you're trying to find doesn't exist. Anything else?";
+        }
+
+        Comparator<Task> byDistance = Comparator.comparing(matches::get);
+        // Functional Programming using Streams learnt from CS2030S
+        return matches.keySet().stream()
+                .sorted(byDistance.thenComparingInt(this::positionOf))
+                .map(task -> (this.positionOf(task) + 1) + "." + task)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Displays the deadlines due strictly before the given date, ordered by due date.
+     * Deadlines whose due date is free text, such as "Tonight", are never listed.
+     * Every occurrence of a repeating deadline before that date is listed under the number of the deadline.
+     *
+     * @param date The date that the deadlines must be due before.
+     * @return The String message of the list of matching deadlines along with their indices.
+     */
+    public String listTasksDueBefore(LocalDate date) {
+        return this.formatDeadlines(this.findDeadlines(Long.MIN_VALUE, date.toEpochDay() - 1),
+                "[ Nothing Due! ]\nNo deadlines fall before that date. Enjoy the breathing room!");
+    }
+
+    /**
+     * Displays the deadlines due between two dates, both inclusive, ordered by due date.
+     * Deadlines whose due date is free text, such as "Tonight", are never listed.
+     * Every occurrence of a repeating deadline between those dates is listed under the number of the deadline.
+     *
+     * @param from The earliest due date to list.
+     * @param to The latest due date to list.
+     * @return The String message of the list of matching deadlines along with their indices.
+     */
+    public String listTasksDueBetween(LocalDate from, LocalDate to) {
+        return this.formatDeadlines(this.findDeadlines(from.toEpochDay(), to.toEpochDay()),
+                "[ Nothing Due! ]\nNo deadlines fall between those dates. Enjoy the breathing room!");
+    }
+
+    /**
+     * Displays the incomplete deadlines that were due before today, ordered by due date.
+     * Every occurrence of a repeating deadline that was due before today and has not been completed is listed.
+     * Deadlines that happen once are found in an index of the incomplete ones, so completed deadlines, however many
+     * have piled up, are never looked at.
+     *
+     * @param today The current date.
+     * @return The String message of the list of overdue deadlines along with their indices.
+     */
+    public String listOverdueTasks(LocalDate today) {
+        long yesterday = today.toEpochDay() - 1;
+        ArrayList<RecurrenceIndex.Occurrence> overdue = new ArrayList<>();
+        for (Task task : this.overdueIndex.findDue(Long.MIN_VALUE, yesterday)) {
+            overdue.add(new RecurrenceIndex.Occurrence(task, ((Deadline) task).getDueDay()));
+        }
+        ArrayList<RecurrenceIndex.Occurrence> occurrences = this.recurrenceIndex.findOccurrences(Deadline.class,
+                Long.MIN_VALUE, yesterday);
+        occurrences.removeIf(RecurrenceIndex.Occurrence::isCompleted);
+        overdue.addAll(occurrences);
+        return this.formatDeadlines(overdue, "[ Nothing Overdue! ]\nYou're all caught up. Keep the momentum going!");
+    }
+
+    /**
+     * Finds the deadlines due within a range of dates, together with the occurrences of repeating deadlines that
+     * are due within it. Occurrences outside of the range are never worked out.
+     */
+    private ArrayList<RecurrenceIndex.Occurrence> findDeadlines(long fromDay, long toDay) {
+        ArrayList<RecurrenceIndex.Occurrence> deadlines = new ArrayList<>();
+        for (Task task : this.dueDateIndex.findDue(fromDay, toDay)) {
+            deadlines.add(new RecurrenceIndex.Occurrence(task, ((Deadline) task).getDueDay()));
+        }
+        deadlines.addAll(this.recurrenceIndex.findOccurrences(Deadline.class, fromDay, toDay));
+        return deadlines;
+    }
+
+    private String formatDeadlines(ArrayList<RecurrenceIndex.Occurrence> deadlines, String emptyMessage) {
+        if (deadlines.isEmpty()) {
+            return emptyMessage;
+        }
+        Comparator<RecurrenceIndex.Occurrence> byDueDay = Comparator.comparingLong(RecurrenceIndex.Occurrence::day);
+        // Functional Programming using Streams learnt from CS2030S
+        return deadlines.stream()
+                .sorted(byDueDay.thenComparingInt(occurrence -> this.positionOf(occurrence.task())))
+                .map(occurrence -> (this.positionOf(occurrence.task()) + 1) + "." + occurrence.materialise())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Displays every pair of events that share at least one day, ordered by the start date of the earlier event.
+     * Occurrences of repeating events are listed against every event that happens once and runs into them, and
+     * against the first occurrence of every other repeating event.
+     * Events whose start or end is free text, such as "Tonight", are never listed.
+     *
+     * @return The String message of the list of conflicting events along with their indices.
+     */
+    public String listConflicts() {
+        ArrayList<RecurrenceIndex.Occurrence[]> conflicts = new ArrayList<>();
+        for (IntervalTree.Conflict conflict : this.eventIndex.findConflicts()) {
+            conflicts.add(new RecurrenceIndex.Occurrence[] {
+                new RecurrenceIndex.Occurrence(conflict.first(), conflict.first().getStartDay()),
+                new RecurrenceIndex.Occurrence(conflict.second(), conflict.second().getStartDay()),
+            });
+        }
+        for (Event event : this.eventIndex.findOverlapping(Long.MIN_VALUE, Long.MAX_VALUE)) {
+            long fromDay = Math.min(event.getStartDay(), event.getEndDay());
+            long toDay = Math.max(event.getStartDay(), event.getEndDay());
+            for (RecurrenceIndex.Occurrence occurrence : this.recurrenceIndex.findOccurrences(Event.class, fromDay,
+                    toDay)) {
+                conflicts.add(this.inDayOrder(new RecurrenceIndex.Occurrence(event, event.getStartDay()),
+                        occurrence));
+            }
+        }
+        for (Task task : this.recurrenceIndex.findRepeating(Event.class)) {
+            Event event = (Event) task;
+            RecurrenceIndex.Occurrence first = new RecurrenceIndex.Occurrence(event, event.getStartDay());
+            for (RecurrenceIndex.Occurrence occurrence : this.recurrenceIndex.findOccurrences(Event.class,
+                    event.getStartDay(), event.getEndDay())) {
+                Event other = (Event) occurrence.task();
+                // Two first occurrences that overlap are only listed once, from the repeating event added first
+                boolean isFirstOccurrence = occurrence.day() == other.getStartDay();
+                if (other != event && !(isFirstOccurrence && this.positionOf(other) < this.positionOf(event))) {
+                    conflicts.add(this.inDayOrder(occurrence, first));
+                }
+            }
+        }
+        if (conflicts.isEmpty()) {
+            return "[ No Conflicts! ]\nYour schedule is clash-free. Smooth sailing ahead!";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return "[ Conflicts Found: " + conflicts.size() + " ]\n" + conflicts.stream()
+                .sorted(Comparator.comparingLong(conflict -> conflict[0].day()))
+                .map(conflict -> (this.positionOf(conflict[0].task()) + 1) + "." + conflict[0].materialise() + " <-> "
+                        + (this.positionOf(conflict[1].task()) + 1) + "." + conflict[1].materialise())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Returns two occurrences as a conflict, the one that starts earlier first, or the one listed first if both
+     * start on the same day.
+     */
+    private RecurrenceIndex.Occurrence[] inDayOrder(RecurrenceIndex.Occurrence first,
+            RecurrenceIndex.Occurrence second) {
+        boolean isSecondEarlier = second.day() < first.day() || second.day() == first.day()
+                && this.positionOf(second.task()) < this.positionOf(first.task());
+        return isSecondEarlier
+                ? new RecurrenceIndex.Occurrence[] {second, first}
+                : new RecurrenceIndex.Occurrence[] {first, second};
+    }
+
+    /**
+     * Groups the tasks whose descriptions are near-duplicates of each other, in a single pass over the list.
+     * Each task is checked against the tasks before it through a fresh {@code NearDuplicateIndex}, so only tasks
+     * that share a bucket are ever compared, and near-duplicates of near-duplicates end up in the same group.
+     * Nothing is deleted, so that the user can choose which tasks to keep.
+     *
+     * @return The String message of the groups of near-duplicates along with their indices.
+     */
+    public String listNearDuplicates() {
+        NearDuplicateIndex seen = new NearDuplicateIndex();
+        int[] groupOf = new int[this.tasks.size()]; // Union-find forest of positions
+        for (int i = 0; i < this.tasks.size(); i++) {
+            groupOf[i] = i;
+            Task task = this.tasks.get(i);
+            for (Task similar : seen.findSimilar(task.getDescription())) {
+                int root = TaskList.findGroup(groupOf, this.positionOf(similar));
+                groupOf[TaskList.findGroup(groupOf, i)] = root;
+            }
+            seen.add(task);
+        }
+
+        // Keyed by the root, and ordered by the position of the first member of each group
+        LinkedHashMap<Integer, ArrayList<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < groupOf.length; i++) {
+            groups.computeIfAbsent(TaskList.findGroup(groupOf, i), key -> new ArrayList<>()).add(i);
+        }
+        groups.values().removeIf(group -> group.size() < 2);
+        if (groups.isEmpty()) {
+            return "[ No Duplicates! ]\nEvery task on your list is one of a kind. Nice and tidy!";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        return "[ Possible Duplicates: " + groups.size() + " ]\n" + groups.values().stream()
+                .map(group -> group.stream()
+                        .map(idx -> (idx + 1) + "." + this.tasks.get(idx))
+                        .collect(Collectors.joining("\n")))
+                .collect(Collectors.joining("\n\n"))
+                + "\n\nUse \"delete\" on the ones you no longer need.";
+    }
+
+    private static int findGroup(int[] groupOf, int idx) {
+        int root = idx;
+        while (groupOf[root] != root) {
+            root = groupOf[root];
+        }
+        // Point every position on the path straight at the root, so later lookups are shorter
+        int current = idx;
+        while (groupOf[current] != root) {
+            int next = groupOf[current];
+            groupOf[current] = root;
+            current = next;
+        }
+        return root;
+    }
+
+    /**
+     * Displays the stretches of days between two dates, both inclusive, on which no event takes place.
+     * Only the occurrences of repeating events that fall between those dates are worked out.
+     *
+     * @param from The first date to consider.
+     * @param to The last date to consider.
+     * @return The String message of the list of free stretches of days.
+     */
+    public String listFreeDays(LocalDate from, LocalDate to) {
+        long fromDay = Math.min(from.toEpochDay(), to.toEpochDay());
+        long toDay = Math.max(from.toEpochDay(), to.toEpochDay());
+        ArrayList<long[]> busyDays = new ArrayList<>(); // First and last day of each event
+        for (Event event : this.eventIndex.findOverlapping(fromDay, toDay)) {
+            busyDays.add(new long[] {Math.min(event.getStartDay(), event.getEndDay()),
+                Math.max(event.getStartDay(), event.getEndDay())});
+        }
+        ArrayList<RecurrenceIndex.Occurrence> occurrences = this.recurrenceIndex.findOccurrences(Event.class,
+                fromDay, toDay);
+        for (RecurrenceIndex.Occurrence occurrence : occurrences) {
+            Event event = (Event) occurrence.task();
+            busyDays.add(new long[] {occurrence.day(), occurrence.day() + event.getEndDay() - event.getStartDay()});
+        }
+        busyDays.sort(Comparator.comparingLong(days -> days[0]));
+
+        ArrayList<String> freeDays = new ArrayList<>();
+        long nextFreeDay = fromDay;
+        for (long[] days : busyDays) {
+            if (days[0] > nextFreeDay) {
+                freeDays.add(TaskList.formatDays(nextFreeDay, days[0] - 1));
+            }
+            nextFreeDay = Math.max(nextFreeDay, days[1] + 1);
+        }
+        if (nextFreeDay <= toDay) {
+            freeDays.add(TaskList.formatDays(nextFreeDay, toDay));
+        }
+
+        if (freeDays.isEmpty()) {
+            return "[ Fully Booked! ]\nEvery one of those days has an event. Remember to take a breather!";
+        }
+        return "[ Free Days ]\n" + String.join("\n", freeDays);
+    }
+
+    private static String formatDays(long fromDay, long toDay) {
+        String from = LocalDate.ofEpochDay(fromDay).format(TaskDates.OUTPUT_DATE_FORMAT);
+        String to = LocalDate.ofEpochDay(toDay).format(TaskDates.OUTPUT_DATE_FORMAT);
+        return fromDay == toDay ? from : from + " - " + to;
+    }
+
+    /**
+     * Displays the list of active tasks, followed by the list of archived tasks.
+     * Archived tasks are numbered separately, as they cannot be marked or deleted.
+     *
+     * @return The String message of both lists of tasks along with their indices.
+     */
+    public String listAllTasks() {
+        if (this.archive == null || this.archive.size() == 0) {
+            return this.listTasks();
+        }
+        return this.listTasks() + "\n\n[ Archived Tasks ]\n" + this.formatArchivedTasks(this.archive.loadTasks());
+    }
+
+    /**
+     * Displays the archived tasks containing the specific keyword.
+     *
+     * @param keyword The keyword to look for in the descriptions of archived tasks.
+     * @return The String message of the list of matching archived tasks along with their archive indices.
+     */
+    public String listArchivedTasks(String keyword) {
+        ArrayList<Task> archived = this.archive == null ? new ArrayList<>() : this.archive.loadTasks();
+        String result = this.formatArchivedTasks(archived.stream()
+                .filter(task -> task.getDescription().toLowerCase().contains(keyword.toLowerCase()))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return result.isEmpty()
+                ? "[ No match found! ]\nLooks like the tasks you're trying to find doesn't exist. Anything else?"
+                : result;
+    }
+
+    private String formatArchivedTasks(ArrayList<Task> archived) {
+        return IntStream.range(0, archived.size())
+                .mapToObj(idx -> "A" + (idx + 1) + "." + archived.get(idx))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Moves every completed task out of the list and into the archive.
+     * The remaining tasks are then written back to storage in a single write. If that write fails, the tasks are
+     * put back where they were and taken out of the archive again, so that they are never kept in both.
+     *
+     * @return The String message indicating the attempt at archiving completed tasks.
+     */
+    public String archiveCompleted() {
+        if (this.archive == null) {
+            return "[ Archive Unavailable ]\nArchiving is not enabled for this task list.";
+        }
+        // Functional Programming using Streams learnt from CS2030S
+        int[] positions = IntStream.range(0, this.tasks.size())
+                .filter(idx -> this.tasks.get(idx).isCompleted())
+                .toArray();
+        if (positions.length == 0) {
+            return "[ Nothing to Archive ]\nNone of your tasks are complete yet. Let's get one done first!";
+        }
+        List<Task> completed = Arrays.stream(positions)
+                .mapToObj(this.tasks::get)
+                .toList();
+
+        try {
+            this.archive.append(completed);
+        } catch (IOException e) {
+            return "[ Archive Failed ]\n" + Ui.getErrorUpdatingTasksFile(e);
+        }
+        // Removing from the back keeps the positions of the tasks still to be removed valid
+        for (int i = positions.length - 1; i >= 0; i--) {
+            this.remove(positions[i]);
+        }
+        try {
+            this.storage.saveTasks(this.tasks);
+        } catch (IOException e) {
+            for (int i = 0; i < positions.length; i++) {
+                this.insert(positions[i], completed.get(i));
+            }
+            try {
+                this.archive.revertAppend();
+            } catch (IOException revertError) {
+                return "[ Archive Failed ]\nYour completed tasks may now also be in the archive.\n"
+                        + Ui.getErrorUpdatingTasksFile(e);
+            }
+            return "[ Archive Rolled Back ]\nNone of your tasks were archived.\n" + Ui.getErrorUpdatingTasksFile(e);
+        }
+        this.history.clear(); // Archived tasks cannot be brought back, so earlier changes can no longer be undone
+        return "[ Tasks Archived: " + completed.size() + " ]\nAll completed tasks have been tucked away. "
+                + "Use \"list all\" or \"find --archived\" whenever you want to revisit them!";
+    }
+
+    /**
+     * Updates the completion status of several tasks at once. Every change is made in memory first, and then
+     * persisted with a single write of the task list. If that write fails, every change is rolled back.
+     *
+     * @param indices The distinct 0-based indices of the tasks to be updated.
+     * @param isCompleted {@code true} to mark the tasks as completed, {@code false} to mark them as incomplete.
+     * @return The String message indicating the attempt at updating the tasks.
+     */
+    public String setCompleted(List<Integer> indices, boolean isCompleted) {
+        // Functional Programming using Streams learnt from CS2030S
+        List<Task> changed = indices.stream()
+                .map(this.tasks::get)
+                .filter(task -> task.isCompleted() != isCompleted)
+                .toList();
+        if (changed.isEmpty()) {
+            return isCompleted
+                    ? "[ Tasks Already Complete! ]\nEvery one of those tasks is already marked as done. "
+                            + "You're ahead of the game!"
+                    : "[ Tasks Already Incomplete! ]\nEvery one of those tasks is already on your to-do list. "
+                            + "No need to unmark them again!";
+        }
+
+        for (Task task : changed) {
+            this.updateCompletion(task, isCompleted);
+        }
+        try {
+            this.storage.saveTasks(this.tasks);
+        } catch (IOException e) {
+            for (Task task : changed) {
+                this.updateCompletion(task, !isCompleted);
+            }
+            return "[ Update Rolled Back ]\nNone of those tasks were changed.\n" + Ui.getErrorUpdatingTasksFile(e);
+        }
+        this.history.record(new UndoLog.Change(isCompleted ? UndoLog.Kind.COMPLETE : UndoLog.Kind.UNCOMPLETE,
+                changed.toArray(new Task[0]), new int[0]));
+        return isCompleted
+                ? "[ Tasks Marked as Complete: " + changed.size() + " ]\nGreat job! That's a whole batch done. "
+                        + "On to the next one!"
+                : "[ Tasks Marked as Incomplete: " + changed.size() + " ]\nGot it! Those tasks are back on your "
+                        + "to-do list. Let's tackle them when you're ready!";
+    }
+
+    /**
+     * Deletes several tasks at once. Every task is removed in memory first, and then the remaining tasks are
+     * persisted with a single write of the task list. If that write fails, every task is put back where it was.
+     *
+     * @param indices The distinct 0-based indices of the tasks to be deleted, in ascending order.
+     * @return The String message indicating the attempt at deleting the tasks.
+     */
+    public String deleteTasks(List<Integer> indices) {
+        assert IntStream.range(1, indices.size()).allMatch(i -> indices.get(i - 1) < indices.get(i))
+                : "Indices should be distinct and in ascending order";
+        // Removing from the back keeps the indices of the tasks still to be removed valid
+        Task[] removed = new Task[indices.size()];
+        for (int i = indices.size() - 1; i >= 0; i--) {
+            removed[i] = this.remove(indices.get(i));
+        }
+        try {
+            this.storage.saveTasks(this.tasks);
+        } catch (IOException e) {
+            for (int i = 0; i < indices.size(); i++) {
+                this.insert(indices.get(i), removed[i]);
+            }
+            return "[ Delete Rolled Back ]\nNone of those tasks were removed.\n" + Ui.getErrorUpdatingTasksFile(e);
+        }
+        this.history.record(new UndoLog.Change(UndoLog.Kind.DELETE, removed,
+                indices.stream().mapToInt(Integer::intValue).toArray()));
+        return "[ Tasks Deleted: " + removed.length + " ]\nPoof, they're gone! "
+                + "Let me know if there's anything else to tidy up.";
+    }
+
+    /**
+     * Remembers that a task has just been appended to the list, so that adding it can be undone.
+     */
+    private void recordAddition(Task task) {
+        this.history.record(new UndoLog.Change(UndoLog.Kind.ADD, new Task[] {task}, new int[] {this.size() - 1}));
+    }
+
+    /**
+     * Updates the completion status of a task in the list, and remembers the change so that it can be undone.
+     *
+     * @param task The task to be updated.
+     * @param isCompleted {@code true} to mark the task as completed, {@code false} to mark it as incomplete.
+     */
+    public void setCompleted(Task task, boolean isCompleted) {
+        this.updateCompletion(task, isCompleted);
+        this.history.record(new UndoLog.Change(task.isCompleted() ? UndoLog.Kind.COMPLETE : UndoLog.Kind.UNCOMPLETE,
+                new Task[] {task}, new int[0]));
+    }
+
+    /**
+     * Updates the completion status of a single occurrence of a repeating task. The occurrence is recorded as an
+     * exception of the rule of the task, which is then persisted in place of the task, rather than being added as
+     * a task of its own. Marking an occurrence is not remembered for undo.
+     *
+     * @param index The 0-based index of the repeating task.
+     * @param date The date of the occurrence, being its due date or the date it starts.
+     * @param isCompleted {@code true} to mark the occurrence as completed, {@code false} to mark it as incomplete.
+     * @return The String message indicating the attempt at updating the occurrence.
+     */
+    public String setOccurrenceCompleted(int index, LocalDate date, boolean isCompleted) {
+        Task task = this.tasks.get(index);
+        Recurrence recurrence = task.getRecurrence();
+        long day = date.toEpochDay();
+        String occurrence = "\"" + task.getDescription() + "\" on " + date.format(TaskDates.OUTPUT_DATE_FORMAT);
+        if (recurrence == null || !recurrence.isOccurrence(RecurrenceIndex.firstDayOf(task), day)) {
+            return "[ No Such Occurrence ]\nTask \"" + task.getDescription() + "\" does not take place on that day. "
+                    + "Check when it does with \"due\" or \"free\"!";
+        } else if (recurrence.isDone(day) == isCompleted) {
+            return isCompleted
+                    ? "[ Occurrence Already Complete! ]\n" + occurrence + " is already marked as done."
+                    : "[ Occurrence Already Incomplete! ]\n" + occurrence + " is still on your to-do list.";
+        }
+
+        // The reminder thread steps through the rule under the same lock
+        this.WRITE_LOCK.lock();
+        try {
+            recurrence.setDone(day, isCompleted);
+            if (this.reminderIndex != null) {
+                // Moves the reminder on to the next occurrence that has not been completed
+                this.reminderIndex.remove(task);
+                this.reminderIndex.add(task);
+            }
+        } finally {
+            this.WRITE_LOCK.unlock();
+        }
+        String message = isCompleted
+                ? "[ Occurrence Marked as Complete! ]\nGreat job! " + occurrence + " is now marked as done."
+                : "[ Occurrence Marked as Incomplete! ]\nGot it! " + occurrence + " is back on your to-do list.";
+        try {
+            this.storage.replaceTask(index, task.getId(), task);
+        } catch (IOException e) {
+            return message + "\n" + Ui.getErrorUpdatingTasksFile(e);
+        }
+        return message;
+    }
+
+    /**
+     * Updates the completion status of a task, and keeps the status index current.
+     * Like every change, this runs under the write lock once reminders or concurrent reads are enabled.
+     */
+    private void updateCompletion(Task task, boolean isCompleted) {
+        task.setCompleted(isCompleted);
+        this.statusIndex.setCompleted(task, isCompleted);
+        this.overdueIndex.setCompleted(task, isCompleted);
+        this.sortedViews.setCompleted(task, isCompleted);
+        if (this.reminderIndex != null) {
+            this.reminderIndex.setCompleted(task, isCompleted);
+        }
+        if (this.entries != null) {
+            this.entries = this.entries.with(this.positionOf(task), TaskSnapshot.Entry.of(task));
+        }
+    }
+
+    /**
+     * Remembers that a task has just been removed from the list, so that the deletion can be undone.
+     *
+     * @param index The 0-based index that the task was removed from.
+     * @param task The task that was removed.
+     */
+    public void recordDeletion(int index, Task task) {
+        this.history.record(new UndoLog.Change(UndoLog.Kind.DELETE, new Task[] {task}, new int[] {index}));
+    }
+
+    /**
+     * Undoes the latest change that has not been undone yet. Only the tasks it touched are changed back,
+     * and each of them is persisted as a single change to storage. If any of them cannot be persisted,
+     * the change is left in place, and can still be undone later.
+     *
+     * @return The String message indicating the attempt at undoing a change.
+     */
+    public String undo() {
+        UndoLog.Change change = this.history.undo();
+        if (change == null) {
+            return "[ Nothing to Undo ]\nThere are no changes left that I can take back.";
+        }
+        String failure = this.replay(change.inverse());
+        if (failure != null) {
+            this.history.redo();
+            return "[ Undo Rolled Back ]\nNothing was taken back.\n" + failure;
+        }
+        return "[ Undone! ]\nNo problem, I've taken back " + TaskList.describe(change)
+                + ". Type \"redo\" if you change your mind!";
+    }
+
+    /**
+     * Redoes the earliest change that has been undone, as long as no other change was made since.
+     * If any of its tasks cannot be persisted, the change is left undone, and can still be redone later.
+     *
+     * @return The String message indicating the attempt at redoing a change.
+     */
+    public String redo() {
+        UndoLog.Change change = this.history.redo();
+        if (change == null) {
+            return "[ Nothing to Redo ]\nThere are no undone changes to bring back.";
+        }
+        String failure = this.replay(change);
+        if (failure != null) {
+            this.history.undo();
+            return "[ Redo Rolled Back ]\nNothing was brought back.\n" + failure;
+        }
+        return "[ Redone! ]\nBack again: " + TaskList.describe(change) + ".";
+    }
+
+    /**
+     * Applies a change to the list, and persists it to storage one task at a time.
+     * On the first task that cannot be persisted, every task already applied is taken back in reverse order,
+     * and the whole list is saved again, so that storage never keeps a change that the list does not.
+     *
+     * @param change The change to be applied.
+     * @return {@code null} if the change was applied, or the error message if it was taken back.
+     */
+    private String replay(UndoLog.Change change) {
+        Task[] changedTasks = change.tasks();
+        int[] appliedAt = new int[changedTasks.length]; // Index that each step was applied at, to take it back
+        for (int step = 0; step < changedTasks.length; step++) {
+            int i = TaskList.taskOfStep(change, step);
+            appliedAt[step] = this.apply(change.kind(), changedTasks[i],
+                    change.kind() == UndoLog.Kind.ADD ? change.positions()[i] : -1);
+            try {
+                switch (change.kind()) {
+                case ADD:
+                    this.storage.insertTask(appliedAt[step], changedTasks[i]);
+                    break;
+                case DELETE:
+                    this.storage.deleteTask(appliedAt[step], changedTasks[i].getId());
+                    break;
+                default:
+                    this.storage.setCompleted(appliedAt[step], changedTasks[i].getId(),
+                            change.kind() == UndoLog.Kind.COMPLETE);
+                    break;
+                }
+            } catch (IOException e) {
+                for (int undone = step; undone >= 0; undone--) {
+                    this.apply(change.kind().inverse(), changedTasks[TaskList.taskOfStep(change, undone)],
+                            appliedAt[undone]);
+                }
+                try {
+                    this.storage.saveTasks(this.tasks);
+                } catch (IOException saveError) {
+                    e.addSuppressed(saveError);
+                }
+                return Ui.getErrorUpdatingTasksFile(e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns which of a change's tasks is applied at the given step. Additions go in ascending order, which puts
+     * every task back at the index it was recorded at, while deletions go in descending order.
+     */
+    private static int taskOfStep(UndoLog.Change change, int step) {
+        return change.kind() == UndoLog.Kind.DELETE ? change.tasks().length - 1 - step : step;
+    }
+
+    /**
+     * Applies a single task of a change to the list, without persisting it.
+     *
+     * @param kind The kind of change.
+     * @param task The task to be changed.
+     * @param position The 0-based index to insert the task at, only used for additions.
+     * @return The 0-based index of the task that was changed.
+     */
+    private int apply(UndoLog.Kind kind, Task task, int position) {
+        switch (kind) {
+        case ADD:
+            this.insert(position, task);
+            return position;
+        case DELETE:
+            int index = this.positionOf(task);
+            assert index >= 0 : "Task to be deleted should be in the list";
+            this.remove(index);
+            return index;
+        default:
+            this.updateCompletion(task, kind == UndoLog.Kind.COMPLETE);
+            return this.positionOf(task);
+        }
+    }
+
+    private static String describe(UndoLog.Change change) {
+        String subject = change.tasks().length == 1
+                ? "\"" + change.tasks()[0].getDescription() + "\""
+                : change.tasks().length + " tasks";
+        // "Incorrect" indentation by Style Checker due to the use of "return".
+        // It should, in theory, be of the correct indentation.
+        return switch (change.kind()) {
+            case ADD -> "adding " + subject;
+            case DELETE -> "deleting " + subject;
+            case COMPLETE -> "marking " + subject + " as done";
+            case UNCOMPLETE -> "marking " + subject + " as not done";
+        };
+    }
+
     /**
      * Saves the current list of tasks to the designated storage file.
      * This method should be called at the end of the application to ensure that all tasks are properly backed up.
      */
     public void saveTasks() {
-        ArrayList<String> lines = new ArrayList<>();
-        for (Task task : this.tasks) {
-            lines.add(task.getStringFormat());
-        }
+        this.WRITE_LOCK.lock();
         try {
-            this.storage.writeLines(lines);
+            this.storage.saveTasks(this.tasks);
         } catch (IOException e) {
             Ui.getErrorUpdatingTasksFile(e);
+        } finally {
+            this.WRITE_LOCK.unlock();
         }
     }
 }
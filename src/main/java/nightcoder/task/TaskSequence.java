@@ -0,0 +1,210 @@
+package nightcoder.task;
+
+import java.util.AbstractList;
+import java.util.IdentityHashMap;
+import java.util.Random;
+
+/**
+ * Represents the ordered list of tasks as an order-statistic tree, so that looking up, inserting and removing a task
+ * at any position takes logarithmic time, with no shifting of later tasks.
+ * The tree is a treap keyed implicitly by position: every node records the size of its subtree, and the position of
+ * a node is the number of nodes before it in an in-order walk. Nodes also link to their parent, so the position of
+ * a given task is found by walking up from its node.
+ * A task may only appear once in the sequence, as tasks are located by identity.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class TaskSequence extends AbstractList<Task> {
+    /**
+     * Represents a node of the treap, holding one task.
+     */
+    private static class Node {
+        private final int PRIORITY;
+        private Task task;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private Node(Task task, int priority) {
+            this.task = task;
+            this.PRIORITY = priority;
+        }
+    }
+
+    /**
+     * Represents the two treaps produced by splitting one.
+     */
+    private record Split(Node first, Node second) {
+    }
+
+    private final IdentityHashMap<Task, Node> NODES = new IdentityHashMap<>();
+    private final Random RANDOM = new Random();
+    private Node root;
+
+    @Override
+    public int size() {
+        return TaskSequence.sizeOf(this.root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return this.nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        this.checkAbsent(task);
+        Node node = this.nodeAt(index);
+        Task previous = node.task;
+        this.NODES.remove(previous);
+        node.task = task;
+        this.NODES.put(task, node);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > this.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        }
+        this.checkAbsent(task);
+        Node node = new Node(task, this.RANDOM.nextInt());
+        this.NODES.put(task, node);
+        Split split = TaskSequence.split(this.root, index);
+        this.setRoot(TaskSequence.merge(TaskSequence.merge(split.first(), node), split.second()));
+        this.modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Node node = this.nodeAt(index);
+        Split before = TaskSequence.split(this.root, index);
+        Split after = TaskSequence.split(before.second(), 1);
+        this.setRoot(TaskSequence.merge(before.first(), after.second()));
+        this.NODES.remove(node.task);
+        this.modCount++;
+        return node.task;
+    }
+
+    @Override
+    public void clear() {
+        this.NODES.clear();
+        this.root = null;
+        this.modCount++;
+    }
+
+    @Override
+    public boolean contains(Object task) {
+        return this.NODES.containsKey(task);
+    }
+
+    /**
+     * Returns the position of a task by walking up from its node, counting the nodes before it.
+     *
+     * @param task The task to look for.
+     * @return The 0-based index of the task, or -1 if it is not in the sequence.
+     */
+    @Override
+    public int indexOf(Object task) {
+        Node node = this.NODES.get(task);
+        if (node == null) {
+            return -1;
+        }
+        int index = TaskSequence.sizeOf(node.left);
+        while (node.parent != null) {
+            if (node == node.parent.right) {
+                index += TaskSequence.sizeOf(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return index;
+    }
+
+    @Override
+    public int lastIndexOf(Object task) {
+        return this.indexOf(task);
+    }
+
+    private void checkAbsent(Task task) {
+        if (task == null || this.NODES.containsKey(task)) {
+            throw new IllegalArgumentException("Task is null or already in the sequence");
+        }
+    }
+
+    private Node nodeAt(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        }
+        Node node = this.root;
+        while (true) {
+            int leftSize = TaskSequence.sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private void setRoot(Node node) {
+        this.root = node;
+        if (node != null) {
+            node.parent = null;
+        }
+    }
+
+    /**
+     * Splits a treap into its first {@code count} nodes and the rest.
+     */
+    private static Split split(Node node, int count) {
+        if (node == null) {
+            return new Split(null, null);
+        }
+        if (TaskSequence.sizeOf(node.left) >= count) {
+            Split split = TaskSequence.split(node.left, count);
+            node.left = split.second();
+            TaskSequence.update(node);
+            return new Split(split.first(), node);
+        }
+        Split split = TaskSequence.split(node.right, count - TaskSequence.sizeOf(node.left) - 1);
+        node.right = split.first();
+        TaskSequence.update(node);
+        return new Split(node, split.second());
+    }
+
+    /**
+     * Joins two treaps, placing every node of the first before every node of the second.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        if (first.PRIORITY > second.PRIORITY) {
+            first.right = TaskSequence.merge(first.right, second);
+            TaskSequence.update(first);
+            return first;
+        }
+        second.left = TaskSequence.merge(first, second.left);
+        TaskSequence.update(second);
+        return second;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + TaskSequence.sizeOf(node.left) + TaskSequence.sizeOf(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+}
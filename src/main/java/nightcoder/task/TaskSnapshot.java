@@ -0,0 +1,67 @@
+package nightcoder.task;
+
+/**
+ * Represents an immutable, versioned view of the task list, as it was at the end of a change.
+ * Snapshots are published to readers on other threads, which can list them without taking any lock, and hence never
+ * wait for a change, or for its persistence, to finish.
+ * Each task is captured as an {@link Entry} holding the line it is listed as, so later changes to the {@code Task}
+ * itself do not show through. Filtering and searching are left to the live list, whose indices find matches without
+ * looking at every task, which a snapshot would otherwise have to do.
+ * The entries are held in a {@link PersistentSequence}, whose versions share every entry that a change did not touch,
+ * so publishing a snapshot takes O(1) and never copies the list.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+final class TaskSnapshot {
+    /**
+     * Represents a task as it was when the snapshot was taken.
+     */
+    record Entry(String line) {
+        static Entry of(Task task) {
+            return new Entry(task.toString());
+        }
+    }
+
+    private final long VERSION;
+    private final PersistentSequence<Entry> ENTRIES;
+
+    /**
+     * Constructs a {@code TaskSnapshot} holding the given entries, which are never changed.
+     *
+     * @param version The number of changes published before this snapshot.
+     * @param entries The entries of the tasks, in list order.
+     */
+    TaskSnapshot(long version, PersistentSequence<Entry> entries) {
+        this.VERSION = version;
+        this.ENTRIES = entries;
+    }
+
+    /**
+     * Returns the number of changes published before this snapshot, which grows with every change.
+     *
+     * @return The version of the snapshot.
+     */
+    long getVersion() {
+        return this.VERSION;
+    }
+
+    /**
+     * Returns the number of tasks in the snapshot.
+     *
+     * @return The size of the snapshot.
+     */
+    int size() {
+        return this.ENTRIES.size();
+    }
+
+    /**
+     * Returns the task at the given index as it is listed, such as "[T][ ] Read book".
+     *
+     * @param idx The 0-based index of the task.
+     * @return The line of the task, without its number.
+     */
+    String getLine(int idx) {
+        return this.ENTRIES.get(idx).line();
+    }
+}
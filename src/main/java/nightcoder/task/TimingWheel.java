@@ -0,0 +1,191 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+
+/**
+ * Schedules items to fall due at given times on a hierarchical timing wheel, so that scheduling and cancelling take
+ * O(1), and advancing the clock takes O(1) per tick plus the number of items that fall due, however many are pending.
+ * Each of the {@code LEVELS} wheels has {@code SLOTS} slots, and every slot of a wheel spans a whole turn of the
+ * wheel below it. An item is kept in the lowest wheel that can hold it. Whenever a wheel completes a turn, the next
+ * slot of the wheel above is emptied into the wheels below, so items move down as their time draws near.
+ * Each slot holds a doubly linked list of timers, so a cancelled timer is unlinked without searching for it.
+ * A wheel is not thread-safe, and should be guarded by its owner.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class TimingWheel<T> {
+    /**
+     * Represents an item scheduled on the wheel, which can be used to cancel it.
+     */
+    static final class Timer<T> {
+        private final T ITEM;
+        private final long TICK; // Tick at which the item falls due
+        private Timer<T> previous;
+        private Timer<T> next;
+
+        private Timer(T item, long tick) {
+            this.ITEM = item;
+            this.TICK = tick;
+        }
+
+        T getItem() {
+            return this.ITEM;
+        }
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6; // With a tick of a second, the top wheel turns once every 2,000 years
+    private final long TICK_MILLIS;
+    private final Timer<T>[][] SLOT_HEADS; // Sentinel of the list of timers in each slot
+    private long currentTick;
+    private int size = 0;
+
+    /**
+     * Constructs an empty {@code TimingWheel}.
+     *
+     * @param tickMillis The length of a tick, in milliseconds, which bounds how late an item may be reported.
+     * @param startMillis The current time, in milliseconds since the epoch.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long tickMillis, long startMillis) {
+        assert tickMillis > 0 : "Tick should be positive";
+        this.TICK_MILLIS = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.SLOT_HEADS = new Timer[LEVELS][SLOTS];
+        for (Timer<T>[] level : this.SLOT_HEADS) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timer<T> head = new Timer<>(null, 0);
+                head.previous = head;
+                head.next = head;
+                level[slot] = head;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items still scheduled.
+     *
+     * @return The number of pending items.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the time that the wheel has been advanced to.
+     *
+     * @return The start of the current tick, in milliseconds since the epoch.
+     */
+    long getCurrentMillis() {
+        return this.currentTick * this.TICK_MILLIS;
+    }
+
+    /**
+     * Schedules an item to fall due at the given time. An item whose time has already passed falls due on the
+     * next tick.
+     *
+     * @param item The item to be scheduled.
+     * @param dueMillis The time at which the item falls due, in milliseconds since the epoch.
+     * @return The timer of the item, which can be used to cancel it.
+     */
+    Timer<T> schedule(T item, long dueMillis) {
+        long dueTick = Math.floorDiv(dueMillis + this.TICK_MILLIS - 1, this.TICK_MILLIS); // Never early
+        Timer<T> timer = new Timer<>(item, Math.max(dueTick, this.currentTick + 1));
+        this.place(timer);
+        this.size++;
+        return timer;
+    }
+
+    /**
+     * Cancels a scheduled item. Cancelling an item that has already fallen due, or was cancelled, has no effect.
+     *
+     * @param timer The timer returned when the item was scheduled.
+     */
+    void cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return;
+        }
+        TimingWheel.unlink(timer);
+        this.size--;
+    }
+
+    /**
+     * Advances the wheel to the given time, one tick at a time.
+     *
+     * @param nowMillis The current time, in milliseconds since the epoch.
+     * @return An {@code ArrayList} of the items that fell due, in the order they fell due.
+     */
+    ArrayList<T> advanceTo(long nowMillis) {
+        ArrayList<T> due = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis, this.TICK_MILLIS);
+        while (this.currentTick < targetTick && this.size > 0) {
+            this.currentTick++;
+            // Empty the slot of every wheel above whose wheel below has just completed a turn, highest first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((this.currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    this.cascade(this.SLOT_HEADS[level][this.slotOf(this.currentTick, level)]);
+                }
+            }
+            Timer<T> head = this.SLOT_HEADS[0][this.slotOf(this.currentTick, 0)];
+            while (head.next != head) {
+                Timer<T> timer = head.next;
+                TimingWheel.unlink(timer);
+                this.size--;
+                due.add(timer.ITEM);
+            }
+        }
+        this.currentTick = Math.max(this.currentTick, targetTick); // Nothing is pending, so skip straight ahead
+        return due;
+    }
+
+    /**
+     * Moves every timer in a slot to the wheel that should now hold it.
+     */
+    private void cascade(Timer<T> head) {
+        Timer<T> timer = head.next;
+        head.previous = head;
+        head.next = head;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            this.place(timer);
+            timer = next;
+        }
+    }
+
+    /**
+     * Links a timer into the lowest wheel whose current turn includes its tick, or into the top wheel if none does.
+     */
+    private void place(Timer<T> timer) {
+        long tick = Math.max(timer.TICK, this.currentTick);
+        int level = 0;
+        while (level < LEVELS - 1 && TimingWheel.turnOf(tick, level) != TimingWheel.turnOf(this.currentTick, level)) {
+            level++;
+        }
+        Timer<T> head = this.SLOT_HEADS[level][this.slotOf(tick, level)];
+        timer.previous = head.previous;
+        timer.next = head;
+        head.previous.next = timer;
+        head.previous = timer;
+    }
+
+    /**
+     * Returns the turn of the given wheel that a tick falls in, which is the tick with every digit up to and
+     * including that of the wheel dropped.
+     */
+    private static long turnOf(long tick, int level) {
+        return tick >>> (SLOT_BITS * (level + 1));
+    }
+
+    private int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    private static <T> void unlink(Timer<T> timer) {
+        timer.previous.next = timer.next;
+        timer.next.previous = timer.previous;
+        timer.previous = null;
+        timer.next = null;
+    }
+}
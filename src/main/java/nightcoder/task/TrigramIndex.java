@@ -0,0 +1,97 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+
+/**
+ * Maps every run of three consecutive characters (trigram) in the lower-cased task descriptions to the tasks whose
+ * description contains it. Any description containing a keyword must contain every trigram of that keyword,
+ * so intersecting their posting lists narrows a substring search down to a few candidates,
+ * which are then checked against the keyword itself.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class TrigramIndex implements TaskIndex {
+    /** Keywords shorter than this have no trigrams, so they cannot be looked up in the index. */
+    static final int GRAM_LENGTH = 3;
+    private final HashMap<Long, LinkedHashSet<Task>> POSTINGS = new HashMap<>();
+    private final HashMap<Task, String> DESCRIPTIONS = new HashMap<>(); // Lower-cased description of each task
+
+    /**
+     * Returns the distinct trigrams of the text, each packed into a single {@code long}.
+     *
+     * @param text The lower-cased text.
+     * @return A set of the packed trigrams.
+     */
+    private static HashSet<Long> trigramsOf(String text) {
+        HashSet<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    @Override
+    public void add(Task task) {
+        String description = task.getDescription().toLowerCase();
+        this.DESCRIPTIONS.put(task, description);
+        for (Long trigram : TrigramIndex.trigramsOf(description)) {
+            this.POSTINGS.computeIfAbsent(trigram, key -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        String description = this.DESCRIPTIONS.remove(task);
+        if (description == null) {
+            return;
+        }
+        for (Long trigram : TrigramIndex.trigramsOf(description)) {
+            LinkedHashSet<Task> posting = this.POSTINGS.get(trigram);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.isEmpty()) {
+                    this.POSTINGS.remove(trigram);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.POSTINGS.clear();
+        this.DESCRIPTIONS.clear();
+    }
+
+    /**
+     * Finds the tasks whose lower-cased description contains the keyword.
+     *
+     * @param keyword The lower-cased keyword, at least {@link #GRAM_LENGTH} characters long.
+     * @return An {@code ArrayList} of the matching tasks, in no particular order.
+     */
+    ArrayList<Task> search(String keyword) {
+        assert keyword.length() >= GRAM_LENGTH : "Keyword should be long enough to have a trigram";
+        ArrayList<Task> matches = new ArrayList<>();
+        ArrayList<LinkedHashSet<Task>> postings = new ArrayList<>();
+        for (Long trigram : TrigramIndex.trigramsOf(keyword)) {
+            LinkedHashSet<Task> posting = this.POSTINGS.get(trigram);
+            if (posting == null) {
+                return matches;
+            }
+            postings.add(posting);
+        }
+
+        postings.sort(Comparator.comparingInt(LinkedHashSet::size));
+        for (Task task : postings.get(0)) {
+            if (postings.stream().allMatch(posting -> posting.contains(task))
+                    && this.DESCRIPTIONS.get(task).contains(keyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+}
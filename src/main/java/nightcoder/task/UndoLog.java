@@ -0,0 +1,130 @@
+package nightcoder.task;
+
+/**
+ * Keeps a bounded log of changes made to the task list, so that they can be undone and redone in order.
+ * Each change records only the tasks it touched and where they were, never a copy of the whole list.
+ * The log is a ring buffer: once the changes it holds touch more tasks than its limit, the oldest ones are evicted.
+ * Recording a new change discards every change that was undone but not redone.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class UndoLog {
+    /**
+     * Represents the kinds of changes that can be undone. Every kind has an inverse that takes it back.
+     */
+    enum Kind {
+        ADD, DELETE, COMPLETE, UNCOMPLETE;
+
+        Kind inverse() {
+            return switch (this) {
+                case ADD -> DELETE;
+                case DELETE -> ADD;
+                case COMPLETE -> UNCOMPLETE;
+                case UNCOMPLETE -> COMPLETE;
+            };
+        }
+    }
+
+    /**
+     * Represents a single change to the task list, such as adding, deleting or marking one or more tasks.
+     * For additions and deletions, {@code positions} holds the 0-based index of each task in the list in which it
+     * is present, in ascending order. Marking does not move tasks, so its positions are left empty.
+     */
+    record Change(Kind kind, Task[] tasks, int[] positions) {
+        Change inverse() {
+            return new Change(this.kind.inverse(), this.tasks, this.positions);
+        }
+    }
+
+    private final Change[] ENTRIES;
+    private final int LIMIT; // Most tasks that the recorded changes may touch in total
+    private int oldest = 0; // Slot of the oldest recorded change
+    private int count = 0; // Number of recorded changes, both undoable and redoable
+    private int undoable = 0; // Number of recorded changes that can be undone, the rest can be redone
+    private int weight = 0; // Number of tasks touched by the recorded changes
+
+    /**
+     * Constructs an empty {@code UndoLog}.
+     *
+     * @param limit The most tasks that the recorded changes may touch in total, which bounds its memory use.
+     */
+    UndoLog(int limit) {
+        this.LIMIT = Math.max(0, limit);
+        this.ENTRIES = new Change[this.LIMIT];
+    }
+
+    /**
+     * Records a change that has just been made, evicting the oldest changes if the log is full.
+     * A change touching more tasks than the limit cannot be undone, and clears the log instead.
+     *
+     * @param change The change to be recorded.
+     */
+    void record(Change change) {
+        while (this.count > this.undoable) {
+            this.count--;
+            this.drop(this.slot(this.count));
+        }
+        if (change.tasks().length > this.LIMIT) {
+            this.clear();
+            return;
+        }
+        while (this.count == this.ENTRIES.length || this.weight + change.tasks().length > this.LIMIT) {
+            this.drop(this.oldest);
+            this.oldest = (this.oldest + 1) % this.ENTRIES.length;
+            this.count--;
+            this.undoable--;
+        }
+        this.ENTRIES[this.slot(this.count)] = change;
+        this.weight += change.tasks().length;
+        this.count++;
+        this.undoable++;
+    }
+
+    /**
+     * Steps back over the latest change that has not been undone yet.
+     *
+     * @return The change to be undone, or {@code null} if there is none.
+     */
+    Change undo() {
+        if (this.undoable == 0) {
+            return null;
+        }
+        this.undoable--;
+        return this.ENTRIES[this.slot(this.undoable)];
+    }
+
+    /**
+     * Steps forward over the earliest change that has been undone.
+     *
+     * @return The change to be redone, or {@code null} if there is none.
+     */
+    Change redo() {
+        if (this.undoable == this.count) {
+            return null;
+        }
+        this.undoable++;
+        return this.ENTRIES[this.slot(this.undoable - 1)];
+    }
+
+    /**
+     * Forgets every recorded change, such as when the task list is changed in a way that cannot be undone.
+     */
+    void clear() {
+        while (this.count > 0) {
+            this.count--;
+            this.drop(this.slot(this.count));
+        }
+        this.oldest = 0;
+        this.undoable = 0;
+    }
+
+    private void drop(int slot) {
+        this.weight -= this.ENTRIES[slot].tasks().length;
+        this.ENTRIES[slot] = null;
+    }
+
+    private int slot(int offset) {
+        return (this.oldest + offset) % this.ENTRIES.length;
+    }
+}
@@ -0,0 +1,158 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * Maps every word found in task descriptions to the tasks whose description contains it.
+ * Words are runs of letters and digits, compared in lower case. Each posting list also counts how many times
+ * the word appears in the task, so that matches can be ranked by term frequency.
+ * A search only visits the posting lists of the words asked for, so its cost depends on the number of matches
+ * rather than the number of tasks.
+ * Every indexed word is also kept in a BK-tree, so that words within a small edit distance of a misspelt query can
+ * be found without comparing the query against the whole vocabulary.
+ *
+ * @author ShamanBenny
+ * @version 10
+ */
+class WordIndex implements TaskIndex {
+    /** Query words up to this length may be misspelt by one edit, and longer words by two. */
+    private static final int SHORT_WORD_LENGTH = 4;
+    private final HashMap<String, LinkedHashMap<Task, Integer>> POSTINGS = new HashMap<>();
+    private BkTree vocabulary = new BkTree(); // Words are only dropped from the tree when it is rebuilt
+
+    /**
+     * Splits text into lower-cased words, keeping repeated words.
+     *
+     * @param text The text to be split.
+     * @return An {@code ArrayList} of the words in the text, in order.
+     */
+    static ArrayList<String> tokenize(String text) {
+        ArrayList<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isWordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    @Override
+    public void add(Task task) {
+        for (String word : WordIndex.tokenize(task.getDescription())) {
+            this.POSTINGS.computeIfAbsent(word, key -> {
+                this.vocabulary.add(key);
+                return new LinkedHashMap<>();
+            }).merge(task, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        for (String word : new LinkedHashSet<>(WordIndex.tokenize(task.getDescription()))) {
+            LinkedHashMap<Task, Integer> posting = this.POSTINGS.get(word);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.isEmpty()) {
+                    this.POSTINGS.remove(word);
+                }
+            }
+        }
+        // Once most words in the tree are no longer used, it is rebuilt from the words that are
+        if (this.vocabulary.size() > 2 * this.POSTINGS.size() + SHORT_WORD_LENGTH) {
+            this.vocabulary = new BkTree();
+            for (String word : this.POSTINGS.keySet()) {
+                this.vocabulary.add(word);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.POSTINGS.clear();
+        this.vocabulary = new BkTree();
+    }
+
+    /**
+     * Finds the tasks whose description contains every word of the query, by intersecting their posting lists,
+     * starting from the shortest one.
+     *
+     * @param query The words to look for, in any order.
+     * @return The matching tasks, each mapped to the total number of times the query words appear in it.
+     *     Returns an empty map if the query has no words or any word is not indexed.
+     */
+    HashMap<Task, Integer> search(String query) {
+        HashMap<Task, Integer> matches = new HashMap<>();
+        ArrayList<LinkedHashMap<Task, Integer>> postings = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(WordIndex.tokenize(query))) {
+            LinkedHashMap<Task, Integer> posting = this.POSTINGS.get(word);
+            if (posting == null) {
+                return matches;
+            }
+            postings.add(posting);
+        }
+        if (postings.isEmpty()) {
+            return matches;
+        }
+
+        postings.sort(Comparator.comparingInt(LinkedHashMap::size));
+        for (Task task : postings.get(0).keySet()) {
+            int frequency = 0;
+            for (LinkedHashMap<Task, Integer> posting : postings) {
+                Integer count = posting.get(task);
+                if (count == null) {
+                    frequency = -1;
+                    break;
+                }
+                frequency += count;
+            }
+            if (frequency > 0) {
+                matches.put(task, frequency);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the tasks whose description contains, for every word of the query, a word within a small edit distance
+     * of it. Short words may differ by one edit, and longer ones by two.
+     *
+     * @param query The possibly misspelt words to look for, in any order.
+     * @return The matching tasks, each mapped to the sum, over the query words, of the smallest edit distance
+     *     to a word of the task. Returns an empty map if the query has no words.
+     */
+    HashMap<Task, Integer> searchSimilar(String query) {
+        HashMap<Task, Integer> matches = null;
+        for (String word : new LinkedHashSet<>(WordIndex.tokenize(query))) {
+            int maxDistance = word.length() <= SHORT_WORD_LENGTH ? 1 : 2;
+            HashMap<Task, Integer> wordMatches = new HashMap<>();
+            for (BkTree.Match match : this.vocabulary.search(word, maxDistance)) {
+                LinkedHashMap<Task, Integer> posting = this.POSTINGS.get(match.word());
+                if (posting != null) {
+                    for (Task task : posting.keySet()) {
+                        wordMatches.merge(task, match.distance(), Math::min);
+                    }
+                }
+            }
+
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.keySet().retainAll(wordMatches.keySet());
+                matches.replaceAll((task, distance) -> distance + wordMatches.get(task));
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches == null ? new HashMap<>() : matches;
+    }
+}
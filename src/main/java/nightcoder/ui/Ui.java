@@ -20,20 +20,46 @@ public class Ui {
         HELP("help", "Prints this handy guide. Because even pros need reminders sometimes."),
         TODO("todo <String>", "Adds a to-do task to your list. Just tell me what needs doing, "
                 + "and I'll keep track.\n  E.g.: todo Finish the project report"),
-        DEADLINE("deadline <String> /by <String>", "Adds a task with a deadline. Perfect for those "
-                + "time-sensitive missions!\n  E.g.: deadline Submit assignment /by 2025-01-30 23:59"),
-        EVENT("event <String> /from <String> /to <String>", "Adds an event with a start and "
-                + "end time. Keep your schedule sharp!\n  E.g.: event Team meeting /from 2025-01-21 3:00 PM "
-                + "/to 2025-01-21 4:00 PM"),
-        LIST("list", "Shows all your tasks. Think of it as your personal task constellation."),
-        FIND("find <String>", "Find specific keyword amongst your list of tasks. I'll do the work of finding "
-                + "it for you!\n  E.g.: find homework"),
-        MARK("mark <int>", "Marks a task as complete. Use the task number from the list.\n"
-                + "  E.g.: mark 1"),
-        UNMARK("unmark <int>", "Marks a task as incomplete. Sometimes things need a second look!\n"
-                + "  E.g.: unmark 1"),
+        DEADLINE("deadline <String> /by <String> [/every <unit> [until <date>]]", "Adds a task with a deadline. "
+                + "Perfect for those time-sensitive missions!\n  Add \"/every\" with day, week, month or year to "
+                + "repeat it, stored as a single task.\n  E.g.: deadline Submit assignment /by 2025-01-30 23:59, "
+                + "deadline Monthly report /by 2025-01-31 /every month until 2025-12-31"),
+        EVENT("event <String> /from <String> /to <String> [/every <unit> [until <date>]]", "Adds an event with a "
+                + "start and end time. Keep your schedule sharp!\n  Add \"/every\" to repeat it, just like a "
+                + "deadline.\n  E.g.: event Team meeting /from 2025-01-21 3:00 PM /to 2025-01-21 4:00 PM, "
+                + "event Standup /from 2025-01-06 /to 2025-01-06 /every week"),
+        LIST("list [all | todo | deadline | event] [done | undone] | list --sort due|type|status|name", "Shows all "
+                + "your tasks. Think of it as your personal task constellation.\n  Add \"all\" to include archived "
+                + "tasks as well, or a type (T, D or E also work) and/or a status to only show those tasks.\n"
+                + "  Add \"--sort\" to order them by due date, type, status or name. Task numbers stay the same.\n"
+                + "  E.g.: list all, list todo, list D undone, list --sort due"),
+        STATS("stats", "Counts your tasks by type, and how many of them are done. Progress, at a glance!"),
+        FIND("find [--archived | --words | --ranked] <String>", "Find specific keyword amongst your list of tasks. "
+                + "I'll do the work of finding it for you!\n  Add \"--archived\" to search archived tasks instead, "
+                + "or on its own to list them all.\n  Add \"--words\" to match whole words, all of which must appear, "
+                + "or \"--ranked\" to also list tasks that mention them most first.\n  Start with \"~\" to also find "
+                + "words with typos in them.\n  E.g.: find homework"),
+        DUE("due before <date> | due between <date> <date>", "Lists deadlines due before a date, or between two "
+                + "dates, soonest first. Dates are written as yyyy-MM-dd.\n  E.g.: due between 2025-01-01 2025-01-31"),
+        OVERDUE("overdue", "Lists incomplete deadlines whose due date has already passed. No judgement, just a nudge!"),
+        CONFLICTS("conflicts", "Lists every pair of events that fall on the same day. No more double-booking!"),
+        FREE("free <date> <date>", "Lists the days between two dates with no events, so you know when you can "
+                + "squeeze something in.\n  E.g.: free 2025-01-01 2025-01-14"),
+        MARK("mark <int> [/on <date>]", "Marks a task as complete. Use the task number from the list, or #id for "
+                + "the ID shown when the task was added. Several tasks can be marked at once with a range, a list, "
+                + "or find:<keyword>.\n  Add \"/on\" to only mark the occurrence of a repeating task on that date.\n"
+                + "  E.g.: mark 1, mark #7, mark 1-5, mark 2,4,#9, mark find:report, mark 3 /on 2025-01-13"),
+        UNMARK("unmark <int> [/on <date>]", "Marks a task as incomplete. Sometimes things need a second look! "
+                + "Takes the same ranges, lists and \"/on\" as mark.\n  E.g.: unmark 1, unmark #7, unmark 1-5, "
+                + "unmark 3 /on 2025-01-13"),
         DELETE("delete <int>", "Deletes a task from your to-do list. Use the task number from "
-                + "the list.\n  E.g.: delete 2");
+                + "the list, or #id for its ID. Takes the same ranges and lists as mark.\n"
+                + "  E.g.: delete 2, delete #7, delete 4,9,12, delete find:old"),
+        UNDO("undo", "Takes back your latest change, be it adding, marking or deleting tasks. Oops-proof!"),
+        REDO("redo", "Brings back the change you just undid, as long as nothing else has changed since."),
+        DEDUPE("dedupe", "Groups tasks that say nearly the same thing, such as \"Submit Q3 report\" and "
+                + "\"submit the Q3 report\", so you can tidy up the extras."),
+        ARCHIVE("archive", "Moves all completed tasks into the archive, keeping your list short and sweet.");
 
         private final String SYNTAX;
         private final String DESCRIPTION;
@@ -93,11 +119,13 @@ public class Ui {
      *
      * @param description The description of the newly added task.
      * @param idx The 1-based index of the newly added task.
+     * @param id The stable ID of the newly added task.
      * @return The String message indicating a task has been successfully added.
      */
-    public static String getTaskAdded(String description, int idx) {
+    public static String getTaskAdded(String description, int idx, int id) {
         return "[ Task #" + idx + " Added: " + description + " ]\n"
-                + "Got it! I'll keep this safe in your to-do list. Let me know what's next!";
+                + "Got it! I'll keep this safe in your to-do list. Let me know what's next!\n"
+                + "(Its ID is #" + id + ", which stays the same even as other tasks come and go.)";
     }
 
     /**
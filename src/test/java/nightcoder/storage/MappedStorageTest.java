@@ -0,0 +1,171 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedStorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void loadTasks_appendedTasks_returnsTasksAfterReopening() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        storage.addTask(TaskCodec.decode("D|1|Submit Report|Feb 10 2025"));
+        storage.addTask(TaskCodec.decode("E|0|Team Meeting|2025-02-12 13:00|2025-02-12 14:00"));
+
+        ArrayList<Task> tasks = new MappedStorage(this.tempDir.toString(), "tasks.bin").loadTasks();
+        assertEquals(3, tasks.size());
+        assertEquals("Running", tasks.get(0).getDescription());
+        assertTrue(tasks.get(1).isCompleted());
+        assertEquals("Feb 10 2025", ((Deadline) tasks.get(1)).getDueBy());
+        assertEquals("2025-02-12 14:00", ((Event) tasks.get(2)).getEndTime());
+    }
+
+    @Test
+    public void setCompletedAndDeleteTask_validIndex_updatesRecords() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        storage.addTask(TaskCodec.decode("T|0|Jogging Home"));
+        storage.addTask(TaskCodec.decode("T|0|Swimming"));
+        storage.setCompleted(1, true);
+        storage.deleteTask(0);
+
+        MappedStorage reopened = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        assertEquals("[T|1|Jogging Home, T|0|Swimming]", MappedStorageTest.encode(reopened.loadTasks()));
+        assertThrows(IOException.class, () -> reopened.setCompleted(2, true));
+        assertThrows(IOException.class, () -> reopened.deleteTask(-1));
+    }
+
+    @Test
+    public void addTask_pastInitialCapacity_growsFile() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        for (int i = 0; i < 500; i++) {
+            storage.addTask(new ToDo("Task number " + i + " with a fairly long description to fill up the heap",
+                    false));
+        }
+        for (int i = 0; i < 400; i++) {
+            storage.deleteTask(0);
+        }
+
+        ArrayList<Task> tasks = new MappedStorage(this.tempDir.toString(), "tasks.bin").loadTasks();
+        assertEquals(100, tasks.size());
+        assertTrue(tasks.get(0).getDescription().startsWith("Task number 400 "));
+        assertFalse(tasks.get(99).isCompleted());
+    }
+
+    @Test
+    public void saveTasks_replacesContent() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        storage.saveTasks(List.of(TaskCodec.decode("D|0|Finish Homework|2025-02-15")));
+        assertEquals("[D|0|Finish Homework|2025-02-15]", this.reopen());
+    }
+
+    @Test
+    public void setCompletedAndDeleteTask_staleIndex_findsTaskById() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("#1|T|0|Running"));
+        storage.addTask(TaskCodec.decode("#2|T|0|Jogging Home"));
+        storage.addTask(TaskCodec.decode("#3|T|0|Swimming"));
+        storage.setCompleted(0, 3, true);
+        storage.deleteTask(2, 1);
+        assertThrows(IOException.class, () -> storage.deleteTask(0, 9));
+
+        ArrayList<Task> tasks = new MappedStorage(this.tempDir.toString(), "tasks.bin").loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals(2, tasks.get(0).getId());
+        assertEquals(3, tasks.get(1).getId());
+        assertTrue(tasks.get(1).isCompleted());
+    }
+
+    @Test
+    public void insertTask_middleOfTable_shiftsLaterRecords() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        storage.addTask(TaskCodec.decode("T|1|Swimming"));
+        storage.insertTask(1, new Deadline("Submit Report", false, "Feb 10 2025"));
+        storage.insertTask(3, new Event("Team Meeting", true, "1pm", "2pm"));
+        assertThrows(IOException.class, () -> storage.insertTask(5, new Deadline("Pay rent", false, "Tonight")));
+
+        assertEquals("[T|0|Running, D|0|Submit Report|Feb 10 2025, T|1|Swimming, E|1|Team Meeting|1pm|2pm]",
+                this.reopen());
+    }
+
+    @Test
+    public void saveTasks_taskCannotBeEncoded_keepsLayout() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        assertThrows(NullPointerException.class, () -> storage.saveTasks(Arrays.asList(new ToDo("Swimming", false),
+                null)));
+        storage.addTask(TaskCodec.decode("T|0|Cycling"));
+
+        assertEquals("[T|0|Running, T|0|Cycling]", this.reopen());
+    }
+
+    @Test
+    public void loadTasks_rewriteCutShort_restoresOldLayout() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(TaskCodec.decode("T|0|Running"));
+        storage.addTask(TaskCodec.decode("T|1|Swimming"));
+
+        // As if the process stopped while overwriting the file, after saving its old bytes and flagging its state
+        Path file = this.tempDir.resolve("tasks.bin");
+        Path undo = this.tempDir.resolve("tasks.bin.undo");
+        Files.write(undo, Files.readAllBytes(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1}), 28);
+            channel.write(ByteBuffer.allocate(32), 32);
+        }
+
+        assertEquals("[T|0|Running, T|1|Swimming]", this.reopen());
+        assertFalse(Files.exists(undo));
+    }
+
+    @Test
+    public void loadTasks_recordMissingFields_skipsRecord() throws IOException {
+        MappedStorage storage = new MappedStorage(this.tempDir.toString(), "tasks.bin");
+        storage.addTask(new Deadline("Submit Report", false, "Feb 10 2025"));
+        storage.addTask(new Event("Team Meeting", false, "1pm", "2pm"));
+        storage.addTask(new ToDo("Running", false));
+
+        // Cuts the heap length of the first two records down to their descriptions, leaving out their dates
+        try (FileChannel channel = FileChannel.open(this.tempDir.resolve("tasks.bin"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 4 + "Submit Report".length()), 32 + 8);
+            channel.write(ByteBuffer.allocate(4).putInt(0, 4 + "Team Meeting".length()), 32 + 16 + 8);
+        }
+
+        assertEquals("[T|0|Running]", this.reopen());
+    }
+
+    /**
+     * Opens the binary file again, and returns the records of its tasks.
+     */
+    private String reopen() {
+        return MappedStorageTest.encode(new MappedStorage(this.tempDir.toString(), "tasks.bin").loadTasks());
+    }
+
+    private static String encode(List<Task> tasks) {
+        TaskCodec codec = new TaskCodec();
+        return tasks.stream().map(codec::encode).toList().toString();
+    }
+}
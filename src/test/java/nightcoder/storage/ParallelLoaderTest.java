@@ -0,0 +1,52 @@
+package nightcoder.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import nightcoder.task.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelLoaderTest {
+    private final Storage storage = new Storage("", "");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void readLines_largeFile_matchesSequentialRead() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 60_000; i++) {
+            content.append(i % 3 == 0 ? "D|0|Deadline " + i + "|Feb 10 2025" : "T|1|Todo " + i);
+            content.append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        content.append("T|0|Last line without a newline");
+        File file = new File(this.tempDir.toFile(), "tasks.txt");
+        Files.writeString(file.toPath(), content.toString(), StandardCharsets.UTF_8);
+        assertTrue(file.length() >= ParallelLoader.MIN_PARALLEL_BYTES);
+
+        ArrayList<String> lines = ParallelLoader.readLines(file, StandardCharsets.UTF_8);
+        assertEquals(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8), lines);
+    }
+
+    @Test
+    public void parseLines_invalidEntries_skipsThemAndKeepsOrder() {
+        ArrayList<String> lines = new ArrayList<>();
+        for (int i = 0; i < ParallelLoader.MIN_PARALLEL_LINES * 3; i++) {
+            lines.add(i % 1000 == 999 ? "X|0|Invalid " + i : "T|0|Todo " + i);
+        }
+
+        ArrayList<Task> tasks = ParallelLoader.parseLines(lines, this.storage::parseStringToTask);
+        assertEquals(lines.size() - lines.size() / 1000, tasks.size());
+        assertEquals("Todo 0", tasks.get(0).getDescription());
+        assertEquals("Todo 1000", tasks.get(999).getDescription());
+        assertEquals("Todo " + (lines.size() - 1), tasks.get(tasks.size() - 1).getDescription());
+    }
+}
@@ -0,0 +1,166 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Recurrence;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StorageEngineTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sameWorkload_allEngines_endInSameState() throws IOException {
+        String folder = this.tempDir.toString();
+        StorageEngine[] engines = {
+            new Storage(folder, "tasks.txt"),
+            new Storage(folder, "journaled.txt", true),
+            new MappedStorage(folder, "tasks.bin"),
+            new InMemoryStorage(),
+        };
+        for (StorageEngine engine : engines) {
+            StorageEngineTest.runWorkload(engine);
+            engine.close();
+        }
+
+        String expected = "[[T][X] Running, [E][ ] Conference (From: Mar 01 2025, To: Mar 02 2025), "
+                + "[T][ ] Task 2, [T][X] Task 3]";
+        assertEquals(expected, new Storage(folder, "tasks.txt").loadTasks().toString());
+        assertEquals(expected, new Storage(folder, "journaled.txt", true).loadTasks().toString());
+        assertEquals(expected, new MappedStorage(folder, "tasks.bin").loadTasks().toString());
+        assertEquals(expected, engines[3].loadTasks().toString());
+    }
+
+    @Test
+    public void deleteTask_indexOutOfBounds_throwsException() throws IOException {
+        StorageEngine engine = new InMemoryStorage();
+        engine.addTask(new ToDo("Running", false));
+        assertThrows(IOException.class, () -> engine.deleteTask(1));
+        assertThrows(IOException.class, () -> engine.setCompleted(-1, true));
+    }
+
+    @Test
+    public void saveTasks_failedWrite_fileEnginesKeepSavedTasks() throws IOException {
+        String folder = this.tempDir.toString();
+        StorageEngine[] engines = {
+            new Storage(folder, "tasks.txt"),
+            new MappedStorage(folder, "tasks.bin"),
+        };
+        for (StorageEngine engine : engines) {
+            engine.addTask(new ToDo("Running", false));
+            engine.addTask(new ToDo("Jogging Home", false));
+        }
+
+        // A directory in place of the new or undo file makes every rewrite fail before the saved tasks are touched
+        Files.createDirectory(this.tempDir.resolve("tasks.txt.tmp"));
+        Files.createDirectory(this.tempDir.resolve("tasks.bin.undo"));
+        List<Task> changed = List.of(new ToDo("Running", true));
+        for (StorageEngine engine : engines) {
+            assertThrows(IOException.class, () -> engine.saveTasks(changed));
+        }
+        assertEquals("[[T][ ] Running, [T][ ] Jogging Home]", new Storage(folder, "tasks.txt").loadTasks().toString());
+        assertEquals("[[T][ ] Running, [T][ ] Jogging Home]",
+                new MappedStorage(folder, "tasks.bin").loadTasks().toString());
+        assertEquals("[[T][ ] Running, [T][ ] Jogging Home]", engines[1].loadTasks().toString());
+    }
+
+    @Test
+    public void replaceTask_repeatingTasks_allEnginesKeepRulesAndExceptions() throws IOException {
+        String folder = this.tempDir.toString();
+        StorageEngine[] engines = {
+            new Storage(folder, "tasks.txt"),
+            new Storage(folder, "journaled.txt", true),
+            new MappedStorage(folder, "tasks.bin"),
+            new InMemoryStorage(),
+        };
+        for (StorageEngine engine : engines) {
+            Task report = new Deadline("Monthly report", false, "Jan 31 2025");
+            report.setRecurrence(Recurrence.parse("month until 2025-12-31"));
+            report.setId(1);
+            Task standup = new Event("Standup", false, "2025-01-06 0930", "2025-01-06 0945");
+            standup.setRecurrence(Recurrence.parse("week"));
+            standup.setId(2);
+            engine.addTask(report);
+            engine.addTask(standup);
+            engine.addTask(new ToDo("Running", false));
+
+            Task completed = new Deadline("Monthly report", false, "Jan 31 2025");
+            completed.setRecurrence(Recurrence.parse("month until 2025-12-31 done 2025-02-28"));
+            completed.setId(1);
+            engine.replaceTask(0, 1, completed);
+            engine.close();
+        }
+
+        String expected = "[[D][ ] Monthly report (By: Jan 31 2025) (Every month until Dec 31 2025), "
+                + "[E][ ] Standup (From: 2025-01-06 0930, To: 2025-01-06 0945) (Every week), [T][ ] Running]";
+        StorageEngine[] reloaded = {
+            new Storage(folder, "tasks.txt"),
+            new Storage(folder, "journaled.txt", true),
+            new MappedStorage(folder, "tasks.bin"),
+            engines[3],
+        };
+        for (StorageEngine engine : reloaded) {
+            ArrayList<Task> tasks = engine.loadTasks();
+            assertEquals(expected, tasks.toString());
+            assertEquals("month until 2025-12-31 done 2025-02-28", tasks.get(0).getRecurrence().encode());
+            assertEquals(1, tasks.get(0).getId());
+        }
+    }
+
+    @Test
+    public void replaceTask_failedReplace_allEnginesKeepTask() throws IOException {
+        String folder = this.tempDir.toString();
+        StorageEngine[] engines = {
+            new Storage(folder, "tasks.txt"),
+            new Storage(folder, "journaled.txt", true),
+            new MappedStorage(folder, "tasks.bin"),
+            new InMemoryStorage(),
+        };
+        Task replacement = new ToDo("Running", true);
+        replacement.setId(2);
+        for (StorageEngine engine : engines) {
+            Task running = new ToDo("Running", false);
+            running.setId(1);
+            engine.addTask(running);
+            engine.addTask(new ToDo("Swimming", false));
+            assertThrows(IOException.class, () -> engine.replaceTask(0, 2, replacement));
+            assertThrows(IOException.class, () -> engine.replaceTask(2, 0, replacement));
+            assertEquals("[[T][ ] Running, [T][ ] Swimming]", engine.loadTasks().toString());
+        }
+
+        // Replacing is never a delete followed by an insert, so a failed write cannot lose the task
+        Files.createDirectory(this.tempDir.resolve("tasks.txt.tmp"));
+        replacement.setId(1);
+        assertThrows(IOException.class, () -> engines[0].replaceTask(0, 1, replacement));
+        assertEquals("[[T][ ] Running, [T][ ] Swimming]", new Storage(folder, "tasks.txt").loadTasks().toString());
+    }
+
+    private static void runWorkload(StorageEngine engine) throws IOException {
+        engine.addTask(new ToDo("Running", false));
+        engine.addTask(new Deadline("Submit Report", false, "Feb 10 2025"));
+        engine.addTask(new Event("Conference", false, "Mar 01 2025", "Mar 02 2025"));
+        engine.setCompleted(0, true);
+        engine.deleteTask(1);
+        ArrayList<Task> tasks = engine.loadTasks();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new ToDo("Task " + i, i % 2 == 1));
+        }
+        engine.saveTasks(tasks);
+        engine.deleteTask(2);
+        engine.deleteTask(2);
+        engine.setCompleted(2, false);
+        engine.saveTasks(List.copyOf(engine.loadTasks()));
+    }
+}
@@ -1,17 +1,29 @@
 package nightcoder.storage;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
 import nightcoder.task.Deadline;
 import nightcoder.task.Event;
 import nightcoder.task.Task;
 import nightcoder.task.ToDo;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StorageTest {
     private final Storage storage = new Storage("", "");
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void parseStringToTask_validToDoUsage_returnsTask() {
         // Scenario 1 - Incomplete Task
@@ -142,4 +154,210 @@ public class StorageTest {
         assertThrows(IllegalArgumentException.class, () -> this.storage.parseStringToTask("E|-1|Negative Completion|"
                 + "2:00|4:00"));
     }
+
+    @Test
+    public void loadTasks_journaledChanges_replaysJournal() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("T|0|Running");
+        journaled.appendTask("D|0|Submit Report|2025-02-10");
+        journaled.appendTask("T|0|Jogging Home");
+        journaled.setCompleted(1, true);
+        journaled.deleteTask(0);
+
+        // The tasks file itself is never rewritten, only the journal grows
+        assertFalse(new File(this.tempDir.toFile(), "tasks.txt").exists());
+        assertTrue(new File(this.tempDir.toFile(), "tasks.txt.journal").exists());
+
+        ArrayList<Task> tasks = new Storage(this.tempDir.toString(), "tasks.txt", true).loadTasks();
+        assertEquals(2, tasks.size());
+        assertEquals("Submit Report", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isCompleted());
+        assertEquals("Jogging Home", tasks.get(1).getDescription());
+    }
+
+    @Test
+    public void loadTasks_staleJournalBesideCompactedBase_ignoresJournal() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("T|0|Running");
+        journaled.appendTask("T|0|Jogging Home");
+        Path journal = this.tempDir.resolve("tasks.txt.journal");
+        byte[] staleJournal = Files.readAllBytes(journal);
+        ArrayList<String> lines = new ArrayList<>(journaled.readLines());
+        lines.add("T|0|Swimming");
+        journaled.writeLines(lines);
+
+        // Stopping between compacting the journal and deleting it leaves the journal beside the compacted file
+        Files.write(journal, staleJournal);
+        assertEquals("[T|0|Running, T|0|Jogging Home, T|0|Swimming]",
+                new Storage(this.tempDir.toString(), "tasks.txt", true).readLines().toString());
+        assertFalse(Files.exists(journal));
+    }
+
+    @Test
+    public void insertTask_journaled_replaysInsertAtIndex() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("T|0|Running");
+        journaled.insertTask(0, new Deadline("Pay | rent", false, "Tonight"));
+        journaled.insertTask(2, new ToDo("Swimming", true));
+        assertThrows(IOException.class, () -> journaled.insertTask(4, new ToDo("Cycling", false)));
+
+        assertEquals("[D|0|Pay \\| rent|Tonight, T|0|Running, T|1|Swimming]",
+                new Storage(this.tempDir.toString(), "tasks.txt", true).readLines().toString());
+    }
+
+    @Test
+    public void setCompleted_journalPastThreshold_compactsIntoTasksFile() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("T|0|Running");
+        for (int i = 1; i < Storage.JOURNAL_MAX_RECORDS; i++) {
+            journaled.setCompleted(0, i % 2 == 1);
+        }
+
+        assertFalse(new File(this.tempDir.toFile(), "tasks.txt.journal").exists());
+        ArrayList<String> lines = new Storage(this.tempDir.toString(), "tasks.txt").readLines();
+        assertEquals(1, lines.size());
+        assertEquals(Storage.JOURNAL_MAX_RECORDS % 2 == 0 ? "T|1|Running" : "T|0|Running", lines.get(0));
+    }
+
+    @Test
+    public void deleteTask_journaledIndexOutOfBounds_throwsException() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("T|0|Running");
+        assertThrows(IOException.class, () -> journaled.deleteTask(1));
+        assertThrows(IOException.class, () -> journaled.setCompleted(-1, true));
+        assertEquals(1, journaled.readLines().size());
+    }
+
+    @Test
+    public void setCompletedAndDeleteTask_staleIndex_findsTaskById() throws IOException {
+        Storage journaled = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        journaled.appendTask("#1|T|0|Running");
+        journaled.appendTask("#2|T|0|Jogging Home");
+        journaled.appendTask("#3|T|0|Swimming");
+        journaled.setCompleted(0, 3, true);
+        journaled.deleteTask(2, 1);
+        assertThrows(IOException.class, () -> journaled.deleteTask(0, 9));
+
+        // The journal records where each change landed, so replaying it gives the same result
+        assertEquals("[#2|T|0|Jogging Home, #3|T|1|Swimming]",
+                new Storage(this.tempDir.toString(), "tasks.txt", true).readLines().toString());
+    }
+
+    @Test
+    public void flush_writeBehindEnabled_writesQueuedChangesAsOneBatch() throws IOException {
+        Storage writeBehind = new Storage(this.tempDir.toString(), "tasks.txt");
+        writeBehind.enableWriteBehind(60_000, 1_000);
+        writeBehind.appendTask("T|0|Running");
+        writeBehind.appendTask("T|0|Jogging Home");
+        writeBehind.setCompleted(0, true);
+        writeBehind.deleteTask(1);
+
+        // Nothing reaches the disk until the interval passes, the batch fills up, or a flush is requested
+        assertFalse(new File(this.tempDir.toFile(), "tasks.txt").exists());
+        writeBehind.flush();
+        assertEquals("[T|1|Running]", new Storage(this.tempDir.toString(), "tasks.txt").readLines().toString());
+    }
+
+    @Test
+    public void addTask_concurrentWritersBehind_encodesEveryTask() throws IOException, InterruptedException {
+        Storage writeBehind = new Storage(this.tempDir.toString(), "tasks.txt");
+        writeBehind.enableWriteBehind(60_000, 10_000);
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; i++) {
+            String prefix = "Writer " + i + " task ";
+            writers[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 500; j++) {
+                        writeBehind.addTask(new ToDo(prefix + j, false));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        writeBehind.flush();
+
+        // Every writer shares the storage's codec, so each record must still be whole
+        ArrayList<String> lines = new Storage(this.tempDir.toString(), "tasks.txt").readLines();
+        assertEquals(2_000, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.matches("T\\|0\\|Writer \\d task \\d+")));
+        assertEquals(2_000, lines.stream().distinct().count());
+    }
+
+    @Test
+    public void close_writeBehindEnabled_reportsFailedChanges() throws IOException {
+        Storage writeBehind = new Storage(this.tempDir.toString(), "tasks.txt", true);
+        writeBehind.enableWriteBehind(60_000, 1_000);
+        writeBehind.appendTask("T|0|Running");
+        writeBehind.deleteTask(5);
+        writeBehind.setCompleted(0, true);
+
+        assertThrows(IOException.class, writeBehind::close);
+        assertThrows(IOException.class, () -> writeBehind.appendTask("T|0|Jogging Home"));
+        assertEquals("[T|1|Running]", new Storage(this.tempDir.toString(), "tasks.txt", true).readLines().toString());
+    }
+
+    @Test
+    public void setCompleted_fileChangedAfterLoad_usesInMemoryImage() throws IOException {
+        Path file = this.tempDir.resolve("tasks.txt");
+        String separator = System.lineSeparator();
+        Files.writeString(file, "T|0|Running" + separator + "T|0|Jogging Home" + separator);
+        Storage storage = new Storage(this.tempDir.toString(), "tasks.txt");
+        storage.loadTasks();
+
+        // The file is never read back, and is replaced as a whole from the in-memory image
+        Files.writeString(file, "T|0|Runnin!" + separator + "T|0|Jogging Home" + separator);
+        storage.setCompleted(1, true);
+        storage.deleteTask(1);
+        storage.appendTask("T|0|Swimming");
+        assertEquals("T|0|Running" + separator + "T|0|Swimming" + separator, Files.readString(file));
+        assertEquals("[T|0|Running, T|0|Swimming]", storage.readLines().toString());
+    }
+
+    @Test
+    public void setCompleted_rewriteFails_keepsTasksFile() throws IOException {
+        Path file = this.tempDir.resolve("tasks.txt");
+        String separator = System.lineSeparator();
+        Storage storage = new Storage(this.tempDir.toString(), "tasks.txt");
+        storage.appendTask("T|0|Running");
+        storage.appendTask("T|0|Jogging Home");
+
+        // A directory in place of the temporary file makes the rewrite fail before the tasks file is touched
+        Files.createDirectory(this.tempDir.resolve("tasks.txt.tmp"));
+        assertThrows(IOException.class, () -> storage.setCompleted(0, true));
+        assertEquals("T|0|Running" + separator + "T|0|Jogging Home" + separator, Files.readString(file));
+
+        // The change is still pending, and is written together with the next one
+        Files.delete(this.tempDir.resolve("tasks.txt.tmp"));
+        storage.appendTask("T|0|Swimming");
+        assertEquals("[T|1|Running, T|0|Jogging Home, T|0|Swimming]",
+                new Storage(this.tempDir.toString(), "tasks.txt").readLines().toString());
+    }
+
+    @Test
+    public void writeLines_unchangedLines_skipsWrite() throws IOException {
+        Storage storage = new Storage(this.tempDir.toString(), "tasks.txt");
+        storage.appendTask("T|0|Running");
+        storage.appendTask("T|1|Jogging Home");
+        Files.delete(this.tempDir.resolve("tasks.txt"));
+
+        storage.saveTasks(storage.loadTasks());
+        assertFalse(new File(this.tempDir.toFile(), "tasks.txt").exists());
+    }
+
+    @Test
+    public void setCompleted_foreignLineSeparators_rewritesWholeFile() throws IOException {
+        Path file = this.tempDir.resolve("tasks.txt");
+        String separator = System.lineSeparator();
+        String foreignSeparator = separator.equals("\n") ? "\r\n" : "\n";
+        Files.writeString(file, "T|0|Running" + foreignSeparator + "T|0|Jogging Home" + foreignSeparator);
+
+        Storage storage = new Storage(this.tempDir.toString(), "tasks.txt");
+        storage.setCompleted(1, true);
+        assertEquals("T|0|Running" + separator + "T|1|Jogging Home" + separator, Files.readString(file));
+    }
 }
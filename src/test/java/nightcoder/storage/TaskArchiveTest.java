@@ -0,0 +1,46 @@
+package nightcoder.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskArchiveTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void append_severalBatches_loadsAllTasksInOrder() throws IOException {
+        TaskArchive archive = new TaskArchive(this.tempDir.toString(), "archive");
+        archive.append(List.of(new ToDo("Running", true), new Deadline("Submit Report", true, "Feb 10 2025")));
+        archive.append(List.of(new ToDo("Jogging Home", true)));
+
+        TaskArchive reopened = new TaskArchive(this.tempDir.toString(), "archive");
+        assertEquals(3, reopened.size());
+        ArrayList<Task> tasks = reopened.loadTasks();
+        assertEquals("Running", tasks.get(0).getDescription());
+        assertEquals("Feb 10 2025", ((Deadline) tasks.get(1)).getDueBy());
+        assertEquals("Jogging Home", tasks.get(2).getDescription());
+    }
+
+    @Test
+    public void containsDescription_ignoresCase() throws IOException {
+        TaskArchive archive = new TaskArchive(this.tempDir.toString(), "archive");
+        assertFalse(archive.containsDescription("Running"));
+        archive.append(List.of(new ToDo("Running", true)));
+
+        TaskArchive reopened = new TaskArchive(this.tempDir.toString(), "archive");
+        assertTrue(reopened.containsDescription("rUNNING"));
+        assertFalse(reopened.containsDescription("Swimming"));
+    }
+}
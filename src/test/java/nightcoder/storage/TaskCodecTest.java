@@ -0,0 +1,110 @@
+package nightcoder.storage;
+
+import java.util.ArrayList;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskCodecTest {
+    private final TaskCodec codec = new TaskCodec();
+
+    @Test
+    public void encode_plainFields_matchesCurrentFormat() {
+        assertEquals("T|0|Running", this.codec.encode(new ToDo("Running", false)));
+        assertEquals("D|1|Submit Report|Feb 10 2025", this.codec.encode(new Deadline("Submit Report", true,
+                "Feb 10 2025")));
+        assertEquals("E|0|Team Meeting|2025-02-12 13:00|2025-02-12 14:00", this.codec.encode(new Event(
+                "Team Meeting", false, "2025-02-12 13:00", "2025-02-12 14:00")));
+    }
+
+    @Test
+    public void encode_shorterTaskAfterLongerOne_reusesClearedBuffer() {
+        this.codec.encode(new Event("Team Meeting", false, "2025-02-12 13:00", "2025-02-12 14:00"));
+        assertEquals("T|1|Run", this.codec.encode(new ToDo("Run", true)));
+    }
+
+    @Test
+    public void encodeThenDecode_fieldsWithPipesAndBackslashes_returnsSameTask() {
+        Task[] tasks = {
+            new ToDo("Read A|B testing notes", true),
+            new Deadline("Clean C:\\temp\\", false, "Friday | Saturday"),
+            new Event("|Edge|", true, "\\|", "a\\\\b"),
+        };
+        for (Task task : tasks) {
+            String record = this.codec.encode(task);
+            Task decoded = TaskCodec.decode(record);
+            assertEquals(task.toString(), decoded.toString());
+            assertEquals(record, this.codec.encode(decoded));
+        }
+        assertEquals("T|1|Read A\\|B testing notes", this.codec.encode(tasks[0]));
+    }
+
+    @Test
+    public void decode_unescapedBackslash_keepsBackslash() {
+        // Records written before escaping was introduced may hold lone backslashes
+        assertEquals("Clean C:\\temp", TaskCodec.decode("T|0|Clean C:\\temp").getDescription());
+    }
+
+    @Test
+    public void decode_currentRecords_matchesSplitBasedParsing() {
+        for (String record : TaskCodecTest.sampleRecords(2_000)) {
+            assertEquals(TaskCodecTest.decodeBySplit(record).toString(), TaskCodec.decode(record).toString());
+        }
+    }
+
+    @Test
+    public void withCompleted_validRecord_replacesOnlyCompletionStatus() {
+        assertEquals("D|1|Submit Report|Feb 10 2025", TaskCodec.withCompleted("D|0|Submit Report|Feb 10 2025", true));
+        assertEquals("T|0|A\\|B", TaskCodec.withCompleted("T|1|A\\|B", false));
+        assertThrows(IllegalArgumentException.class, () -> TaskCodec.withCompleted("T|0|", true));
+        assertThrows(IllegalArgumentException.class, () -> TaskCodec.withCompleted("T", true));
+    }
+
+    @Test
+    public void encodeThenDecode_taskWithId_keepsId() {
+        Task task = new Deadline("Submit | Report", true, "Feb 10 2025");
+        task.setId(42);
+        String record = this.codec.encode(task);
+        assertEquals("#42|D|1|Submit \\| Report|Feb 10 2025", record);
+        assertEquals(42, TaskCodec.getId(record));
+        assertEquals(42, TaskCodec.decode(record).getId());
+        assertEquals("#42|D|0|Submit \\| Report|Feb 10 2025", TaskCodec.withCompleted(record, false));
+    }
+
+    @Test
+    public void decode_recordWithoutId_returnsTaskWithoutId() {
+        assertEquals(0, TaskCodec.decode("T|0|Running").getId());
+        assertEquals(0, TaskCodec.getId("T|0|#5|Running"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCodec.decode("#|T|0|Running"));
+        assertThrows(IllegalArgumentException.class, () -> TaskCodec.decode("#x1|T|0|Running"));
+    }
+
+    private static ArrayList<String> sampleRecords(int count) {
+        ArrayList<String> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(switch (i % 3) {
+                case 0 -> "T|" + (i % 2) + "|Finish the project report " + i;
+                case 1 -> "D|" + (i % 2) + "|Submit assignment " + i + "|Jan 30 2025";
+                default -> "E|" + (i % 2) + "|Team meeting " + i + "|2025-01-21 3:00 PM|2025-01-21 4:00 PM";
+            });
+        }
+        return records;
+    }
+
+    /** The split-based parsing used before {@code TaskCodec}, kept as a reference for the comparison above. */
+    private static Task decodeBySplit(String line) {
+        String[] parts = line.split("\\|");
+        boolean isCompleted = parts[1].equals("1");
+        return switch (parts[0]) {
+            case "T" -> new ToDo(parts[2], isCompleted);
+            case "D" -> new Deadline(parts[2], isCompleted, parts[3]);
+            default -> new Event(parts[2], isCompleted, parts[3], parts[4]);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package nightcoder.storage;
+
+import nightcoder.task.Deadline;
+import nightcoder.task.Event;
+import nightcoder.task.Task;
+import nightcoder.task.ToDo;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskColumnsTest {
+    @Test
+    public void addAndRemove_mixedTasks_returnsEqualCopies() {
+        TaskColumns columns = new TaskColumns();
+        Task running = new ToDo("Running \u00fcn\u00efcode", true);
+        running.setId(7);
+        columns.add(0, running);
+        columns.add(1, new Event("Conference", false, "Mar 01 2025", "Mar 02 2025"));
+        columns.add(1, new Deadline("Submit Report", true, "Mar 01 2025"));
+        columns.add(0, new ToDo("Swimming", false));
+        columns.remove(0);
+        columns.setCompleted(2, true);
+
+        assertEquals(3, columns.size());
+        assertEquals("[T][X] Running \u00fcn\u00efcode", columns.get(0).toString());
+        assertEquals(7, columns.get(0).getId());
+        assertNotSame(columns.get(0), columns.get(0));
+        assertEquals("[D][X] Submit Report (By: Mar 01 2025)", columns.get(1).toString());
+        assertEquals("[E][X] Conference (From: Mar 01 2025, To: Mar 02 2025)", columns.get(2).toString());
+        assertEquals(2, columns.getDictionarySize());
+        assertEquals(0, columns.indexOfId(7));
+        assertEquals(-1, columns.indexOfId(8));
+    }
+
+    @Test
+    public void remove_mostTasks_compactsArenaAndDictionary() {
+        TaskColumns columns = new TaskColumns();
+        for (int i = 0; i < 1000; i++) {
+            columns.add(i, new Deadline("Deadline number " + i, i % 3 == 0, "Day " + i));
+        }
+        for (int i = 999; i > 0; i--) {
+            if (i % 100 != 0) {
+                columns.remove(i);
+            }
+        }
+
+        assertEquals(10, columns.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(new Deadline("Deadline number " + (i * 100), i % 3 == 0, "Day " + (i * 100)).toString(),
+                    columns.get(i).toString());
+        }
+        // Dates of removed tasks only linger until the next compaction
+        assertTrue(columns.getDictionarySize() < 100);
+    }
+
+    @Test
+    public void remove_offHeapArena_compactsAndKeepsDescriptions() {
+        TaskColumns columns = new TaskColumns(true);
+        for (int i = 0; i < 2000; i++) {
+            columns.add(i, new ToDo("Off-heap task number " + i + " caf\u00e9", false));
+        }
+        for (int i = 1999; i > 0; i--) {
+            if (i % 500 != 0) {
+                columns.remove(i);
+            }
+        }
+
+        assertEquals(4, columns.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("Off-heap task number " + (i * 500) + " caf\u00e9", columns.get(i).getDescription());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BkTreeTest {
+    @Test
+    public void distance_variousWords_returnsEditDistance() {
+        assertEquals(0, BkTree.distance("report", "report"));
+        assertEquals(2, BkTree.distance("report", "rpeort"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(4, BkTree.distance("", "task"));
+    }
+
+    @Test
+    public void search_randomWords_matchesExhaustiveComparison() {
+        Random random = new Random(2030);
+        BkTree tree = new BkTree();
+        ArrayList<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int j = 3 + random.nextInt(6); j > 0; j--) {
+                word.append((char) ('a' + random.nextInt(5)));
+            }
+            tree.add(word.toString());
+            if (!words.contains(word.toString())) {
+                words.add(word.toString());
+            }
+        }
+        assertEquals(words.size(), tree.size());
+
+        for (String query : new String[] {"abc", "eeddcc", "abcdeab", "b"}) {
+            ArrayList<String> expected = new ArrayList<>();
+            for (String word : words) {
+                if (BkTree.distance(query, word) <= 2) {
+                    expected.add(word);
+                }
+            }
+            ArrayList<String> found = new ArrayList<>();
+            for (BkTree.Match match : tree.search(query, 2)) {
+                assertEquals(BkTree.distance(query, match.word()), match.distance());
+                found.add(match.word());
+            }
+            expected.sort(Comparator.naturalOrder());
+            found.sort(Comparator.naturalOrder());
+            assertEquals(expected, found, "Failed at: " + query);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DueDateIndexTest {
+    @Test
+    public void toEpochDay_variousTexts_returnsDateOrNoDate() {
+        long day = LocalDate.of(2025, 1, 30).toEpochDay();
+        assertEquals(day, TaskDates.toEpochDay("Jan 30 2025"));
+        assertEquals(day, TaskDates.toEpochDay("2025-01-30"));
+        assertEquals(day, TaskDates.toEpochDay("2025-01-30 23:59"));
+        assertEquals(TaskDates.NO_DATE, TaskDates.toEpochDay("Tonight"));
+        assertEquals(TaskDates.NO_DATE, TaskDates.toEpochDay("2025-13-30"));
+        assertEquals(TaskDates.NO_DATE, TaskDates.toEpochDay("Foo 30 2025"));
+    }
+
+    @Test
+    public void listTasksDueBetween_mixedTasks_listsDeadlinesInDateOrder() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addDeadline("Submit report", "2025-02-10");
+        tasks.addDeadline("Pay rent", "2025-01-31");
+        tasks.addDeadline("Call home", "Tonight");
+        tasks.addEvent("Team meeting", "2025-02-01", "2025-02-01");
+        tasks.addDeadline("Renew passport", "2025-01-31 12:00");
+        tasks.addDeadline("File taxes", "2025-04-15");
+
+        assertEquals("2.[D][ ] Pay rent (By: Jan 31 2025)\n5.[D][ ] Renew passport (By: 2025-01-31 12:00)\n"
+                + "1.[D][ ] Submit report (By: Feb 10 2025)",
+                tasks.listTasksDueBetween(LocalDate.of(2025, 1, 31), LocalDate.of(2025, 2, 10)));
+        assertEquals("2.[D][ ] Pay rent (By: Jan 31 2025)\n5.[D][ ] Renew passport (By: 2025-01-31 12:00)",
+                tasks.listTasksDueBefore(LocalDate.of(2025, 2, 10)));
+        assertTrue(tasks.listTasksDueBefore(LocalDate.of(2025, 1, 31)).startsWith("[ Nothing Due! ]"));
+
+        tasks.setCompleted(tasks.get(1), true);
+        tasks.remove(0);
+        assertEquals("4.[D][ ] Renew passport (By: 2025-01-31 12:00)\n5.[D][ ] File taxes (By: Apr 15 2025)",
+                tasks.listOverdueTasks(LocalDate.of(2025, 5, 1)));
+    }
+
+    @Test
+    public void findDue_incompleteOnly_leavesOutCompletedDeadlines() {
+        DueDateIndex overdue = new DueDateIndex(true);
+        Deadline rent = new Deadline("Pay rent", true, "2025-01-31");
+        Deadline report = new Deadline("Submit report", false, "2025-02-10");
+        overdue.add(rent);
+        overdue.add(report);
+        assertEquals(List.of(report), overdue.findDue(Long.MIN_VALUE, Long.MAX_VALUE));
+
+        rent.setCompleted(false);
+        overdue.setCompleted(rent, false);
+        report.setCompleted(true);
+        overdue.setCompleted(report, true);
+        assertEquals(List.of(rent), overdue.findDue(Long.MIN_VALUE, Long.MAX_VALUE));
+        overdue.remove(rent);
+        assertTrue(overdue.findDue(Long.MIN_VALUE, Long.MAX_VALUE).isEmpty());
+    }
+}
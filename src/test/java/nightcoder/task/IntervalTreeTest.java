@@ -0,0 +1,74 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntervalTreeTest {
+    @Test
+    public void findOverlapping_randomEvents_matchesPairwiseCheck() {
+        Random random = new Random(2030);
+        IntervalTree tree = new IntervalTree();
+        ArrayList<Event> events = new ArrayList<>();
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 400; i++) {
+            LocalDate start = base.plusDays(random.nextInt(200));
+            LocalDate end = start.plusDays(random.nextInt(5));
+            Event event = new Event("Event " + i, false, start.toString(), end.toString());
+            events.add(event);
+            tree.add(event);
+        }
+        for (int i = 0; i < 100; i++) {
+            tree.remove(events.remove(random.nextInt(events.size())));
+        }
+
+        long fromDay = base.plusDays(50).toEpochDay();
+        long toDay = base.plusDays(60).toEpochDay();
+        int expected = 0;
+        for (Event event : events) {
+            if (event.getStartDay() <= toDay && event.getEndDay() >= fromDay) {
+                expected++;
+            }
+        }
+        ArrayList<Event> found = tree.findOverlapping(fromDay, toDay);
+        assertEquals(expected, found.size());
+        for (int i = 1; i < found.size(); i++) {
+            assertTrue(found.get(i - 1).getStartDay() <= found.get(i).getStartDay());
+        }
+
+        int expectedConflicts = 0;
+        for (int i = 0; i < events.size(); i++) {
+            for (int j = i + 1; j < events.size(); j++) {
+                if (events.get(i).getStartDay() <= events.get(j).getEndDay()
+                        && events.get(j).getStartDay() <= events.get(i).getEndDay()) {
+                    expectedConflicts++;
+                }
+            }
+        }
+        assertEquals(expectedConflicts, tree.findConflicts().size());
+    }
+
+    @Test
+    public void addEvent_overlappingEvent_warnsAndListsFreeDays() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addEvent("Hackathon", "2025-01-21", "2025-01-23");
+        tasks.addEvent("Team lunch", "Tonight", "Tomorrow");
+        assertTrue(tasks.addEvent("Team meeting", "2025-01-23", "2025-01-23")
+                .endsWith("[ Heads Up! ]\nThis event overlaps with:\n"
+                        + "1.[E][ ] Hackathon (From: Jan 21 2025, To: Jan 23 2025)"));
+        tasks.addEvent("Conference", "2025-01-27", "2025-01-28");
+
+        assertEquals("[ Conflicts Found: 1 ]\n1.[E][ ] Hackathon (From: Jan 21 2025, To: Jan 23 2025) <-> "
+                + "3.[E][ ] Team meeting (From: Jan 23 2025, To: Jan 23 2025)", tasks.listConflicts());
+        assertEquals("[ Free Days ]\nJan 20 2025\nJan 24 2025 - Jan 26 2025\nJan 29 2025 - Jan 31 2025",
+                tasks.listFreeDays(LocalDate.of(2025, 1, 20), LocalDate.of(2025, 1, 31)));
+        assertTrue(tasks.listFreeDays(LocalDate.of(2025, 1, 22), LocalDate.of(2025, 1, 23))
+                .startsWith("[ Fully Booked! ]"));
+    }
+}
@@ -0,0 +1,62 @@
+package nightcoder.task;
+
+import java.util.List;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NearDuplicateIndexTest {
+    @Test
+    public void findSimilar_rewordedDescription_findsOnlyNearDuplicates() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        Task report = new ToDo("Submit Q3 report", false);
+        Task rent = new Deadline("Pay the rent", false, "Friday");
+        index.add(report);
+        index.add(rent);
+        index.add(new ToDo("!!!", false));
+
+        assertEquals(List.of(report), index.findSimilar("submit the Q3 report"));
+        assertEquals(List.of(rent), index.findSimilar("pay rent"));
+        assertTrue(index.findSimilar("Submit Q4 budget").isEmpty());
+        assertTrue(index.findSimilar("???").isEmpty());
+
+        index.remove(report);
+        assertTrue(index.findSimilar("submit the Q3 report").isEmpty());
+    }
+
+    @Test
+    public void addToDo_nearDuplicate_addsTaskWithWarning() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Submit Q3 report");
+        assertFalse(tasks.addToDo("submit the Q3 report").contains("[ Possible Duplicate! ]"));
+
+        tasks.enableNearDuplicateWarnings();
+        String result = tasks.addDeadline("Submit the Q3 report now", "Friday");
+        assertTrue(result.endsWith("[ Possible Duplicate! ]\nThis looks a lot like:\n1.[T][ ] Submit Q3 report\n"
+                + "2.[T][ ] submit the Q3 report"));
+        assertEquals(3, tasks.size());
+        assertFalse(tasks.addToDo("Water plants").contains("[ Possible Duplicate! ]"));
+    }
+
+    @Test
+    public void listNearDuplicates_mixedTasks_groupsInSinglePass() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Submit Q3 report");
+        tasks.addToDo("Water plants");
+        tasks.addDeadline("Pay rent", "Friday");
+        tasks.addToDo("submit the Q3 report");
+        tasks.addToDo("Water the plants");
+        tasks.addToDo("Read book");
+
+        assertEquals("[ Possible Duplicates: 2 ]\n1.[T][ ] Submit Q3 report\n4.[T][ ] submit the Q3 report\n\n"
+                + "2.[T][ ] Water plants\n5.[T][ ] Water the plants\n\nUse \"delete\" on the ones you no longer need.",
+                tasks.listNearDuplicates());
+
+        tasks.deleteTasks(List.of(3, 4));
+        assertTrue(tasks.listNearDuplicates().startsWith("[ No Duplicates! ]"));
+    }
+}
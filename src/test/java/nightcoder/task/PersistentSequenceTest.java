@@ -0,0 +1,55 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersistentSequenceTest {
+    @Test
+    public void withInsertingAndWithout_randomPositions_matchesArrayList() {
+        Random random = new Random(2030);
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expected.add(i);
+        }
+        PersistentSequence<Integer> sequence = PersistentSequence.of(expected);
+        assertEquals(expected, sequence);
+
+        for (int i = 0; i < 5000; i++) {
+            int choice = random.nextInt(3);
+            if (expected.isEmpty() || choice == 0) {
+                int index = random.nextInt(expected.size() + 1);
+                sequence = sequence.inserting(index, -i);
+                expected.add(index, -i);
+            } else if (choice == 1) {
+                int index = random.nextInt(expected.size());
+                sequence = sequence.with(index, i);
+                expected.set(index, i);
+            } else {
+                int index = random.nextInt(expected.size());
+                sequence = sequence.without(index);
+                expected.remove(index);
+            }
+        }
+        assertEquals(expected, sequence);
+        assertEquals(expected.get(expected.size() / 2), sequence.get(expected.size() / 2));
+    }
+
+    @Test
+    public void with_earlierVersion_isLeftUnchanged() {
+        PersistentSequence<String> first = PersistentSequence.of(List.of("Running", "Swimming"));
+        PersistentSequence<String> second = first.with(0, "Cycling").inserting(2, "Rowing").without(1);
+
+        assertEquals(List.of("Running", "Swimming"), first);
+        assertEquals(List.of("Cycling", "Rowing"), second);
+        assertThrows(IndexOutOfBoundsException.class, () -> first.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> first.inserting(3, "Rowing"));
+        assertThrows(UnsupportedOperationException.class, () -> first.add("Rowing"));
+        assertEquals(List.of(), PersistentSequence.empty());
+    }
+}
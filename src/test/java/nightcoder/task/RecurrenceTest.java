@@ -0,0 +1,105 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.PrimitiveIterator;
+
+import nightcoder.storage.InMemoryStorage;
+import nightcoder.storage.TaskCodec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurrenceTest {
+    @Test
+    public void occurrences_monthlyFromEndOfMonth_onlyExpandsWindow() {
+        Recurrence recurrence = Recurrence.parse("month until 2025-04-30");
+        long firstDay = LocalDate.of(2025, 1, 31).toEpochDay();
+        PrimitiveIterator.OfLong days = recurrence.occurrences(firstDay,
+                LocalDate.of(2025, 2, 1).toEpochDay(), LocalDate.of(2025, 12, 31).toEpochDay());
+        ArrayList<LocalDate> dates = new ArrayList<>();
+        days.forEachRemaining((long day) -> dates.add(LocalDate.ofEpochDay(day)));
+
+        assertEquals("[2025-02-28, 2025-03-31, 2025-04-30]", dates.toString());
+        assertTrue(recurrence.isOccurrence(firstDay, LocalDate.of(2025, 3, 31).toEpochDay()));
+        assertFalse(recurrence.isOccurrence(firstDay, LocalDate.of(2025, 3, 30).toEpochDay()));
+        // A window decades away is reached in one step, rather than by stepping through every occurrence
+        assertTrue(Recurrence.parse("day").occurrences(firstDay, firstDay + 3_000_000, firstDay + 3_000_000)
+                .hasNext());
+    }
+
+    @Test
+    public void parse_validAndInvalidRules_encodesExceptions() {
+        Recurrence recurrence = Recurrence.parse("Week until 2026-12-31");
+        recurrence.setDone(LocalDate.of(2025, 1, 20).toEpochDay(), true);
+        recurrence.setDone(LocalDate.of(2025, 1, 13).toEpochDay(), true);
+        assertEquals("week until 2026-12-31 done 2025-01-13,2025-01-20", recurrence.encode());
+        assertEquals("Every week until Dec 31 2026", recurrence.toString());
+        assertEquals("day", Recurrence.parse("day").encode());
+
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("fortnight"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("week until Friday"));
+        assertThrows(IllegalArgumentException.class, () -> Recurrence.parse("week until 2026-12-31 daily"));
+    }
+
+    @Test
+    public void setOccurrenceCompleted_repeatingDeadline_recordsExceptionInsteadOfTask() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addDeadline("Monthly report", "2025-01-31", Recurrence.parse("month until 2025-12-31"));
+        tasks.addDeadline("Pay rent", "2025-03-01");
+        assertTrue(tasks.addDeadline("Call home", "Tonight", Recurrence.parse("day"))
+                .startsWith("[ Invalid Recurrence ]"));
+
+        assertEquals("1.[D][ ] Monthly report (By: Feb 28 2025)\n2.[D][ ] Pay rent (By: Mar 01 2025)\n"
+                + "1.[D][ ] Monthly report (By: Mar 31 2025)",
+                tasks.listTasksDueBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 31)));
+
+        assertTrue(tasks.setOccurrenceCompleted(0, LocalDate.of(2025, 2, 28), true)
+                .startsWith("[ Occurrence Marked as Complete! ]"));
+        assertTrue(tasks.setOccurrenceCompleted(0, LocalDate.of(2025, 2, 28), true)
+                .startsWith("[ Occurrence Already Complete! ]"));
+        assertTrue(tasks.setOccurrenceCompleted(0, LocalDate.of(2025, 2, 27), true)
+                .startsWith("[ No Such Occurrence ]"));
+        assertEquals(2, tasks.size());
+        assertEquals("1.[D][ ] Monthly report (By: Jan 31 2025)\n2.[D][ ] Pay rent (By: Mar 01 2025)\n"
+                + "1.[D][ ] Monthly report (By: Mar 31 2025)", tasks.listOverdueTasks(LocalDate.of(2025, 4, 1)));
+        assertEquals("#1|D|0|Monthly report|Jan 31 2025|month until 2025-12-31 done 2025-02-28",
+                new TaskCodec().encode(tasks.get(0)));
+    }
+
+    @Test
+    public void listFreeDays_weeklyEvent_blocksEveryOccurrenceInWindow() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addEvent("Offsite", "2025-01-06", "2025-01-07", Recurrence.parse("week until 2025-01-20"));
+
+        assertEquals("[ Free Days ]\nJan 08 2025 - Jan 12 2025\nJan 15 2025 - Jan 19 2025\nJan 22 2025 - Jan 31 2025",
+                tasks.listFreeDays(LocalDate.of(2025, 1, 7), LocalDate.of(2025, 1, 31)));
+        assertTrue(tasks.listConflicts().startsWith("[ No Conflicts! ]"));
+    }
+
+    @Test
+    public void addEventAndListConflicts_weeklyEvent_reportsOverlappingOccurrences() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addEvent("Offsite", "2025-01-20", "2025-01-21");
+        assertTrue(tasks.addEvent("Standup", "2025-01-06", "2025-01-06", Recurrence.parse("week"))
+                .endsWith("[ Heads Up! ]\nThis event overlaps with:\n"
+                        + "1.[E][ ] Offsite (From: Jan 20 2025, To: Jan 21 2025)"));
+        assertTrue(tasks.addEvent("Review", "2025-01-13", "2025-01-13")
+                .endsWith("[ Heads Up! ]\nThis event overlaps with:\n"
+                        + "2.[E][ ] Standup (From: Jan 13 2025, To: Jan 13 2025)"));
+        assertTrue(tasks.addEvent("Retro", "2025-01-06", "2025-01-07", Recurrence.parse("month"))
+                .endsWith("[ Heads Up! ]\nThis event overlaps with:\n"
+                        + "2.[E][ ] Standup (From: Jan 06 2025, To: Jan 06 2025)"));
+
+        assertEquals("[ Conflicts Found: 3 ]\n"
+                + "2.[E][ ] Standup (From: Jan 06 2025, To: Jan 06 2025) <-> "
+                + "4.[E][ ] Retro (From: Jan 06 2025, To: Jan 07 2025)\n"
+                + "2.[E][ ] Standup (From: Jan 13 2025, To: Jan 13 2025) <-> "
+                + "3.[E][ ] Review (From: Jan 13 2025, To: Jan 13 2025)\n"
+                + "1.[E][ ] Offsite (From: Jan 20 2025, To: Jan 21 2025) <-> "
+                + "2.[E][ ] Standup (From: Jan 20 2025, To: Jan 20 2025)", tasks.listConflicts());
+    }
+}
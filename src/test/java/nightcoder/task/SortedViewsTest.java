@@ -0,0 +1,53 @@
+package nightcoder.task;
+
+import java.util.List;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SortedViewsTest {
+    @Test
+    public void listTasksSortedBy_eachOrder_keepsListNumbers() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("water plants");
+        tasks.addDeadline("Pay rent", "2025-01-31");
+        tasks.addEvent("Team meeting", "2025-01-21", "2025-01-21");
+        tasks.addDeadline("Call home", "Tonight");
+        tasks.setCompleted(List.of(1), true);
+
+        assertEquals("3.[E][ ] Team meeting (From: Jan 21 2025, To: Jan 21 2025)\n"
+                + "2.[D][X] Pay rent (By: Jan 31 2025)\n1.[T][ ] water plants\n4.[D][ ] Call home (By: Tonight)",
+                tasks.listTasksSortedBy("due"));
+        assertEquals("1.[T][ ] water plants\n2.[D][X] Pay rent (By: Jan 31 2025)\n4.[D][ ] Call home (By: Tonight)\n"
+                + "3.[E][ ] Team meeting (From: Jan 21 2025, To: Jan 21 2025)", tasks.listTasksSortedBy("type"));
+        assertEquals("4.[D][ ] Call home (By: Tonight)\n2.[D][X] Pay rent (By: Jan 31 2025)\n"
+                + "3.[E][ ] Team meeting (From: Jan 21 2025, To: Jan 21 2025)\n1.[T][ ] water plants",
+                tasks.listTasksSortedBy("name"));
+        assertEquals("1.[T][ ] water plants\n3.[E][ ] Team meeting (From: Jan 21 2025, To: Jan 21 2025)\n"
+                + "4.[D][ ] Call home (By: Tonight)\n2.[D][X] Pay rent (By: Jan 31 2025)",
+                tasks.listTasksSortedBy("status"));
+        assertThrows(IllegalArgumentException.class, () -> tasks.listTasksSortedBy("size"));
+    }
+
+    @Test
+    public void listTasksSortedBy_afterChanges_updatesViewsIncrementally() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Read book");
+        tasks.addToDo("Buy milk");
+        tasks.addToDo("Clean desk");
+        tasks.setCompleted(List.of(0), true);
+        tasks.deleteTasks(List.of(1));
+        tasks.undo();
+        tasks.undo();
+
+        assertEquals("2.[T][ ] Buy milk\n3.[T][ ] Clean desk\n1.[T][ ] Read book", tasks.listTasksSortedBy("name"));
+        assertEquals("1.[T][ ] Read book\n2.[T][ ] Buy milk\n3.[T][ ] Clean desk", tasks.listTasksSortedBy("status"));
+
+        tasks.setCompleted(tasks.get(1), true);
+        tasks.remove(0);
+        assertEquals("2.[T][ ] Clean desk\n1.[T][X] Buy milk", tasks.listTasksSortedBy("status"));
+    }
+}
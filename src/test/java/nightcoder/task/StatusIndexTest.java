@@ -0,0 +1,51 @@
+package nightcoder.task;
+
+import java.util.List;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatusIndexTest {
+    @Test
+    public void listTasks_typeAndStatus_listsMatchesInListOrder() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Read book");
+        tasks.addDeadline("Submit report", "Tonight");
+        tasks.addEvent("Team meeting", "Monday", "Tuesday");
+        tasks.addDeadline("Pay rent", "Friday");
+        tasks.addToDo("Water plants");
+        tasks.setCompleted(List.of(1, 4), true);
+
+        assertEquals("4.[D][ ] Pay rent (By: Friday)", tasks.listTasks(Deadline.class, false));
+        assertEquals("2.[D][X] Submit report (By: Tonight)\n5.[T][X] Water plants", tasks.listTasks(null, true));
+        assertEquals("1.[T][ ] Read book\n5.[T][X] Water plants", tasks.listTasks(ToDo.class, null));
+        assertTrue(tasks.listTasks(Event.class, true).startsWith("[ No match found! ]"));
+
+        tasks.remove(0);
+        tasks.setCompleted(tasks.get(0), false);
+        assertEquals("1.[D][ ] Submit report (By: Tonight)\n3.[D][ ] Pay rent (By: Friday)",
+                tasks.listTasks(Deadline.class, false));
+    }
+
+    @Test
+    public void getStats_afterChanges_countsEveryTypeAndStatus() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Read book");
+        tasks.addToDo("Water plants");
+        tasks.addDeadline("Submit report", "Tonight");
+        tasks.addEvent("Team meeting", "Monday", "Tuesday");
+        tasks.setCompleted(List.of(0, 2, 3), true);
+        tasks.undo();
+        tasks.deleteTasks(List.of(1));
+
+        assertEquals("[ Task Stats ]\nTotal: 3 (0 done, 3 to go)\nTo-Dos: 1 (0 done)\nDeadlines: 1 (0 done)\n"
+                + "Events: 1 (0 done)\nYou're 0% of the way there. Keep it up!", tasks.getStats());
+
+        tasks.setCompleted(tasks.get(2), true);
+        assertTrue(tasks.getStats().startsWith("[ Task Stats ]\nTotal: 3 (1 done, 2 to go)"));
+        assertTrue(tasks.getStats().contains("Events: 1 (1 done)"));
+    }
+}
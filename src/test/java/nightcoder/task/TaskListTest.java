@@ -1,14 +1,30 @@
 package nightcoder.task;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import nightcoder.storage.InMemoryStorage;
 import nightcoder.storage.Storage;
+import nightcoder.storage.StorageEngine;
+import nightcoder.storage.TaskArchive;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TaskListTest {
     // Storage is instantiated but never used in the following tests
     private final TaskList taskList = new TaskList(new Storage("", ""));
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void parseDate_all20thOfEachMonth_returnsFormattedDateString() {
         String[] expectedDates = {
@@ -30,4 +46,222 @@ public class TaskListTest {
         assertEquals("2025-03-20 15:00", this.taskList.parseDate("2025-03-20 15:00"));
         assertEquals("Tonight", this.taskList.parseDate("Tonight"));
     }
+
+    @Test
+    public void archiveCompleted_completedTasks_movesThemToArchive() {
+        String folder = this.tempDir.toString();
+        TaskList tasks = new TaskList(new Storage(folder, "tasks.txt"), new TaskArchive(folder, "archive"));
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.get(0).setCompleted(true);
+        tasks.archiveCompleted();
+
+        assertEquals(1, tasks.size());
+        assertEquals("Jogging Home", tasks.get(0).getDescription());
+        assertEquals("1.[T][ ] Jogging Home\n\n[ Archived Tasks ]\nA1.[T][X] Running", tasks.listAllTasks());
+        assertEquals("A1.[T][X] Running", tasks.listArchivedTasks("run"));
+        assertEquals("A1.[T][X] Running", tasks.listArchivedTasks(""));
+        assertTrue(tasks.addToDo("running").startsWith("[ Duplicate Task ]"));
+
+        TaskList reloaded = new TaskList(new Storage(folder, "tasks.txt"), new TaskArchive(folder, "archive"));
+        reloaded.loadTasks();
+        assertEquals(1, reloaded.size());
+        assertTrue(reloaded.addToDo("RUNNING").startsWith("[ Duplicate Task ]"));
+    }
+
+    @Test
+    public void listTasksWithWords_rankedQuery_ordersByFrequency() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Finish the project report");
+        tasks.addToDo("Write project proposal");
+        tasks.addToDo("Proofread report for the project");
+        tasks.addToDo("Report on project reports, then report again");
+        tasks.remove(0);
+
+        assertEquals("2.[T][ ] Proofread report for the project\n3.[T][ ] Report on project reports, then report again",
+                tasks.listTasksWithWords("project report", false));
+        assertEquals("3.[T][ ] Report on project reports, then report again\n2.[T][ ] Proofread report for the project",
+                tasks.listTasksWithWords("report project", true));
+        assertTrue(tasks.listTasksWithWords("reports", false).startsWith("3."));
+        assertTrue(tasks.listTasksWithWords("finish", false).startsWith("[ No match found! ]"));
+    }
+
+    @Test
+    public void listSimilarTasks_misspeltQuery_ordersByDistance() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Finish the project report");
+        tasks.addToDo("Write project proposal");
+        tasks.addToDo("Prepare projector slides");
+        tasks.remove(0);
+        tasks.addToDo("Read about projects");
+
+        assertEquals("1.[T][ ] Write project proposal\n3.[T][ ] Read about projects", tasks.listSimilarTasks("projec"));
+        assertEquals("2.[T][ ] Prepare projector slides", tasks.listSimilarTasks("porjector"));
+        assertEquals("1.[T][ ] Write project proposal", tasks.listSimilarTasks("projet propsal"));
+        assertTrue(tasks.listSimilarTasks("report").startsWith("[ No match found! ]"));
+    }
+
+    @Test
+    public void loadTasks_recordsWithoutIds_assignsAndPersistsIds() throws IOException {
+        String folder = this.tempDir.toString();
+        Files.writeString(this.tempDir.resolve("tasks.txt"), "T|0|Running" + System.lineSeparator()
+                + "#5|T|0|Jogging Home" + System.lineSeparator() + "#5|T|0|Swimming" + System.lineSeparator());
+        TaskList tasks = new TaskList(new Storage(folder, "tasks.txt"));
+        tasks.loadTasks();
+
+        assertEquals(6, tasks.get(0).getId());
+        assertEquals(5, tasks.get(1).getId());
+        assertEquals(7, tasks.get(2).getId());
+        assertTrue(tasks.addToDo("Cycling").contains("#8"));
+        tasks.remove(0);
+        assertEquals(2, tasks.positionOfId(7));
+        assertEquals(0, tasks.positionOfId(6));
+        assertEquals("[#6|T|0|Running, #5|T|0|Jogging Home, #7|T|0|Swimming, #8|T|0|Cycling]",
+                new Storage(folder, "tasks.txt").readLines().toString());
+    }
+
+    @Test
+    public void setCompletedAndDeleteTasks_severalTasks_savesOnce() {
+        String folder = this.tempDir.toString();
+        TaskList tasks = new TaskList(new Storage(folder, "tasks.txt"));
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+        tasks.addToDo("Cycling");
+
+        assertTrue(tasks.setCompleted(List.of(0, 2, 3), true).startsWith("[ Tasks Marked as Complete: 3 ]"));
+        assertTrue(tasks.setCompleted(List.of(0, 2), true).startsWith("[ Tasks Already Complete! ]"));
+        assertTrue(tasks.deleteTasks(List.of(1, 3)).startsWith("[ Tasks Deleted: 2 ]"));
+        assertEquals("1.[T][X] Running\n2.[T][X] Swimming", tasks.listTasks());
+        assertEquals(List.of(1), tasks.findIndices("swim"));
+        assertEquals("[#1|T|1|Running, #3|T|1|Swimming]", new Storage(folder, "tasks.txt").readLines().toString());
+    }
+
+    @Test
+    public void archiveCompleted_failedSave_rollsBack() throws IOException {
+        String folder = this.tempDir.toString();
+        TaskList tasks = new TaskList(TaskListTest.failingSaveStorage(), new TaskArchive(folder, "archive"));
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+        tasks.get(0).setCompleted(true);
+        tasks.get(2).setCompleted(true);
+
+        assertTrue(tasks.archiveCompleted().startsWith("[ Archive Rolled Back ]"));
+        assertEquals("1.[T][X] Running\n2.[T][ ] Jogging Home\n3.[T][X] Swimming", tasks.listAllTasks());
+        assertEquals(3, tasks.positionOfId(3));
+        assertEquals(0, new TaskArchive(folder, "archive").size());
+        assertTrue(tasks.addToDo("swimming").startsWith("[ Duplicate Task ]"));
+        try (Stream<Path> files = Files.list(this.tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void setCompletedAndDeleteTasks_failedSave_rollsBack() {
+        TaskList tasks = new TaskList(TaskListTest.failingSaveStorage());
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+
+        assertTrue(tasks.setCompleted(List.of(0, 1), true).startsWith("[ Update Rolled Back ]"));
+        assertTrue(tasks.deleteTasks(List.of(0, 2)).startsWith("[ Delete Rolled Back ]"));
+        assertEquals("1.[T][ ] Running\n2.[T][ ] Jogging Home\n3.[T][ ] Swimming", tasks.listTasks());
+        assertEquals(3, tasks.positionOfId(3));
+        assertTrue(tasks.addToDo("swimming").startsWith("[ Duplicate Task ]"));
+    }
+
+    @Test
+    public void undo_bulkDelete_restoresOrderAndStorage() {
+        String folder = this.tempDir.toString();
+        TaskList tasks = new TaskList(new Storage(folder, "tasks.txt"));
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+        tasks.addToDo("Cycling");
+        tasks.deleteTasks(List.of(0, 2));
+
+        assertTrue(tasks.undo().startsWith("[ Undone! ]"));
+        String expected = "1.[T][ ] Running\n2.[T][ ] Jogging Home\n3.[T][ ] Swimming\n4.[T][ ] Cycling";
+        assertEquals(expected, tasks.listTasks());
+        TaskList reloaded = new TaskList(new Storage(folder, "tasks.txt"));
+        reloaded.loadTasks();
+        assertEquals(expected, reloaded.listTasks());
+    }
+
+    @Test
+    public void redo_afterNewChange_isDiscarded() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.undo();
+        tasks.addToDo("Swimming");
+
+        assertTrue(tasks.redo().startsWith("[ Nothing to Redo ]"));
+        assertEquals("1.[T][ ] Running\n2.[T][ ] Swimming", tasks.listTasks());
+    }
+
+    @Test
+    public void undo_failedWrite_revertsChange() {
+        boolean[] isFailing = {false};
+        InMemoryStorage storage = new InMemoryStorage() {
+            @Override
+            public void insertTask(int idx, Task task) throws IOException {
+                if (isFailing[0] && task.getDescription().equals("Swimming")) {
+                    throw new IOException("Disk full");
+                }
+                super.insertTask(idx, task);
+            }
+        };
+        TaskList tasks = new TaskList(storage);
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+        tasks.deleteTasks(List.of(0, 2));
+        isFailing[0] = true;
+
+        // Running is put back first, and is taken out again once Swimming cannot be
+        assertTrue(tasks.undo().startsWith("[ Undo Rolled Back ]"));
+        assertEquals("1.[T][ ] Jogging Home", tasks.listTasks());
+        assertEquals("[T][ ] Jogging Home", storage.loadTasks().stream().map(Task::toString)
+                .collect(Collectors.joining("\n")));
+        isFailing[0] = false;
+        assertTrue(tasks.undo().startsWith("[ Undone! ]"));
+        assertEquals("1.[T][ ] Running\n2.[T][ ] Jogging Home\n3.[T][ ] Swimming", tasks.listTasks());
+    }
+
+    private static StorageEngine failingSaveStorage() {
+        // Every single change is accepted, whereas every write of the whole list fails
+        return new StorageEngine() {
+            @Override
+            public ArrayList<Task> loadTasks() {
+                return new ArrayList<>();
+            }
+
+            @Override
+            public void addTask(Task task) {
+            }
+
+            @Override
+            public void insertTask(int idx, Task task) {
+            }
+
+            @Override
+            public void setCompleted(int idx, boolean isCompleted) {
+            }
+
+            @Override
+            public void deleteTask(int idx) {
+            }
+
+            @Override
+            public void replaceTask(int idx, int id, Task task) {
+            }
+
+            @Override
+            public void saveTasks(List<Task> tasks) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+    }
 }
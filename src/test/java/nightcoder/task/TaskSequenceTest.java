@@ -0,0 +1,47 @@
+package nightcoder.task;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskSequenceTest {
+    @Test
+    public void addAndRemove_randomPositions_matchesArrayList() {
+        Random random = new Random(2030);
+        TaskSequence sequence = new TaskSequence();
+        ArrayList<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                int index = random.nextInt(expected.size() + 1);
+                Task task = new ToDo("Task " + i, false);
+                sequence.add(index, task);
+                expected.add(index, task);
+            } else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), sequence.remove(index));
+            }
+        }
+
+        assertEquals(expected, sequence);
+        for (int i = 0; i < expected.size(); i += 7) {
+            assertEquals(i, sequence.indexOf(expected.get(i)));
+        }
+        sequence.removeIf(task -> task.getDescription().endsWith("3"));
+        expected.removeIf(task -> task.getDescription().endsWith("3"));
+        assertEquals(expected, sequence);
+        assertEquals(-1, sequence.indexOf(new ToDo("Task 3", false)));
+    }
+
+    @Test
+    public void add_sameTaskTwice_throwsException() {
+        TaskSequence sequence = new TaskSequence();
+        Task task = new ToDo("Running", false);
+        sequence.add(task);
+        assertThrows(IllegalArgumentException.class, () -> sequence.add(task));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.get(1));
+    }
+}
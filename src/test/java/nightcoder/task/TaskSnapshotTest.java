@@ -0,0 +1,110 @@
+package nightcoder.task;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskSnapshotTest {
+    @Test
+    public void listTasks_duringSlowWrite_readsLatestFinishedSnapshot() throws InterruptedException {
+        CountDownLatch isWriting = new CountDownLatch(1);
+        CountDownLatch canFinish = new CountDownLatch(1);
+        TaskList tasks = new TaskList(new InMemoryStorage() {
+            @Override
+            public void addTask(Task task) {
+                if (task.getDescription().equals("Slow task")) {
+                    isWriting.countDown();
+                    try {
+                        canFinish.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.addTask(task);
+            }
+        });
+        tasks.enableConcurrentReads();
+        tasks.write(() -> tasks.addToDo("Read book"));
+        long version = tasks.getSnapshot().getVersion();
+
+        Thread writer = new Thread(() -> tasks.write(() -> tasks.addToDo("Slow task")));
+        writer.start();
+        isWriting.await();
+        // The writer still holds the lock, yet reading does not wait for it
+        assertEquals("1.[T][ ] Read book", tasks.listTasks());
+        canFinish.countDown();
+        writer.join();
+
+        assertEquals("1.[T][ ] Read book\n2.[T][ ] Slow task", tasks.listTasks());
+        assertEquals("2.[T][ ] Slow task", tasks.listTasks("SLOW"));
+        assertTrue(tasks.getSnapshot().getVersion() > version);
+    }
+
+    @Test
+    public void write_concurrentWriters_publishesEveryChange() throws InterruptedException {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.enableConcurrentReads();
+        Thread[] writers = new Thread[4];
+        for (int i = 0; i < writers.length; i++) {
+            int writer = i;
+            writers[i] = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    String description = "Task " + writer + "-" + j;
+                    tasks.write(() -> tasks.addToDo(description));
+                }
+            });
+            writers[i].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        tasks.write(() -> tasks.setCompleted(List.of(0, 1), true));
+        tasks.write(() -> tasks.deleteTasks(List.of(2)));
+
+        assertEquals(199, tasks.getSnapshot().size());
+        assertEquals(2, tasks.listTasks(null, true).split("\n").length);
+        assertEquals(tasks.get(2).toString(), tasks.getSnapshot().getLine(2));
+        assertEquals(197, tasks.listTasks(ToDo.class, false).split("\n").length);
+    }
+
+    @Test
+    public void listTasks_keywordDuringSlowWrite_waitsForChange() throws InterruptedException {
+        CountDownLatch isWriting = new CountDownLatch(1);
+        CountDownLatch canFinish = new CountDownLatch(1);
+        TaskList tasks = new TaskList(new InMemoryStorage() {
+            @Override
+            public void addTask(Task task) {
+                isWriting.countDown();
+                try {
+                    canFinish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.addTask(task);
+            }
+        });
+        tasks.enableConcurrentReads();
+        Thread writer = new Thread(() -> tasks.write(() -> tasks.addToDo("Slow task")));
+        writer.start();
+        isWriting.await();
+
+        String[] found = new String[1];
+        Thread reader = new Thread(() -> found[0] = tasks.listTasks("slow"));
+        reader.start();
+        while (reader.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        // The search looks the keyword up in the live trigram index, so it waits for the writer to finish with it
+        assertTrue(reader.isAlive());
+        canFinish.countDown();
+        writer.join();
+        reader.join();
+
+        assertEquals("1.[T][ ] Slow task", found[0]);
+    }
+}
@@ -0,0 +1,74 @@
+package nightcoder.task;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimingWheelTest {
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void advanceTo_itemsAcrossEveryWheel_fallDueOnTimeAndInOrder() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, START);
+        // From a second to a few years ahead, so that items start out on every wheel and cascade down
+        long[] delays = {1_000, 59_000, 65_000, 3_600_000, 90_000_000, 864_000_000, 100_000_000_000L};
+        for (int i = delays.length - 1; i >= 0; i--) {
+            wheel.schedule(i, START + delays[i]);
+        }
+        TimingWheel.Timer<Integer> cancelled = wheel.schedule(-1, START + 65_000);
+        wheel.cancel(cancelled);
+        wheel.cancel(cancelled);
+        assertEquals(delays.length, wheel.size());
+
+        for (int i = 0; i < delays.length; i++) {
+            assertTrue(wheel.advanceTo(START + delays[i] - 1000).isEmpty());
+            assertEquals(List.of(i), wheel.advanceTo(START + delays[i]));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advanceTo_manyItems_fallDueTogether() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1000, START);
+        ArrayList<TimingWheel.Timer<Integer>> timers = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            timers.add(wheel.schedule(i, START + (i % 1000) * 60_000L));
+        }
+        for (int i = 0; i < 100_000; i += 2) {
+            wheel.cancel(timers.get(i));
+        }
+
+        assertEquals(50_000, wheel.advanceTo(START + 1000 * 60_000L).size());
+        assertEquals(0, wheel.size());
+        assertEquals(0, (int) wheel.schedule(0, START).getItem());
+        assertEquals(List.of(0), wheel.advanceTo(START + 1000 * 60_000L + 1000));
+    }
+
+    @Test
+    public void getDueReminders_deadlinesAndEvents_remindsOnTheirDay() {
+        long today = LocalDate.of(2025, 1, 20).atTime(8, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        tasks.addDeadline("Pay rent", "2025-01-21");
+        tasks.addDeadline("Call home", "Tonight");
+        tasks.addDeadline("Old bill", "2025-01-01");
+        tasks.enableReminders(ZoneOffset.UTC, today);
+        tasks.addEvent("Team meeting", "2025-01-20", "2025-01-20");
+        tasks.addDeadline("Submit report", "2025-01-21");
+        tasks.addDeadline("File taxes", "2025-01-22");
+        tasks.setCompleted(List.of(4), true);
+        tasks.deleteTasks(List.of(5));
+
+        assertTrue(tasks.getDueReminders(today + 3_599_000).isEmpty());
+        assertEquals(List.of("[ Reminder! ]\nStarting today: [E][ ] Team meeting (From: Jan 20 2025, To: Jan 20 2025)"
+                + "\nYou've got this!"), tasks.getDueReminders(today + 3_600_000));
+        assertEquals(List.of("[ Reminder! ]\nDue today: [D][ ] Pay rent (By: Jan 21 2025)\nYou've got this!"),
+                tasks.getDueReminders(today + 90_000_000));
+    }
+}
@@ -0,0 +1,64 @@
+package nightcoder.task;
+
+import java.util.Random;
+
+import nightcoder.storage.InMemoryStorage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrigramIndexTest {
+    @Test
+    public void search_substringKeyword_returnsVerifiedMatches() {
+        TrigramIndex index = new TrigramIndex();
+        Task report = new ToDo("Finish the project report", false);
+        Task proposal = new ToDo("Write project proposal", false);
+        index.add(report);
+        index.add(proposal);
+
+        assertEquals(2, index.search("roj").size());
+        assertEquals(1, index.search("t rep").size());
+        assertTrue(index.search("port proposal").isEmpty());
+
+        // Every trigram of "abcda" appears in the description, but the keyword itself does not
+        index.add(new ToDo("abcd bcda", false));
+        assertTrue(index.search("abcda").isEmpty());
+
+        index.remove(proposal);
+        assertEquals(1, index.search("roj").size());
+        assertTrue(index.search("posal").isEmpty());
+    }
+
+    @Test
+    public void listTasks_randomKeywords_matchesLinearScan() {
+        TaskList tasks = new TaskList(new InMemoryStorage());
+        Random random = new Random(2030);
+        for (int i = 0; i < 500; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < 12; j++) {
+                description.append((char) ('a' + random.nextInt(4)));
+            }
+            description.append(' ').append(i);
+            tasks.addToDo(description.toString());
+        }
+        for (int i = 0; i < 50; i++) {
+            tasks.remove(random.nextInt(tasks.size()));
+        }
+
+        for (String keyword : new String[] {"ab", "abc", "DCBA", "aaaa", "c 1", "bad 4"}) {
+            StringBuilder expected = new StringBuilder();
+            for (int idx = 0; idx < tasks.size(); idx++) {
+                if (tasks.get(idx).getDescription().toLowerCase().contains(keyword.toLowerCase())) {
+                    expected.append("\n").append(idx + 1).append('.').append(tasks.get(idx));
+                }
+            }
+            String result = tasks.listTasks(keyword);
+            if (expected.length() == 0) {
+                assertTrue(result.startsWith("[ No match found! ]"), "Failed at: " + keyword);
+            } else {
+                assertEquals(expected.substring(1), result, "Failed at: " + keyword);
+            }
+        }
+    }
+}
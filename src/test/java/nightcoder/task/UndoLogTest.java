@@ -0,0 +1,82 @@
+package nightcoder.task;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import nightcoder.storage.Storage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UndoLogTest {
+    @TempDir
+    Path tempDir;
+
+    private static UndoLog.Change change(int taskCount) {
+        Task[] tasks = new Task[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            tasks[i] = new ToDo("Task " + i, false);
+        }
+        return new UndoLog.Change(UndoLog.Kind.COMPLETE, tasks, new int[0]);
+    }
+
+    @Test
+    public void record_pastLimit_evictsOldestChanges() {
+        UndoLog log = new UndoLog(4);
+        UndoLog.Change first = change(1);
+        UndoLog.Change second = change(2);
+        UndoLog.Change third = change(2);
+        log.record(first);
+        log.record(second);
+        log.record(third);
+
+        assertSame(third, log.undo());
+        assertSame(second, log.undo());
+        assertNull(log.undo());
+        assertSame(second, log.redo());
+
+        // Recording after an undo discards the changes that could have been redone
+        UndoLog.Change fourth = change(1);
+        log.record(fourth);
+        assertNull(log.redo());
+        assertSame(fourth, log.undo());
+        assertSame(second, log.undo());
+
+        log.record(change(5));
+        assertNull(log.undo());
+    }
+
+    @Test
+    public void undoAndRedo_mixedChanges_restoresListAndFile() {
+        String folder = this.tempDir.toString();
+        TaskList tasks = new TaskList(new Storage(folder, "tasks.txt"));
+        tasks.addToDo("Running");
+        tasks.addToDo("Jogging Home");
+        tasks.addToDo("Swimming");
+        tasks.setCompleted(List.of(0, 2), true);
+        tasks.deleteTasks(List.of(0, 1));
+
+        assertTrue(tasks.undo().startsWith("[ Undone! ]"));
+        assertEquals("1.[T][X] Running\n2.[T][ ] Jogging Home\n3.[T][X] Swimming", tasks.listTasks());
+        tasks.undo();
+        tasks.undo();
+        assertEquals("[#1|T|0|Running, #2|T|0|Jogging Home]", new Storage(folder, "tasks.txt").readLines().toString());
+
+        assertTrue(tasks.redo().startsWith("[ Redone! ]"));
+        tasks.redo();
+        tasks.redo();
+        assertTrue(tasks.redo().startsWith("[ Nothing to Redo ]"));
+        assertEquals("1.[T][X] Swimming", tasks.listTasks());
+        assertEquals("[#3|T|1|Swimming]", new Storage(folder, "tasks.txt").readLines().toString());
+
+        for (int i = 0; i < 5; i++) {
+            tasks.undo();
+        }
+        assertTrue(tasks.undo().startsWith("[ Nothing to Undo ]"));
+        assertEquals("[]", new Storage(folder, "tasks.txt").readLines().toString());
+    }
+}
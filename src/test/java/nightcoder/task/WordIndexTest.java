@@ -0,0 +1,36 @@
+package nightcoder.task;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WordIndexTest {
+    @Test
+    public void tokenize_punctuatedText_returnsLowerCasedWords() {
+        assertEquals("[read, chapter, 3, of, sicp]", WordIndex.tokenize("Read chapter 3 (of SICP)!").toString());
+        assertTrue(WordIndex.tokenize(" -- ").isEmpty());
+    }
+
+    @Test
+    public void search_multipleWords_intersectsPostings() {
+        WordIndex index = new WordIndex();
+        Task report = new ToDo("Finish the project report", false);
+        Task proposal = new ToDo("Write project proposal", false);
+        Task reports = new ToDo("Report on project reports, then report again", false);
+        index.add(report);
+        index.add(proposal);
+        index.add(reports);
+
+        HashMap<Task, Integer> matches = index.search("REPORT project");
+        assertEquals(2, matches.size());
+        assertEquals(2, (int) matches.get(report));
+        assertEquals(3, (int) matches.get(reports));
+        assertTrue(index.search("project deadline").isEmpty());
+
+        index.remove(reports);
+        assertEquals(1, index.search("report").size());
+    }
+}